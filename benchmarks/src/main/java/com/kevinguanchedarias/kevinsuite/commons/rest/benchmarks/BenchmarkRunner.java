@@ -0,0 +1,23 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks reporting throughput and the allocation rate (GC
+ * profiler), accepts the usual JMH command line options, for example, a
+ * benchmark regexp, or <b>-rf json</b> to compare runs
+ *
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		new Runner(new OptionsBuilder().parent(commandLineOptions).addProfiler(GCProfiler.class).build()).run();
+	}
+}
@@ -0,0 +1,88 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.benchmarks;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenConfigLoader;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+
+/**
+ * Loader with a random secret and freshly generated keys of the verification
+ * method, RSA 2048, EC P-256 or Ed25519, written to a temporary directory
+ *
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class BenchmarkTokenConfigLoader implements TokenConfigLoader {
+	private static final String SECRET = "kevinsuite-benchmark-secret-which-is-long-enough-for-hs256";
+
+	private final TokenVerificationMethod verificationMethod;
+	private final Path keyDirectory;
+
+	public BenchmarkTokenConfigLoader(TokenVerificationMethod verificationMethod) {
+		this.verificationMethod = verificationMethod;
+		try {
+			keyDirectory = Files.createTempDirectory("kevinsuite-benchmark");
+			KeyPair keyPair = generateKeyPair(verificationMethod);
+			writePem(getPublicKey(), "PUBLIC KEY", keyPair.getPublic().getEncoded());
+			writePem(getPrivateKey(), "PRIVATE KEY", keyPair.getPrivate().getEncoded());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public String getTokenSecret() {
+		return SECRET;
+	}
+
+	@Override
+	public TokenVerificationMethod getVerificationMethod() {
+		return verificationMethod;
+	}
+
+	@Override
+	public String getPrivateKey() {
+		return keyDirectory.resolve("private.pem").toString();
+	}
+
+	@Override
+	public String getPublicKey() {
+		return keyDirectory.resolve("public.pem").toString();
+	}
+
+	private static KeyPair generateKeyPair(TokenVerificationMethod verificationMethod)
+			throws NoSuchAlgorithmException {
+		if (verificationMethod == TokenVerificationMethod.EC_KEY) {
+			KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+			try {
+				generator.initialize(new ECGenParameterSpec("secp256r1"));
+			} catch (InvalidAlgorithmParameterException e) {
+				throw new IllegalStateException(e);
+			}
+			return generator.generateKeyPair();
+		} else if (verificationMethod == TokenVerificationMethod.ED_KEY) {
+			return KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+		} else {
+			KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+			generator.initialize(2048);
+			return generator.generateKeyPair();
+		}
+	}
+
+	private static void writePem(String filename, String type, byte[] content) throws IOException {
+		String body = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(content);
+		Files.writeString(Path.of(filename), "-----BEGIN " + type + "-----\n" + body + "\n-----END " + type + "-----\n",
+				StandardCharsets.US_ASCII);
+	}
+}
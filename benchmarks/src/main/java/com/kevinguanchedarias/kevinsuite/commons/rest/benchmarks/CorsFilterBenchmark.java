@@ -0,0 +1,94 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.benchmarks;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.cors.CorsFilter;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.cors.SimpleCorsConfigurator;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CorsFilter} with exact, wildcard and root domain origins,
+ * with a configurable number of allowed origins
+ *
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CorsFilterBenchmark {
+	private static final FilterChain NOOP_CHAIN = (request, response) -> {
+	};
+
+	public enum OriginType {
+		EXACT, WILDCARD, ROOT_DOMAIN
+	}
+
+	@Param({ "EXACT", "WILDCARD", "ROOT_DOMAIN" })
+	public OriginType originType;
+
+	@Param({ "10", "500" })
+	public int allowedOrigins;
+
+	private CorsFilter filter;
+	private MockHttpServletRequest request;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		List<String> originList = new ArrayList<>();
+		List<String> rootOriginList = new ArrayList<>();
+		for (int i = 0; i < allowedOrigins; i++) {
+			originList.add("https://tenant-" + i + ".example.com");
+			rootOriginList.add("tenant-" + i + ".example.org");
+		}
+		String origin;
+		switch (originType) {
+		case EXACT:
+			origin = "https://tenant-" + (allowedOrigins - 1) + ".example.com";
+			break;
+		case WILDCARD:
+			originList.add("*");
+			origin = "https://anything.example.net";
+			break;
+		default:
+			origin = "https://api.tenant-" + (allowedOrigins - 1) + ".example.org:8443";
+			break;
+		}
+		SimpleCorsConfigurator configurator = new SimpleCorsConfigurator();
+		configurator.setOriginList(originList);
+		configurator.setRootOriginList(rootOriginList);
+		configurator.setMethodList(List.of("GET", "POST", "PUT", "DELETE"));
+		filter = new CorsFilter();
+		filter.setCorsConfigurator(configurator);
+		request = new MockHttpServletRequest("GET", "/api/resource");
+		request.addHeader("Origin", origin);
+		request.addHeader("Access-Control-Request-Headers", "Authorization, Content-Type");
+	}
+
+	@Benchmark
+	public MockHttpServletResponse doFilter() throws ServletException, IOException {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, NOOP_CHAIN);
+		return response;
+	}
+}
@@ -0,0 +1,124 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.benchmarks;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.JwtAuthenticationFilter;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.JwtAuthenticationProvider;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.core.Authentication;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JwtAuthenticationFilter#attemptAuthentication} for valid,
+ * expired and malformed tokens, and {@link JwtAuthenticationFilter#buildToken}
+ *
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+	public enum TokenType {
+		VALID, EXPIRED, MALFORMED
+	}
+
+	@Param({ "SECRET", "RSA_KEY", "EC_KEY", "ED_KEY" })
+	public TokenVerificationMethod verificationMethod;
+
+	@Param({ "VALID", "EXPIRED", "MALFORMED" })
+	public TokenType tokenType;
+
+	@Param({ "false", "true" })
+	public boolean lightweightRejections;
+
+	@Param({ "false", "true" })
+	public boolean pooledCrypto;
+
+	private JwtAuthenticationFilter filter;
+	private String algorithm;
+	private Map<String, Object> claims;
+	private MockHttpServletRequest request;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		filter = new JwtAuthenticationFilter();
+		filter.setTokenConfigLoader(new BenchmarkTokenConfigLoader(verificationMethod));
+		filter.setAuthenticationManager(new ProviderManager(new JwtAuthenticationProvider()));
+		filter.setConvertExceptionToJson(true);
+		filter.setLightweightRejections(lightweightRejections);
+		filter.setPooledCrypto(pooledCrypto);
+		filter.init();
+		algorithm = algorithm(verificationMethod);
+		claims = createClaims(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)));
+		request = new MockHttpServletRequest("GET", "/api/resource");
+		request.addHeader("Authorization", "Bearer " + createToken());
+	}
+
+	@Benchmark
+	public Authentication attemptAuthentication() throws IOException, ServletException {
+		return filter.attemptAuthentication(request, new MockHttpServletResponse());
+	}
+
+	@Benchmark
+	public String buildToken() {
+		return filter.buildToken(claims, algorithm);
+	}
+
+	private String createToken() {
+		switch (tokenType) {
+		case VALID:
+			return filter.buildToken(claims, algorithm);
+		case EXPIRED:
+			return filter.buildToken(createClaims(new Date(System.currentTimeMillis() - 60_000)), algorithm);
+		default:
+			return "eyJhbGciOiJIUzI1NiJ9.not-a-payload.not-a-signature";
+		}
+	}
+
+	private static String algorithm(TokenVerificationMethod verificationMethod) {
+		switch (verificationMethod) {
+		case RSA_KEY:
+			return "RS256";
+		case EC_KEY:
+			return "ES256";
+		case ED_KEY:
+			return "EdDSA";
+		default:
+			return "HS256";
+		}
+	}
+
+	private static Map<String, Object> createClaims(Date expiration) {
+		Map<String, Object> data = new HashMap<>();
+		data.put("id", 1);
+		data.put("username", "kevin");
+		data.put("email", "kevin@kevinguanchedarias.com");
+		Map<String, Object> retVal = new HashMap<>();
+		retVal.put("data", data);
+		retVal.put("exp", expiration.getTime() / 1000);
+		return retVal;
+	}
+}
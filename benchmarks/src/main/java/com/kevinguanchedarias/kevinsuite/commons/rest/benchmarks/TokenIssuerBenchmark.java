@@ -0,0 +1,116 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.benchmarks;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.JwtAuthenticationFilter;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.TokenClaims;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.TokenIssuer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link JwtAuthenticationFilter#buildToken} with
+ * {@link TokenIssuer#buildToken(TokenClaims)}, and batches signed by
+ * {@link TokenIssuer#buildTokens(List)}
+ *
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenIssuerBenchmark {
+	private static final int BATCH_SIZE = 1000;
+
+	@Param({ "SECRET", "RSA_KEY", "EC_KEY", "ED_KEY" })
+	public TokenVerificationMethod verificationMethod;
+
+	private JwtAuthenticationFilter filter;
+	private TokenIssuer tokenIssuer;
+	private String algorithm;
+	private Map<String, Object> claims;
+	private TokenClaims tokenClaims;
+	private List<TokenClaims> batch;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		BenchmarkTokenConfigLoader tokenConfigLoader = new BenchmarkTokenConfigLoader(verificationMethod);
+		filter = new JwtAuthenticationFilter();
+		filter.setTokenConfigLoader(tokenConfigLoader);
+		filter.init();
+		algorithm = algorithm(verificationMethod);
+		tokenIssuer = TokenIssuer.fromConfig(tokenConfigLoader, algorithm);
+		Instant expiration = Instant.now().plusSeconds(3600);
+		TokenUser user = new TokenUser();
+		user.setId(1);
+		user.setUsername("kevin");
+		user.setEmail("kevin@kevinguanchedarias.com");
+		tokenClaims = TokenClaims.forUser(user, expiration);
+		Map<String, Object> data = new HashMap<>();
+		data.put("id", 1);
+		data.put("username", "kevin");
+		data.put("email", "kevin@kevinguanchedarias.com");
+		claims = new HashMap<>();
+		claims.put("data", data);
+		claims.put("exp", expiration.getEpochSecond());
+		batch = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			batch.add(tokenClaims);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		tokenIssuer.close();
+	}
+
+	@Benchmark
+	public String filterBuildToken() {
+		return filter.buildToken(claims, algorithm);
+	}
+
+	@Benchmark
+	public String issuerBuildToken() {
+		return tokenIssuer.buildToken(tokenClaims);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public List<String> issuerBuildTokens() {
+		return tokenIssuer.buildTokens(batch);
+	}
+
+	private static String algorithm(TokenVerificationMethod verificationMethod) {
+		switch (verificationMethod) {
+		case RSA_KEY:
+			return "RS256";
+		case EC_KEY:
+			return "ES256";
+		case ED_KEY:
+			return "EdDSA";
+		default:
+			return "HS256";
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.reactive.security;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.Rejections;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.server.WebFilterExchange;
+import org.springframework.security.web.server.authentication.ServerAuthenticationFailureHandler;
+import reactor.core.publisher.Mono;
+
+/**
+ * Answers rejected tokens with 403 Forbidden, and the error as JSON, the
+ * bodies of the {@link Rejections} are encoded only once
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class JsonRejectionFailureHandler implements ServerAuthenticationFailureHandler {
+
+	@Override
+	public Mono<Void> onAuthenticationFailure(WebFilterExchange webFilterExchange, AuthenticationException exception) {
+		RuntimeException rejection = exception instanceof TokenRejectedException
+				? ((TokenRejectedException) exception).getRejection()
+				: exception;
+		ServerHttpResponse response = webFilterExchange.getExchange().getResponse();
+		response.setStatusCode(HttpStatus.FORBIDDEN);
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(Rejections.toJsonBody(rejection))));
+	}
+}
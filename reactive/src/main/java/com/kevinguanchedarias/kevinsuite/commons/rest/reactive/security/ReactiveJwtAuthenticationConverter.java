@@ -0,0 +1,260 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.reactive.security;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.LazyTokenUser;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.Rejections;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenConfigLoader;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.IssuerRegistry;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.JwtVerifier;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.StreamingTokenUserDecoder;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.TokenScreener;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.TokenUserDecoder;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.TokenUserResolver;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.VerifiedTokenCache;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.metrics.AuthenticationMetrics;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.revocation.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive equivalent of the token handling of the
+ * {@link com.kevinguanchedarias.kevinsuite.commons.rest.security.JwtAuthenticationFilter},
+ * converts the <b>Authorization: Bearer</b> header into an already verified
+ * {@link TokenUser}<br />
+ * Requests without the header are not rejected, as usual in WebFlux, the
+ * authorization rules decide if they can continue<br />
+ * The signature is verified in the {@link #getVerificationScheduler()}, by
+ * default the parallel scheduler when the method uses a key pair, like
+ * {@link TokenVerificationMethod#RSA_KEY}, so the event loop is not blocked by
+ * public key signatures, cache hits and the screening are done in the calling thread<br />
+ * The tokens are resolved by the same {@link TokenUserResolver} used by the
+ * servlet filter
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class ReactiveJwtAuthenticationConverter implements ServerAuthenticationConverter {
+	private static final String BEARER_PREFIX = "Bearer ";
+
+	/**
+	 * Screens, verifies and decodes the tokens, its values are exposed by the
+	 * setters of the converter
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	private final TokenUserResolver tokenUserResolver;
+
+	/**
+	 * Scheduler where the signature is verified, null to verify it in the
+	 * calling thread
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	@Setter
+	private Scheduler verificationScheduler;
+
+	public ReactiveJwtAuthenticationConverter(TokenConfigLoader tokenConfigLoader) {
+		tokenUserResolver = new TokenUserResolver(tokenConfigLoader) {
+			@Override
+			protected TokenUser toTokenUser(Claims body) {
+				return ReactiveJwtAuthenticationConverter.this.toTokenUser(body);
+			}
+		};
+		tokenUserResolver.setLightweightRejections(true);
+		verificationScheduler = tokenConfigLoader.getVerificationMethod().usesKeyPair() ? Schedulers.parallel()
+				: null;
+	}
+
+	/**
+	 * Reloads the key material, and builds a new {@link JwtVerifier} from the
+	 * current values of the {@link TokenConfigLoader}, it's invoked by the first
+	 * conversion, invoke it when the loader values change
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void rebuildVerifier() {
+		tokenUserResolver.rebuildVerifier();
+	}
+
+	public TokenConfigLoader getTokenConfigLoader() {
+		return tokenUserResolver.getTokenConfigLoader();
+	}
+
+	public VerifiedTokenCache getVerifiedTokenCache() {
+		return tokenUserResolver.getVerifiedTokenCache();
+	}
+
+	public void setVerifiedTokenCache(VerifiedTokenCache verifiedTokenCache) {
+		tokenUserResolver.setVerifiedTokenCache(verifiedTokenCache);
+	}
+
+	public TokenScreener getTokenScreener() {
+		return tokenUserResolver.getTokenScreener();
+	}
+
+	public void setTokenScreener(TokenScreener tokenScreener) {
+		tokenUserResolver.setTokenScreener(tokenScreener);
+	}
+
+	/**
+	 * When null, {@link TokenConfigLoader#getTokenUserDecoder()} is used, and if
+	 * it's null too, the user is created from the claims map
+	 *
+	 * @since 0.5.0
+	 */
+	public TokenUserDecoder getTokenUserDecoder() {
+		return tokenUserResolver.getTokenUserDecoder();
+	}
+
+	public void setTokenUserDecoder(TokenUserDecoder tokenUserDecoder) {
+		tokenUserResolver.setTokenUserDecoder(tokenUserDecoder);
+	}
+
+	/**
+	 * When not null, each token is verified by the verifier of its issuer,
+	 * selected by the <b>kid</b> or the <b>iss</b>
+	 *
+	 * @since 0.5.0
+	 */
+	public IssuerRegistry getIssuerRegistry() {
+		return tokenUserResolver.getIssuerRegistry();
+	}
+
+	/**
+	 *
+	 * @param issuerRegistry The issuers, the verified token cache is cleared
+	 *                       when their key sets change
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setIssuerRegistry(IssuerRegistry issuerRegistry) {
+		tokenUserResolver.setIssuerRegistry(issuerRegistry);
+	}
+
+	/**
+	 * When not null, tokens whose <b>jti</b> or digest have been revoked are
+	 * rejected
+	 *
+	 * @since 0.5.0
+	 */
+	public TokenRevocationList getTokenRevocationList() {
+		return tokenUserResolver.getTokenRevocationList();
+	}
+
+	/**
+	 *
+	 * @param tokenRevocationList The revoked tokens, the verified token cache is
+	 *                            cleared when tokens are revoked
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setTokenRevocationList(TokenRevocationList tokenRevocationList) {
+		tokenUserResolver.setTokenRevocationList(tokenRevocationList);
+	}
+
+	/**
+	 * When true, the user is a {@link LazyTokenUser}, which decodes the payload
+	 * on the first access to its getters, when there is no
+	 * {@link TokenUserDecoder}, a {@link StreamingTokenUserDecoder} is used
+	 *
+	 * @since 0.5.0
+	 */
+	public boolean isLazyTokenUser() {
+		return tokenUserResolver.isLazyTokenUser();
+	}
+
+	public void setLazyTokenUser(boolean lazyTokenUser) {
+		tokenUserResolver.setLazyTokenUser(lazyTokenUser);
+	}
+
+	/**
+	 * When true, HMAC and RSA tokens are verified with reusable
+	 * {@link javax.crypto.Mac} and {@link java.security.Signature} instances,
+	 * set it before the first conversion, or invoke {@link #rebuildVerifier()}
+	 *
+	 * @since 0.5.0
+	 */
+	public boolean isPooledCrypto() {
+		return tokenUserResolver.isPooledCrypto();
+	}
+
+	public void setPooledCrypto(boolean pooledCrypto) {
+		tokenUserResolver.setPooledCrypto(pooledCrypto);
+	}
+
+	public AuthenticationMetrics getMetrics() {
+		return tokenUserResolver.getMetrics();
+	}
+
+	public void setMetrics(AuthenticationMetrics metrics) {
+		tokenUserResolver.setMetrics(metrics);
+	}
+
+	@Override
+	public Mono<Authentication> convert(ServerWebExchange exchange) {
+		String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+		if (header == null || !header.startsWith(BEARER_PREFIX)) {
+			return Mono.empty();
+		}
+		String token = header.substring(BEARER_PREFIX.length());
+		try {
+			TokenUserResolver.PreparedToken preparedToken = tokenUserResolver.prepare(token);
+			if (preparedToken.getCachedUser() != null) {
+				return recordAccepted(Mono.just(preparedToken.getCachedUser()));
+			}
+			Mono<Authentication> verification = Mono.fromCallable(() -> verify(preparedToken));
+			return recordAccepted(
+					verificationScheduler == null ? verification : verification.subscribeOn(verificationScheduler));
+		} catch (RuntimeException e) {
+			return Mono.error(toRejection(e));
+		}
+	}
+
+	/**
+	 * Maps the claims of an already verified token to the user
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected TokenUser toTokenUser(Claims body) {
+		return TokenUserResolver.fromDataClaim(body);
+	}
+
+	private Authentication verify(TokenUserResolver.PreparedToken preparedToken) {
+		try {
+			return tokenUserResolver.verify(preparedToken);
+		} catch (RuntimeException e) {
+			throw toRejection(e);
+		}
+	}
+
+	private Mono<Authentication> recordAccepted(Mono<Authentication> authentication) {
+		AuthenticationMetrics metrics = getMetrics();
+		return metrics == null ? authentication : authentication.doOnNext(user -> metrics.recordAccepted());
+	}
+
+	private TokenRejectedException toRejection(RuntimeException e) {
+		if (e instanceof TokenRejectedException) {
+			return (TokenRejectedException) e;
+		}
+		RuntimeException rejection = e instanceof JwtException ? Rejections.fromJwtException((JwtException) e) : e;
+		AuthenticationMetrics metrics = getMetrics();
+		if (metrics != null) {
+			metrics.recordRejected(rejection);
+		}
+		return new TokenRejectedException(rejection);
+	}
+}
@@ -0,0 +1,42 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.reactive.security;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenConfigLoader;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+
+/**
+ * Reactive equivalent of the
+ * {@link com.kevinguanchedarias.kevinsuite.commons.rest.security.JwtAuthenticationFilter},
+ * add it with
+ * <code>http.addFilterAt(filter, SecurityWebFiltersOrder.AUTHENTICATION)</code><br />
+ * The authenticated {@link com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser}
+ * is stored only in the reactive security context of the request, rejected
+ * tokens are answered with 403 Forbidden and the error as JSON
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class ReactiveJwtAuthenticationFilter extends AuthenticationWebFilter {
+	private final ReactiveJwtAuthenticationConverter converter;
+
+	public ReactiveJwtAuthenticationFilter(TokenConfigLoader tokenConfigLoader) {
+		this(new ReactiveJwtAuthenticationConverter(tokenConfigLoader));
+	}
+
+	/**
+	 *
+	 * @param converter Configured converter, for example with a
+	 *                  {@link com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.VerifiedTokenCache}
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ReactiveJwtAuthenticationFilter(ReactiveJwtAuthenticationConverter converter) {
+		super(new ReactiveJwtAuthenticationManager());
+		this.converter = converter;
+		setServerAuthenticationConverter(converter);
+		setAuthenticationFailureHandler(new JsonRejectionFailureHandler());
+	}
+
+	public ReactiveJwtAuthenticationConverter getConverter() {
+		return converter;
+	}
+}
@@ -0,0 +1,25 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.reactive.security;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive equivalent of the
+ * {@link com.kevinguanchedarias.kevinsuite.commons.rest.security.JwtAuthenticationProvider},
+ * the {@link TokenUser} has already been verified by the
+ * {@link ReactiveJwtAuthenticationConverter}
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class ReactiveJwtAuthenticationManager implements ReactiveAuthenticationManager {
+
+	@Override
+	public Mono<Authentication> authenticate(Authentication authentication) {
+		TokenUser user = (TokenUser) authentication.getCredentials();
+		user.setAuthenticated(true);
+		return Mono.just(user);
+	}
+}
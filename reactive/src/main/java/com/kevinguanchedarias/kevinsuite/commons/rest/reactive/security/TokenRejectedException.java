@@ -0,0 +1,33 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.reactive.security;
+
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Carries the rejection to the failure handler of the
+ * {@link ReactiveJwtAuthenticationFilter}, as only
+ * {@link AuthenticationException} reach it, the cause is one of the
+ * {@link com.kevinguanchedarias.kevinsuite.commons.rest.security.Rejections},
+ * or the exception thrown by the authentication
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class TokenRejectedException extends AuthenticationException {
+	private static final long serialVersionUID = 4316457264327462091L;
+
+	private final RuntimeException rejection;
+
+	public TokenRejectedException(RuntimeException rejection) {
+		super(rejection.getMessage(), rejection);
+		this.rejection = rejection;
+	}
+
+	public RuntimeException getRejection() {
+		return rejection;
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+}
@@ -0,0 +1,142 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.reactive.security.cors;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.cors.CorsConfigurator;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.cors.CorsHeaderBundle;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.cors.CorsOriginIndex;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.metrics.CorsMetrics;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reactive equivalent of the
+ * {@link com.kevinguanchedarias.kevinsuite.commons.rest.security.cors.CorsFilter},
+ * not allowed origins are answered with 403 Forbidden, CORS preflight requests
+ * with 204 No Content, and other OPTIONS requests with "OK"
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@Slf4j
+public class ReactiveCorsFilter implements WebFilter {
+	private static final byte[] OK_BODY = "OK".getBytes(StandardCharsets.US_ASCII);
+
+	@Getter
+	private CorsConfigurator corsConfigurator;
+
+	@Getter
+	@Setter
+	private CorsMetrics metrics;
+
+	private volatile CorsOriginIndex originIndex;
+	private volatile CorsHeaderBundle headerBundle;
+
+	public void setCorsConfigurator(CorsConfigurator corsConfigurator) {
+		this.corsConfigurator = corsConfigurator;
+		originIndex = null;
+		headerBundle = null;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+		ServerHttpResponse response = exchange.getResponse();
+		String clientOriginHeader = request.getHeaders().getOrigin();
+		if (clientOriginHeader != null && corsConfigurator != null) {
+			if (!findOriginIndex().isAllowed(clientOriginHeader)) {
+				if (metrics != null) {
+					metrics.recordRejected();
+				}
+				corsConfigurator.reportRejectedOrigin(clientOriginHeader);
+				log.debug("Origin {} is not authorized to use the service", clientOriginHeader);
+				response.setStatusCode(HttpStatus.FORBIDDEN);
+				return response.setComplete();
+			}
+			if (metrics != null) {
+				metrics.recordAccepted();
+			}
+			addHeadersFromConfigurator(request, response, clientOriginHeader);
+			if (isPreflight(request)) {
+				if (metrics != null) {
+					metrics.recordPreflight();
+				}
+				response.setStatusCode(HttpStatus.NO_CONTENT);
+				return response.setComplete();
+			}
+		} else if (corsConfigurator == null) {
+			log.warn(this.getClass().getName() + " is doing nothing, as CorsConfigurator has not been set!");
+		} else {
+			log.debug("Client didn't send the origin header");
+		}
+
+		if (HttpMethod.OPTIONS.equals(request.getMethod())) {
+			return response.writeWith(Mono.just(response.bufferFactory().wrap(OK_BODY)));
+		} else {
+			return chain.filter(exchange);
+		}
+	}
+
+	/**
+	 * Rebuilds the origin index and the header values, required when the lists
+	 * of the configurator are modified in place, without changing their size
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void refreshOriginIndex() {
+		originIndex = null;
+		headerBundle = null;
+	}
+
+	private void addHeadersFromConfigurator(ServerHttpRequest request, ServerHttpResponse response,
+			String clientOriginHeader) {
+		CorsHeaderBundle bundle = findHeaderBundle();
+		HttpHeaders headers = response.getHeaders();
+		headers.add(CorsHeaderBundle.ALLOW_ORIGIN, clientOriginHeader);
+		headers.set(CorsHeaderBundle.ALLOW_CREDENTIALS, CorsHeaderBundle.ALLOW_CREDENTIALS_VALUE);
+		headers.set(CorsHeaderBundle.MAX_AGE, CorsHeaderBundle.MAX_AGE_VALUE);
+		if (bundle.getAllowMethods() != null) {
+			headers.set(CorsHeaderBundle.ALLOW_METHODS, bundle.getAllowMethods());
+		}
+		String requestHeaders = request.getHeaders().getFirst(CorsHeaderBundle.REQUEST_HEADERS);
+		if (bundle.getAllowHeaders() != null) {
+			headers.set(CorsHeaderBundle.ALLOW_HEADERS, bundle.getAllowHeaders());
+		} else if (requestHeaders != null) {
+			headers.add(CorsHeaderBundle.ALLOW_HEADERS, requestHeaders);
+		}
+	}
+
+	private boolean isPreflight(ServerHttpRequest request) {
+		return HttpMethod.OPTIONS.equals(request.getMethod())
+				&& request.getHeaders().containsKey(CorsHeaderBundle.REQUEST_METHOD);
+	}
+
+	private CorsOriginIndex findOriginIndex() {
+		CorsOriginIndex index = originIndex;
+		if (index == null || index.isStale(corsConfigurator)) {
+			index = CorsOriginIndex.of(corsConfigurator);
+			originIndex = index;
+		}
+		return index;
+	}
+
+	private CorsHeaderBundle findHeaderBundle() {
+		CorsHeaderBundle bundle = headerBundle;
+		if (bundle == null || bundle.isStale(corsConfigurator)) {
+			bundle = CorsHeaderBundle.of(corsConfigurator);
+			headerBundle = bundle;
+		}
+		return bundle;
+	}
+}
@@ -0,0 +1,101 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.reactive.security;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.Rejections;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenConfigLoader;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.VerifiedTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.Authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveJwtAuthenticationConverterTest {
+
+	private static final String SECRET = "a-secret-long-enough-for-the-hs256-algorithm";
+
+	private ReactiveJwtAuthenticationConverter converter;
+
+	@BeforeEach
+	public void init() {
+		converter = new ReactiveJwtAuthenticationConverter(new TokenConfigLoader() {
+			@Override
+			public String getTokenSecret() {
+				return SECRET;
+			}
+
+			@Override
+			public TokenVerificationMethod getVerificationMethod() {
+				return TokenVerificationMethod.SECRET;
+			}
+
+			@Override
+			public String getPrivateKey() {
+				return null;
+			}
+
+			@Override
+			public String getPublicKey() {
+				return null;
+			}
+		});
+	}
+
+	@Test
+	void should_convert_valid_tokens() {
+		TokenUser user = (TokenUser) convert("Bearer " + token(SECRET));
+
+		assertEquals(7, user.getId());
+		assertEquals("kevin", user.getUsername());
+	}
+
+	@Test
+	void should_ignore_requests_without_bearer_token() {
+		assertNull(convert(null));
+		assertNull(convert("Basic a2V2aW46"));
+	}
+
+	@Test
+	void should_reject_tokens_signed_with_other_key() {
+		String header = "Bearer " + token("other-secret-long-enough-for-the-hs256-algorithm");
+
+		TokenRejectedException exception = assertThrows(TokenRejectedException.class, () -> convert(header));
+
+		assertSame(Rejections.INVALID_TOKEN, exception.getRejection());
+	}
+
+	@Test
+	void should_take_verified_tokens_from_the_cache() {
+		converter.setVerifiedTokenCache(new VerifiedTokenCache(16));
+		String header = "Bearer " + token(SECRET);
+
+		convert(header);
+		convert(header);
+
+		assertEquals(1, converter.getVerifiedTokenCache().getHitCount());
+	}
+
+	private Authentication convert(String authorization) {
+		MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/");
+		if (authorization != null) {
+			request.header(HttpHeaders.AUTHORIZATION, authorization);
+		}
+		return converter.convert(MockServerWebExchange.from(request)).block();
+	}
+
+	private static String token(String secret) {
+		return Jwts.builder().setClaims(Map.of("data", Map.of("id", 7, "username", "kevin")))
+				.signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+				.compact();
+	}
+}
@@ -0,0 +1,86 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.reactive.security.cors;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.cors.SimpleCorsConfigurator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveCorsFilterTest {
+
+	private static final String ORIGIN = "https://universes-1.sgt.kevinguanchedarias.com:7070";
+
+	private SimpleCorsConfigurator corsConfigurator;
+	private ReactiveCorsFilter corsFilter;
+	private boolean chainInvoked;
+
+	@BeforeEach
+	public void init() {
+		corsConfigurator = new SimpleCorsConfigurator();
+		corsConfigurator.setOriginList(new ArrayList<>());
+		corsConfigurator.setRootOriginList(new ArrayList<>(List.of("kevinguanchedarias.com")));
+		corsConfigurator.setMethodList(new ArrayList<>(List.of("GET", "POST")));
+		corsFilter = new ReactiveCorsFilter();
+		corsFilter.setCorsConfigurator(corsConfigurator);
+	}
+
+	@Test
+	void should_add_headers_to_allowed_origins() {
+		MockServerWebExchange exchange = filter(MockServerHttpRequest.get("/").header("Origin", ORIGIN));
+
+		assertTrue(chainInvoked);
+		assertEquals(ORIGIN, exchange.getResponse().getHeaders().getFirst("Access-Control-Allow-Origin"));
+		assertEquals("GET, POST", exchange.getResponse().getHeaders().getFirst("Access-Control-Allow-Methods"));
+	}
+
+	@Test
+	void should_add_the_configured_headers() {
+		filter(MockServerHttpRequest.get("/").header("Origin", ORIGIN));
+		corsConfigurator.addHeader("Authorization");
+
+		MockServerWebExchange exchange = filter(MockServerHttpRequest.get("/").header("Origin", ORIGIN)
+				.header("Access-Control-Request-Headers", "X-Other"));
+
+		assertEquals("Authorization", exchange.getResponse().getHeaders().getFirst("Access-Control-Allow-Headers"));
+	}
+
+	@Test
+	void should_forbid_not_allowed_origins() {
+		MockServerWebExchange exchange = filter(MockServerHttpRequest.get("/").header("Origin", "https://loltrain.com"));
+
+		assertFalse(chainInvoked);
+		assertEquals(HttpStatus.FORBIDDEN, exchange.getResponse().getStatusCode());
+	}
+
+	@Test
+	void should_answer_no_content_to_preflight() {
+		MockServerWebExchange exchange = filter(MockServerHttpRequest.options("/").header("Origin", ORIGIN)
+				.header("Access-Control-Request-Method", "POST"));
+
+		assertFalse(chainInvoked);
+		assertEquals(HttpStatus.NO_CONTENT, exchange.getResponse().getStatusCode());
+	}
+
+	@Test
+	void should_continue_when_origin_header_is_missing() {
+		filter(MockServerHttpRequest.get("/"));
+
+		assertTrue(chainInvoked);
+	}
+
+	private MockServerWebExchange filter(MockServerHttpRequest.BaseBuilder<?> request) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(request);
+		corsFilter.filter(exchange, filteredExchange -> {
+			chainInvoked = true;
+			return Mono.empty();
+		}).block();
+		return exchange;
+	}
+}
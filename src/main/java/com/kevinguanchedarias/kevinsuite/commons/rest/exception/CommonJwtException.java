@@ -11,4 +11,15 @@ public class CommonJwtException extends RuntimeException {
 		super(message, e);
 	}
 
+	/**
+	 *
+	 * @param writableStackTrace False to skip filling the stack trace, for
+	 *                           frequent and expected errors
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected CommonJwtException(String message, Throwable cause, boolean writableStackTrace) {
+		super(message, cause, false, writableStackTrace);
+	}
+
 }
@@ -10,4 +10,15 @@ public class CommonRestException extends RuntimeException {
 	public CommonRestException(String message, Exception e) {
 		super(message, e);
 	}
+
+	/**
+	 *
+	 * @param writableStackTrace False to skip filling the stack trace, for
+	 *                           frequent and expected errors
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected CommonRestException(String message, Throwable cause, boolean writableStackTrace) {
+		super(message, cause, false, writableStackTrace);
+	}
 }
@@ -10,4 +10,19 @@ public class InvalidAuthorizationHeader extends CommonRestException {
 	public InvalidAuthorizationHeader(String message, Exception e) {
 		super(message, e);
 	}
+
+	private InvalidAuthorizationHeader(String message, boolean writableStackTrace) {
+		super(message, null, writableStackTrace);
+	}
+
+	/**
+	 * Creates an instance without stack trace, cheap to create, and safe to
+	 * reuse
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static InvalidAuthorizationHeader stackless(String message) {
+		return new InvalidAuthorizationHeader(message, false);
+	}
 }
@@ -7,4 +7,19 @@ public class JwtTokenExpired extends CommonJwtException {
 		super(message);
 	}
 
+	private JwtTokenExpired(String message, boolean writableStackTrace) {
+		super(message, null, writableStackTrace);
+	}
+
+	/**
+	 * Creates an instance without stack trace, cheap to create, and safe to
+	 * reuse
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static JwtTokenExpired stackless(String message) {
+		return new JwtTokenExpired(message, false);
+	}
+
 }
\ No newline at end of file
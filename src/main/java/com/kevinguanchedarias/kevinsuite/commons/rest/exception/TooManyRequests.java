@@ -0,0 +1,30 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.exception;
+
+/**
+ * The principal has exceeded its rate limit
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class TooManyRequests extends CommonRestException {
+	private static final long serialVersionUID = -6209346331745309121L;
+
+	public TooManyRequests(String message) {
+		super(message);
+	}
+
+	private TooManyRequests(String message, boolean writableStackTrace) {
+		super(message, null, writableStackTrace);
+	}
+
+	/**
+	 * Creates an instance without stack trace, cheap to create, and safe to
+	 * reuse
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static TooManyRequests stackless(String message) {
+		return new TooManyRequests(message, false);
+	}
+}
@@ -1,12 +1,25 @@
 package com.kevinguanchedarias.kevinsuite.commons.rest.security;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kevinguanchedarias.kevinsuite.commons.rest.exception.*;
 import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
-import com.kevinguanchedarias.kevinsuite.commons.rest.security.pojo.BackendErrorPojo;
-import com.kevinguanchedarias.kevinsuite.commons.rest.security.pojo.PemFile;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.event.AuthenticationEvent;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.event.AuthenticationEventDispatcher;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.IssuerRegistry;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.JwtVerifier;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.PooledJwsSigner;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.StreamingTokenUserDecoder;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.TokenScreener;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.TokenUserDecoder;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.TokenUserResolver;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.VerificationCoalescer;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.VerifiedTokenCache;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.PemKeys;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.metrics.AuthenticationMetrics;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.ratelimit.PrincipalRateLimiter;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.revocation.TokenRevocationList;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.WeakKeyException;
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -15,7 +28,8 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.authentication.AbstractAuthenticationProcessingFilter;
@@ -26,9 +40,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.security.*;
 import java.security.spec.InvalidKeySpecException;
-import java.security.spec.PKCS8EncodedKeySpec;
-import java.security.spec.X509EncodedKeySpec;
-import java.util.HashMap;
+import java.time.Duration;
 import java.util.Map;
 
 @Slf4j
@@ -36,18 +48,72 @@ public class JwtAuthenticationFilter extends AbstractAuthenticationProcessingFil
 
 	@Getter
 	@Setter
-	private TokenConfigLoader tokenConfigLoader;
+	private FilterEventHandler filterEventHandler;
 
+	/**
+	 * When not null, an {@link AuthenticationEvent} is published for each
+	 * accepted or rejected request, unlike the {@link FilterEventHandler}, it
+	 * can deliver them in background, the listeners of synchronous dispatchers
+	 * can reject accepted requests by throwing, the exception is handled as any
+	 * other rejection, without publishing a second event
+	 *
+	 * @since 0.5.0
+	 */
 	@Getter
 	@Setter
-	private FilterEventHandler filterEventHandler;
+	private AuthenticationEventDispatcher authenticationEventDispatcher;
 
-	private PublicKey publicKey;
-	private PrivateKey privateKey;
+	/**
+	 * When not null, authenticated requests over the limit of their principal
+	 * are rejected with a 429 status, and a <b>Retry-After</b> header, or with a
+	 * {@link com.kevinguanchedarias.kevinsuite.commons.rest.exception.TooManyRequests}
+	 * when the exceptions are not converted to JSON
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	private PrincipalRateLimiter principalRateLimiter;
+
+	/**
+	 * Screens, verifies and decodes the tokens, the same core used by the
+	 * reactive converter, its values are exposed by the setters of the filter
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	private final TokenUserResolver tokenUserResolver = new TokenUserResolver() {
+		@Override
+		protected Claims parseClaims(String token) {
+			return getTokenClaimsIfNotExpired(token);
+		}
+
+		@Override
+		protected TokenUser toTokenUser(Claims body) {
+			return JwtAuthenticationFilter.this.toTokenUser(body);
+		}
+	};
+
+	private volatile PrivateKey privateKey;
+	private volatile SecretKey secretKey;
+	private volatile PooledJwsSigner tokenSigner;
+
+	/**
+	 * When not null, requests to its public paths skip the authentication,
+	 * without reading the Authorization header
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	@Setter
+	private PublicPathMatcher publicPathMatcher;
 
 	@Getter
 	@Setter
 	private Boolean convertExceptionToJson = false;
+
+	@Getter
+	@Setter
+	private LogRateLimiter rejectionLogRateLimiter = new LogRateLimiter(10, Duration.ofSeconds(1));
 	private boolean useAntMatcher = false;
 
 	public JwtAuthenticationFilter() {
@@ -72,71 +138,373 @@ public class JwtAuthenticationFilter extends AbstractAuthenticationProcessingFil
 	 */
 	@PostConstruct
 	public void init() {
-		if (tokenConfigLoader.getVerificationMethod() == TokenVerificationMethod.RSA_KEY) {
-			Security.addProvider(new BouncyCastleProvider());
-			try {
-				KeyFactory keyFactory = KeyFactory.getInstance("RSA", "BC");
-				publicKey = generatePublicKey(keyFactory, tokenConfigLoader.getPublicKey());
-				if (!StringUtils.hasLength(tokenConfigLoader.getPrivateKey())) {
-					log.debug("Notice: No private key was specified, will not be possible to sign tokens");
-				} else {
-					privateKey = generatePrivateKey(keyFactory, tokenConfigLoader.getPrivateKey());
+		rebuildVerifier();
+	}
+
+	/**
+	 * Reloads the key material, and builds a new {@link JwtVerifier} from the
+	 * current values of the {@link TokenConfigLoader}<br />
+	 * Invoke it when the loader values change, requests being processed keep
+	 * using the previous verifier
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public synchronized void rebuildVerifier() {
+		TokenConfigLoader tokenConfigLoader = getTokenConfigLoader();
+		TokenVerificationMethod verificationMethod = tokenConfigLoader.getVerificationMethod();
+		if (verificationMethod.usesKeyPair()) {
+			if (!StringUtils.hasLength(tokenConfigLoader.getPrivateKey())) {
+				log.debug("Notice: No private key was specified, will not be possible to sign tokens");
+			} else {
+				try {
+					privateKey = PemKeys.readPrivateKey(
+							PemKeys.keyFactory(verificationMethod, tokenConfigLoader.getCryptoProvider()),
+							tokenConfigLoader.getPrivateKey());
+				} catch (NoSuchAlgorithmException | FileNotFoundException | InvalidKeySpecException
+						| IOException e) {
+					throw new CommonRestException("Couldn't init " + this.getClass().getName(), e);
 				}
-			} catch (NoSuchAlgorithmException | NoSuchProviderException | FileNotFoundException
-					| InvalidKeySpecException | IOException e) {
-				throw new CommonRestException("Couldn't init " + this.getClass().getName(), e);
 			}
 		}
+		tokenUserResolver.rebuildVerifier();
+		secretKey = verificationMethod == TokenVerificationMethod.SECRET ? createSecretKey() : null;
+		tokenSigner = isPooledCrypto() || verificationMethod == TokenVerificationMethod.ED_KEY ? createTokenSigner()
+				: null;
+	}
 
+	public TokenConfigLoader getTokenConfigLoader() {
+		return tokenUserResolver.getTokenConfigLoader();
+	}
+
+	public void setTokenConfigLoader(TokenConfigLoader tokenConfigLoader) {
+		tokenUserResolver.setTokenConfigLoader(tokenConfigLoader);
+	}
+
+	/**
+	 * When not null, already verified tokens are taken from this cache
+	 *
+	 * @since 0.5.0
+	 */
+	public VerifiedTokenCache getVerifiedTokenCache() {
+		return tokenUserResolver.getVerifiedTokenCache();
+	}
+
+	public void setVerifiedTokenCache(VerifiedTokenCache verifiedTokenCache) {
+		tokenUserResolver.setVerifiedTokenCache(verifiedTokenCache);
+	}
+
+	/**
+	 * When not null, tokens are screened before verifying their signature
+	 *
+	 * @since 0.5.0
+	 */
+	public TokenScreener getTokenScreener() {
+		return tokenUserResolver.getTokenScreener();
+	}
+
+	public void setTokenScreener(TokenScreener tokenScreener) {
+		tokenUserResolver.setTokenScreener(tokenScreener);
+	}
+
+	/**
+	 * When not null, the user is created by this decoder from the token payload,
+	 * instead of from the claims map, see {@link #toTokenUser(Claims)}, set it
+	 * before {@link #init()} so nested claims are not deserialized by the
+	 * verifier, when null, {@link TokenConfigLoader#getTokenUserDecoder()} is
+	 * used
+	 *
+	 * @since 0.5.0
+	 */
+	public TokenUserDecoder getTokenUserDecoder() {
+		return tokenUserResolver.getTokenUserDecoder();
+	}
+
+	public void setTokenUserDecoder(TokenUserDecoder tokenUserDecoder) {
+		tokenUserResolver.setTokenUserDecoder(tokenUserDecoder);
+	}
+
+	/**
+	 * When not null, each token is verified by the verifier of its issuer,
+	 * selected by the <b>kid</b> or the <b>iss</b>, instead of the verifier of
+	 * the {@link #getTokenConfigLoader()}, which is still used to sign tokens
+	 *
+	 * @since 0.5.0
+	 */
+	public IssuerRegistry getIssuerRegistry() {
+		return tokenUserResolver.getIssuerRegistry();
+	}
+
+	/**
+	 *
+	 * @param issuerRegistry The issuers, the verified token cache is cleared
+	 *                       when their key sets change
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setIssuerRegistry(IssuerRegistry issuerRegistry) {
+		tokenUserResolver.setIssuerRegistry(issuerRegistry);
+	}
+
+	/**
+	 * When not null, tokens whose <b>jti</b> or digest have been revoked are
+	 * rejected
+	 *
+	 * @since 0.5.0
+	 */
+	public TokenRevocationList getTokenRevocationList() {
+		return tokenUserResolver.getTokenRevocationList();
+	}
+
+	/**
+	 *
+	 * @param tokenRevocationList The revoked tokens, the verified token cache is
+	 *                            cleared when tokens are revoked
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setTokenRevocationList(TokenRevocationList tokenRevocationList) {
+		tokenUserResolver.setTokenRevocationList(tokenRevocationList);
+	}
+
+	/**
+	 * When not null, concurrent requests with the same token wait for a single
+	 * verification, instead of verifying it on each thread
+	 *
+	 * @since 0.5.0
+	 */
+	public VerificationCoalescer getVerificationCoalescer() {
+		return tokenUserResolver.getVerificationCoalescer();
+	}
+
+	public void setVerificationCoalescer(VerificationCoalescer verificationCoalescer) {
+		tokenUserResolver.setVerificationCoalescer(verificationCoalescer);
+	}
+
+	/**
+	 * When true, the user is a {@link LazyTokenUser}, which decodes the payload
+	 * on the first access to its getters, set it before {@link #init()}, when
+	 * there is no {@link TokenUserDecoder}, a {@link StreamingTokenUserDecoder}
+	 * is used, instead of {@link #toTokenUser(Claims)}
+	 *
+	 * @since 0.5.0
+	 */
+	public boolean isLazyTokenUser() {
+		return tokenUserResolver.isLazyTokenUser();
+	}
+
+	public void setLazyTokenUser(boolean lazyTokenUser) {
+		tokenUserResolver.setLazyTokenUser(lazyTokenUser);
+	}
+
+	/**
+	 * When true, expected failures use reusable stackless exceptions with
+	 * generic messages, pre-encoded JSON bodies, and rate limited logs
+	 *
+	 * @since 0.5.0
+	 */
+	public boolean isLightweightRejections() {
+		return tokenUserResolver.isLightweightRejections();
+	}
+
+	public void setLightweightRejections(boolean lightweightRejections) {
+		tokenUserResolver.setLightweightRejections(lightweightRejections);
+	}
+
+	/**
+	 * When not null, records the outcomes and the latency of each stage, set it
+	 * before {@link #init()} so the cache and key set values are exposed
+	 *
+	 * @since 0.5.0
+	 */
+	public AuthenticationMetrics getMetrics() {
+		return tokenUserResolver.getMetrics();
+	}
+
+	public void setMetrics(AuthenticationMetrics metrics) {
+		tokenUserResolver.setMetrics(metrics);
+	}
+
+	/**
+	 * When true, HMAC and RSA tokens are verified and signed with reusable
+	 * {@link javax.crypto.Mac} and {@link java.security.Signature} instances,
+	 * with the key already bound, set it before {@link #init()}
+	 *
+	 * @since 0.5.0
+	 */
+	public boolean isPooledCrypto() {
+		return tokenUserResolver.isPooledCrypto();
+	}
+
+	public void setPooledCrypto(boolean pooledCrypto) {
+		tokenUserResolver.setPooledCrypto(pooledCrypto);
+	}
+
+	/**
+	 *
+	 * @param principalRateLimiter The limiter, its eviction of idle principals
+	 *                             is started if it was not
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setPrincipalRateLimiter(PrincipalRateLimiter principalRateLimiter) {
+		this.principalRateLimiter = principalRateLimiter;
+		if (principalRateLimiter != null) {
+			principalRateLimiter.start();
+		}
 	}
 
 	@Override
 	protected boolean requiresAuthentication(HttpServletRequest request, HttpServletResponse response) {
+		if (publicPathMatcher != null && publicPathMatcher.isPublic(request.getMethod(), findPath(request))) {
+			return false;
+		}
 		return !useAntMatcher || super.requiresAuthentication(request, response);
 	}
 
 	@Override
 	public Authentication attemptAuthentication(HttpServletRequest request, HttpServletResponse response)
 			throws IOException, ServletException {
+		long start = authenticationEventDispatcher == null ? 0L : System.nanoTime();
+		AuthenticationMetrics metrics = getMetrics();
+		Authentication retVal = authenticateOrReject(request, response, start, metrics);
+		if (retVal == null) {
+			return null;
+		}
+		if (principalRateLimiter != null && retVal instanceof TokenUser) {
+			long retryAfterMillis = principalRateLimiter.tryAcquire((TokenUser) retVal);
+			if (retryAfterMillis > 0) {
+				recordRejected(request, start, Rejections.TOO_MANY_REQUESTS);
+				sendTooManyRequestsOrThrowException(response, retryAfterMillis);
+				return null;
+			}
+		}
+		if (authenticationEventDispatcher != null) {
+			try {
+				publishEvent(request, start, retVal instanceof TokenUser ? (TokenUser) retVal : null, null);
+			} catch (RuntimeException veto) {
+				if (metrics != null) {
+					metrics.recordRejected(veto);
+				}
+				logRejection(veto);
+				sendJsonOrThrowException(response, veto);
+				return null;
+			}
+		}
+		if (metrics != null) {
+			metrics.recordAccepted();
+		}
+		return retVal;
+	}
+
+	private static String findPath(HttpServletRequest request) {
+		String pathInfo = request.getPathInfo();
+		return pathInfo == null ? request.getServletPath() : request.getServletPath() + pathInfo;
+	}
+
+	/**
+	 *
+	 * @return The authentication, or null if it has been rejected
+	 */
+	private Authentication authenticateOrReject(HttpServletRequest request, HttpServletResponse response, long start,
+			AuthenticationMetrics metrics) throws IOException {
 		try {
 			if (filterEventHandler != null) {
 				filterEventHandler.doBefore();
 			}
 
-			TokenUser user = decodeTokenIfPossible(findTokenInRequest(request));
-			return getAuthenticationManager().authenticate(user);
+			if (metrics == null) {
+				TokenUser user = decodeTokenIfPossible(findTokenInRequest(request));
+				return getAuthenticationManager().authenticate(user);
+			} else {
+				return attemptMeasuredAuthentication(request, metrics);
+			}
 		} catch (CommonJwtException | CommonRestException e) {
-			log.info(e.getMessage());
+			recordRejected(request, start, e);
+			logRejection(e);
 			sendJsonOrThrowException(response, e);
+		} catch (JwtException e) {
+			if (isLightweightRejections()) {
+				RuntimeException rejection = Rejections.fromJwtException(e);
+				recordRejected(request, start, rejection);
+				logRejection(rejection);
+				sendJsonOrThrowException(response, rejection);
+			} else {
+				recordRejected(request, start, e);
+				log.error("Fatal error occured", e);
+				sendJsonOrThrowException(response, e);
+			}
 		} catch (RuntimeException e) {
+			recordRejected(request, start, e);
 			log.error("Fatal error occured", e);
 			sendJsonOrThrowException(response, e);
 		}
 		return null;
 	}
 
+	private Authentication attemptMeasuredAuthentication(HttpServletRequest request, AuthenticationMetrics metrics) {
+		long extractionStart = System.nanoTime();
+		String token = findTokenInRequest(request);
+		metrics.recordExtraction(System.nanoTime() - extractionStart);
+		TokenUser user = decodeTokenIfPossible(token);
+		long authenticationStart = System.nanoTime();
+		Authentication retVal = getAuthenticationManager().authenticate(user);
+		metrics.recordAuthenticationManager(System.nanoTime() - authenticationStart);
+		return retVal;
+	}
+
 	/**
 	 *
 	 * @since 0.2.0
 	 * @throws MissingArgumentException When privatekey is not defined, and key
-	 *                                  method is RSA_KEY
+	 *                                  method uses a key pair
 	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
 	 */
 	public String buildToken(Map<String, Object> claims, SignatureAlgorithm algo) {
-		if (tokenConfigLoader.getVerificationMethod() == TokenVerificationMethod.SECRET) {
-			SecretKey key = Keys.hmacShaKeyFor(tokenConfigLoader.getTokenSecret().getBytes(StandardCharsets.UTF_8));
+		TokenConfigLoader tokenConfigLoader = getTokenConfigLoader();
+		PooledJwsSigner signer = tokenSigner;
+		if (signer != null) {
+			return signer.sign(claims, algo);
+		} else if (tokenConfigLoader.getVerificationMethod() == TokenVerificationMethod.SECRET) {
+			SecretKey key = secretKey;
+			if (key == null) {
+				key = Keys.hmacShaKeyFor(tokenConfigLoader.getTokenSecret().getBytes(StandardCharsets.UTF_8));
+			}
 			return Jwts.builder().setClaims(claims).signWith(key, algo).compact();
-		} else if (tokenConfigLoader.getVerificationMethod() == TokenVerificationMethod.RSA_KEY) {
-			if (privateKey == null) {
+		} else if (tokenConfigLoader.getVerificationMethod().usesKeyPair()) {
+			PrivateKey key = privateKey;
+			if (key == null) {
 				throw new MissingArgumentException("Private key was not specified");
 			}
-			return Jwts.builder().setClaims(claims).signWith(privateKey, algo).compact();
+			return Jwts.builder().setClaims(claims).signWith(key, algo).compact();
 		} else {
 			throw new InvalidVerificationMethod(
 					"No such method: " + tokenConfigLoader.getVerificationMethod().toString());
 		}
 	}
 
+	/**
+	 *
+	 * @param algorithm The <b>alg</b>, for example <b>ES256</b>, or
+	 *                  {@link com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.SignaturePool#EDDSA}
+	 *                  for {@link TokenVerificationMethod#ED_KEY}, which is not
+	 *                  defined by {@link SignatureAlgorithm}
+	 * @since 0.5.0
+	 * @throws MissingArgumentException When privatekey is not defined, and key
+	 *                                  method uses a key pair
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String buildToken(Map<String, Object> claims, String algorithm) {
+		PooledJwsSigner signer = tokenSigner;
+		if (signer != null) {
+			return signer.sign(claims, algorithm);
+		} else if (getTokenConfigLoader().getVerificationMethod() == TokenVerificationMethod.ED_KEY) {
+			throw new MissingArgumentException("Private key was not specified");
+		} else {
+			return buildToken(claims, SignatureAlgorithm.forName(algorithm));
+		}
+	}
+
 	@Override
 	protected void successfulAuthentication(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
 			Authentication authResult) throws IOException, ServletException {
@@ -151,34 +519,42 @@ public class JwtAuthenticationFilter extends AbstractAuthenticationProcessingFil
 	}
 
 	protected TokenUser decodeTokenIfPossible(String token) {
-		TokenUser user = null;
-		try {
-			Claims body = getTokenClaimsIfNotExpired(token);
-			HashMap<String, Object> userData = (HashMap<String, Object>) body.get("data");
-			user = new TokenUser();
-			user.setId((Number) userData.get("id"));
-			user.setUsername((String) userData.get("username"));
-			user.setEmail((String) userData.get("email"));
-		} catch (MalformedJwtException e) {
-			throw new InvalidAuthorizationHeader(e.getMessage(), e);
-		}
+		return tokenUserResolver.resolve(token);
+	}
 
-		return user;
+	/**
+	 * Maps the claims of an already verified token to the user
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected TokenUser toTokenUser(Claims body) {
+		return TokenUserResolver.fromDataClaim(body);
 	}
 
 	protected Claims getTokenClaimsIfNotExpired(String token) {
-		JwtParserBuilder parserBuilder = Jwts.parserBuilder()
-				.setAllowedClockSkewSeconds(tokenConfigLoader.getAllowedClockSkew());
-		if (tokenConfigLoader.getVerificationMethod() == TokenVerificationMethod.SECRET) {
-			parserBuilder.setSigningKey(tokenConfigLoader.getTokenSecret().getBytes());
-		} else if (tokenConfigLoader.getVerificationMethod() == TokenVerificationMethod.RSA_KEY) {
-			parserBuilder.setSigningKey(publicKey);
-		} else {
-			throw new InvalidVerificationMethod(
-					"No such method: " + tokenConfigLoader.getVerificationMethod().toString());
+		return findJwtVerifier().parseClaims(token);
+	}
+
+	/**
+	 * Returns the verifier built by {@link #init()}, or builds it when the filter
+	 * has been created without invoking it
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected JwtVerifier findJwtVerifier() {
+		JwtVerifier verifier = tokenUserResolver.getJwtVerifier();
+		if (verifier == null) {
+			synchronized (this) {
+				verifier = tokenUserResolver.getJwtVerifier();
+				if (verifier == null) {
+					rebuildVerifier();
+					verifier = tokenUserResolver.getJwtVerifier();
+				}
+			}
 		}
-		JwtParser parser = parserBuilder.build();
-		return parser.parseClaimsJws(token).getBody();
+		return verifier;
 	}
 
 	/**
@@ -195,6 +571,9 @@ public class JwtAuthenticationFilter extends AbstractAuthenticationProcessingFil
 
 	protected void checkValidAuthorizationHeader(String headerContent) {
 		if (headerContent == null || !headerContent.startsWith("Bearer ")) {
+			if (isLightweightRejections()) {
+				throw Rejections.MISSING_HEADER;
+			}
 			throw new InvalidAuthorizationHeader("HTTP Authorization header not found, or it's invalid");
 		}
 	}
@@ -208,31 +587,85 @@ public class JwtAuthenticationFilter extends AbstractAuthenticationProcessingFil
 	 */
 	protected void sendJsonOrThrowException(HttpServletResponse response, RuntimeException e) throws IOException {
 		if (Boolean.TRUE.equals(convertExceptionToJson)) {
-			ObjectMapper mapper = new ObjectMapper();
-			BackendErrorPojo errorPojo = new BackendErrorPojo();
-			errorPojo.setExceptionType(e.getClass().getSimpleName());
-			errorPojo.setMessage(e.getMessage());
 			response.setContentType(MediaType.APPLICATION_JSON_VALUE);
 			response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-			response.getWriter().print(mapper.writeValueAsString(errorPojo));
+			if (isLightweightRejections()) {
+				response.getOutputStream().write(Rejections.toJsonBody(e));
+			} else {
+				response.getWriter().print(Rejections.toJsonString(e));
+			}
 		} else {
 			throw e;
 		}
 	}
 
-	private static PrivateKey generatePrivateKey(KeyFactory factory, String filename)
-			throws InvalidKeySpecException, IOException {
-		PemFile pemFile = new PemFile(filename);
-		byte[] content = pemFile.getPemObject().getContent();
-		PKCS8EncodedKeySpec privKeySpec = new PKCS8EncodedKeySpec(content);
-		return factory.generatePrivate(privKeySpec);
+	/**
+	 * Like {@link #sendJsonOrThrowException(HttpServletResponse, RuntimeException)},
+	 * the <b>Retry-After</b> header is set in both cases
+	 */
+	private void sendTooManyRequestsOrThrowException(HttpServletResponse response, long retryAfterMillis)
+			throws IOException {
+		response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1L, (retryAfterMillis + 999L) / 1000L)));
+		if (!Boolean.TRUE.equals(convertExceptionToJson)) {
+			throw Rejections.TOO_MANY_REQUESTS;
+		}
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		response.getOutputStream().write(Rejections.toJsonBody(Rejections.TOO_MANY_REQUESTS));
+	}
+
+	private void logRejection(RuntimeException e) {
+		if (!isLightweightRejections()) {
+			log.info(e.getMessage());
+		} else if (rejectionLogRateLimiter.tryAcquire()) {
+			long suppressedCount = rejectionLogRateLimiter.drainSuppressedCount();
+			if (suppressedCount > 0) {
+				log.info("{} ({} similar messages suppressed)", e.getMessage(), suppressedCount);
+			} else {
+				log.info(e.getMessage());
+			}
+		}
+	}
+
+	private SecretKey createSecretKey() {
+		TokenConfigLoader tokenConfigLoader = getTokenConfigLoader();
+		if (tokenConfigLoader.getTokenSecret() == null) {
+			return null;
+		}
+		try {
+			return Keys.hmacShaKeyFor(tokenConfigLoader.getTokenSecret().getBytes(StandardCharsets.UTF_8));
+		} catch (WeakKeyException e) {
+			log.debug("Notice: The secret is too short to sign tokens");
+			return null;
+		}
+	}
+
+	private PooledJwsSigner createTokenSigner() {
+		if (secretKey != null) {
+			return new PooledJwsSigner(secretKey);
+		} else if (privateKey != null) {
+			return new PooledJwsSigner(privateKey);
+		} else {
+			return null;
+		}
+	}
+
+	private void recordRejected(HttpServletRequest request, long start, Throwable e) {
+		AuthenticationMetrics metrics = getMetrics();
+		if (metrics != null) {
+			metrics.recordRejected(e);
+		}
+		if (authenticationEventDispatcher != null) {
+			try {
+				publishEvent(request, start, null, e);
+			} catch (RuntimeException listenerException) {
+				log.warn("Couldn't publish the rejection event", listenerException);
+			}
+		}
 	}
 
-	private static PublicKey generatePublicKey(KeyFactory factory, String filename)
-			throws InvalidKeySpecException, IOException {
-		PemFile pemFile = new PemFile(filename);
-		byte[] content = pemFile.getPemObject().getContent();
-		X509EncodedKeySpec pubKeySpec = new X509EncodedKeySpec(content);
-		return factory.generatePublic(pubKeySpec);
+	private void publishEvent(HttpServletRequest request, long start, TokenUser user, Throwable rejection) {
+		authenticationEventDispatcher.publish(new AuthenticationEvent(System.currentTimeMillis(), user,
+				request.getMethod(), request.getRequestURI(), System.nanoTime() - start, rejection));
 	}
 }
\ No newline at end of file
@@ -14,7 +14,7 @@ public class JwtAuthenticationProvider implements AuthenticationProvider {
 
 	@Override
 	public boolean supports(Class<?> authenticate) {
-		return authenticate.equals(TokenUser.class);
+		return TokenUser.class.isAssignableFrom(authenticate);
 	}
 
 }
@@ -0,0 +1,133 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.TokenScreener;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.TokenUserDecoder;
+
+/**
+ * User of an already verified token, which decodes the payload only when a
+ * getter or a setter is invoked for the first time, so requests that only
+ * need to be authenticated skip the claim mapping<br />
+ * When the decoder creates a {@link TokenUser} subclass, use
+ * {@link #getDecodedUser()} to access it
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class LazyTokenUser extends TokenUser {
+	private static final long serialVersionUID = 3417251830517092114L;
+
+	private final transient TokenUserDecoder decoder;
+	private transient String token;
+	private transient byte[] payload;
+	private transient volatile TokenUser decodedUser;
+
+	/**
+	 *
+	 * @param payload The decoded, and already verified, JSON payload, must not
+	 *                be modified
+	 * @param decoder Creates the user when it's first accessed
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public LazyTokenUser(byte[] payload, TokenUserDecoder decoder) {
+		this.payload = payload;
+		this.decoder = decoder;
+	}
+
+	/**
+	 *
+	 * @param token   The already verified token, its payload is decoded when
+	 *                the user is first accessed
+	 * @param decoder Creates the user when it's first accessed
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public LazyTokenUser(String token, TokenUserDecoder decoder) {
+		this.token = token;
+		this.decoder = decoder;
+	}
+
+	/**
+	 *
+	 * @return The user created by the decoder, it's decoded on the first
+	 *         invocation
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TokenUser getDecodedUser() {
+		TokenUser user = decodedUser;
+		if (user == null) {
+			synchronized (this) {
+				user = decodedUser;
+				if (user == null) {
+					user = decoder.decode(payload == null ? TokenScreener.decodePayload(token) : payload);
+					super.setId(user.getId());
+					super.setUsername(user.getUsername());
+					super.setEmail(user.getEmail());
+					decodedUser = user;
+					token = null;
+					payload = null;
+				}
+			}
+		}
+		return user;
+	}
+
+	/**
+	 *
+	 * @return true if the payload has already been decoded
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean isDecoded() {
+		return decodedUser != null;
+	}
+
+	@Override
+	public Number getId() {
+		getDecodedUser();
+		return super.getId();
+	}
+
+	@Override
+	public void setId(Number id) {
+		getDecodedUser();
+		super.setId(id);
+	}
+
+	@Override
+	public String getUsername() {
+		getDecodedUser();
+		return super.getUsername();
+	}
+
+	@Override
+	public void setUsername(String userName) {
+		getDecodedUser();
+		super.setUsername(userName);
+	}
+
+	@Override
+	public String getEmail() {
+		getDecodedUser();
+		return super.getEmail();
+	}
+
+	@Override
+	public void setEmail(String email) {
+		getDecodedUser();
+		super.setEmail(email);
+	}
+
+	/**
+	 * Serializes the decoded user, as the decoder is not serializable
+	 */
+	private Object writeReplace() {
+		TokenUser user = getDecodedUser().snapshot();
+		user.setId(super.getId());
+		user.setUsername(super.getUsername());
+		user.setEmail(super.getEmail());
+		user.setAuthenticated(isAuthenticated());
+		return user;
+	}
+}
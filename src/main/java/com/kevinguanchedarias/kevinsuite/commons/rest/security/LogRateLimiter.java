@@ -0,0 +1,63 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free limiter of log messages per time window, so floods of expected
+ * errors don't flood the logs
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class LogRateLimiter {
+	private final int messagesPerInterval;
+	private final long intervalNanos;
+	private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+	private final AtomicInteger windowCount = new AtomicInteger();
+	private final LongAdder suppressedCount = new LongAdder();
+
+	/**
+	 *
+	 * @param messagesPerInterval Max messages to log in each interval
+	 * @param interval            Length of the interval
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public LogRateLimiter(int messagesPerInterval, Duration interval) {
+		this.messagesPerInterval = messagesPerInterval;
+		intervalNanos = interval.toNanos();
+	}
+
+	/**
+	 *
+	 * @return True if the message can be logged, if false, it is counted as
+	 *         suppressed
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean tryAcquire() {
+		long now = System.nanoTime();
+		long start = windowStart.get();
+		if (now - start >= intervalNanos && windowStart.compareAndSet(start, now)) {
+			windowCount.set(0);
+		}
+		if (windowCount.incrementAndGet() <= messagesPerInterval) {
+			return true;
+		}
+		suppressedCount.increment();
+		return false;
+	}
+
+	/**
+	 *
+	 * @return The messages suppressed since the previous invocation
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long drainSuppressedCount() {
+		return suppressedCount.sumThenReset();
+	}
+}
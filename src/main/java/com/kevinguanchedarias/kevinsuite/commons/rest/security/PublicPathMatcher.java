@@ -0,0 +1,270 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.CommonRestException;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Decides which requests skip the authentication, using a trie of the path
+ * segments compiled once by the {@link Builder}, lookups don't allocate, and
+ * visit each segment of the path once, unless a literal branch must be
+ * discarded for a wildcard one<br />
+ * Patterns are made of literal segments, <b>*</b>, which matches one segment,
+ * and a trailing <b>**</b>, which matches zero or more segments, the most
+ * specific pattern wins, literal segments are more specific than <b>*</b>,
+ * and <b>*</b> is more specific than <b>**</b>, rules bound to the request
+ * method win over the ones for any method<br />
+ * Empty segments are ignored, so <b>/health/</b> matches <b>/health</b>
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class PublicPathMatcher {
+	private static final byte NO_RULE = -1;
+	private static final byte AUTHENTICATED = 0;
+	private static final byte PUBLIC = 1;
+
+	private final Node root;
+
+	private PublicPathMatcher(Node root) {
+		this.root = root;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 *
+	 * @param method The HTTP method of the request
+	 * @param path   The path of the request, without the context path
+	 * @return true if the most specific pattern matching the path is public
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean isPublic(String method, String path) {
+		return path != null && match(root, method, path, skipSlashes(path, 0)) == PUBLIC;
+	}
+
+	private static byte match(Node node, String method, String path, int start) {
+		if (start == path.length()) {
+			byte exact = node.exact == null ? NO_RULE : node.exact.decide(method);
+			return exact == NO_RULE && node.rest != null ? node.rest.decide(method) : exact;
+		}
+		int end = path.indexOf('/', start);
+		if (end < 0) {
+			end = path.length();
+		}
+		int next = skipSlashes(path, end);
+		Node literal = node.findChild(path, start, end);
+		byte retVal = literal == null ? NO_RULE : match(literal, method, path, next);
+		if (retVal == NO_RULE && node.wildcard != null) {
+			retVal = match(node.wildcard, method, path, next);
+		}
+		if (retVal == NO_RULE && node.rest != null) {
+			retVal = node.rest.decide(method);
+		}
+		return retVal;
+	}
+
+	private static int skipSlashes(String path, int start) {
+		int index = start;
+		while (index < path.length() && path.charAt(index) == '/') {
+			index++;
+		}
+		return index;
+	}
+
+	private static int hash(String path, int start, int end) {
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + path.charAt(i);
+		}
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * Collects the patterns, the trie is compiled by {@link #build()}
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static final class Builder {
+		private final Node root = new Node();
+
+		private Builder() {
+		}
+
+		/**
+		 * Requests matching the pattern, with any method, skip the
+		 * authentication
+		 *
+		 * @since 0.5.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		public Builder publicPath(String pattern) {
+			return add(null, pattern, PUBLIC);
+		}
+
+		/**
+		 *
+		 * @param method The HTTP method, for example <b>GET</b>
+		 * @since 0.5.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		public Builder publicPath(String method, String pattern) {
+			return add(method, pattern, PUBLIC);
+		}
+
+		/**
+		 * Requests matching the pattern, with any method, require the
+		 * authentication, even if a less specific public pattern matches them
+		 *
+		 * @since 0.5.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		public Builder authenticatedPath(String pattern) {
+			return add(null, pattern, AUTHENTICATED);
+		}
+
+		/**
+		 *
+		 * @param method The HTTP method, for example <b>POST</b>
+		 * @since 0.5.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		public Builder authenticatedPath(String method, String pattern) {
+			return add(method, pattern, AUTHENTICATED);
+		}
+
+		public PublicPathMatcher build() {
+			root.compile();
+			return new PublicPathMatcher(root);
+		}
+
+		private Builder add(String method, String pattern, byte decision) {
+			Node node = root;
+			String[] segments = Arrays.stream(pattern.split("/")).filter(segment -> !segment.isEmpty())
+					.toArray(String[]::new);
+			for (int i = 0; i < segments.length; i++) {
+				String segment = segments[i];
+				if ("**".equals(segment)) {
+					if (i != segments.length - 1) {
+						throw new CommonRestException("** is only allowed at the end of the pattern " + pattern);
+					}
+					node.rest = Rule.with(node.rest, method, decision);
+					return this;
+				}
+				node = "*".equals(segment) ? node.wildcardChild() : node.literalChild(segment);
+			}
+			node.exact = Rule.with(node.exact, method, decision);
+			return this;
+		}
+	}
+
+	private static final class Node {
+		private String[] labels = new String[0];
+		private Node[] children = new Node[0];
+		private String[] table;
+		private Node[] tableChildren;
+		private int tableMask;
+		private Node wildcard;
+		private Rule exact;
+		private Rule rest;
+
+		private Node literalChild(String label) {
+			for (int i = 0; i < labels.length; i++) {
+				if (labels[i].equals(label)) {
+					return children[i];
+				}
+			}
+			labels = Arrays.copyOf(labels, labels.length + 1);
+			children = Arrays.copyOf(children, children.length + 1);
+			labels[labels.length - 1] = label;
+			Node child = new Node();
+			children[children.length - 1] = child;
+			return child;
+		}
+
+		private Node wildcardChild() {
+			if (wildcard == null) {
+				wildcard = new Node();
+			}
+			return wildcard;
+		}
+
+		private void compile() {
+			int capacity = Integer.highestOneBit(Math.max(1, labels.length * 2 - 1)) << 1;
+			table = new String[capacity];
+			tableChildren = new Node[capacity];
+			tableMask = capacity - 1;
+			for (int i = 0; i < labels.length; i++) {
+				int index = hash(labels[i], 0, labels[i].length()) & tableMask;
+				while (table[index] != null) {
+					index = (index + 1) & tableMask;
+				}
+				table[index] = labels[i];
+				tableChildren[index] = children[i];
+				children[i].compile();
+			}
+			if (wildcard != null) {
+				wildcard.compile();
+			}
+		}
+
+		private Node findChild(String path, int start, int end) {
+			int length = end - start;
+			int index = hash(path, start, end) & tableMask;
+			String label;
+			while ((label = table[index]) != null) {
+				if (label.length() == length && path.regionMatches(start, label, 0, length)) {
+					return tableChildren[index];
+				}
+				index = (index + 1) & tableMask;
+			}
+			return null;
+		}
+	}
+
+	private static final class Rule {
+		private final String[] methods;
+		private final byte[] decisions;
+		private final byte anyMethod;
+
+		private Rule(String[] methods, byte[] decisions, byte anyMethod) {
+			this.methods = methods;
+			this.decisions = decisions;
+			this.anyMethod = anyMethod;
+		}
+
+		private static Rule with(Rule current, String method, byte decision) {
+			Rule rule = current == null ? new Rule(new String[0], new byte[0], NO_RULE) : current;
+			if (method == null) {
+				return new Rule(rule.methods, rule.decisions, decision);
+			}
+			String normalized = method.toUpperCase(Locale.ROOT);
+			for (int i = 0; i < rule.methods.length; i++) {
+				if (rule.methods[i].equals(normalized)) {
+					byte[] decisions = rule.decisions.clone();
+					decisions[i] = decision;
+					return new Rule(rule.methods, decisions, rule.anyMethod);
+				}
+			}
+			String[] methods = Arrays.copyOf(rule.methods, rule.methods.length + 1);
+			byte[] decisions = Arrays.copyOf(rule.decisions, rule.decisions.length + 1);
+			methods[methods.length - 1] = normalized;
+			decisions[decisions.length - 1] = decision;
+			return new Rule(methods, decisions, rule.anyMethod);
+		}
+
+		private byte decide(String method) {
+			for (int i = 0; i < methods.length; i++) {
+				if (methods[i].equals(method)) {
+					return decisions[i];
+				}
+			}
+			return anyMethod;
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.CommonRestException;
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.InvalidAuthorizationHeader;
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.JwtTokenExpired;
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.TooManyRequests;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.pojo.BackendErrorPojo;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Reusable, stackless exceptions for the expected authentication failures,
+ * with their JSON body already encoded
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class Rejections {
+	public static final InvalidAuthorizationHeader MISSING_HEADER = InvalidAuthorizationHeader
+			.stackless("HTTP Authorization header not found, or it's invalid");
+	public static final InvalidAuthorizationHeader INVALID_TOKEN = InvalidAuthorizationHeader
+			.stackless("Invalid JWT token");
+	public static final InvalidAuthorizationHeader UNKNOWN_KEY_ID = InvalidAuthorizationHeader
+			.stackless("No verification key for the token kid");
+	public static final InvalidAuthorizationHeader UNKNOWN_ISSUER = InvalidAuthorizationHeader
+			.stackless("No issuer registered for the token iss or kid");
+	public static final InvalidAuthorizationHeader TOKEN_NOT_YET_VALID = InvalidAuthorizationHeader
+			.stackless("JWT token is not yet valid");
+	public static final InvalidAuthorizationHeader TOKEN_REVOKED = InvalidAuthorizationHeader
+			.stackless("JWT token has been revoked");
+	public static final JwtTokenExpired TOKEN_EXPIRED = JwtTokenExpired.stackless("JWT token has expired");
+	public static final TooManyRequests TOO_MANY_REQUESTS = TooManyRequests.stackless("Too many requests");
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final Map<RuntimeException, byte[]> ENCODED_BODIES = new IdentityHashMap<>();
+
+	static {
+		ENCODED_BODIES.put(MISSING_HEADER, encode(MISSING_HEADER));
+		ENCODED_BODIES.put(INVALID_TOKEN, encode(INVALID_TOKEN));
+		ENCODED_BODIES.put(UNKNOWN_KEY_ID, encode(UNKNOWN_KEY_ID));
+		ENCODED_BODIES.put(UNKNOWN_ISSUER, encode(UNKNOWN_ISSUER));
+		ENCODED_BODIES.put(TOKEN_NOT_YET_VALID, encode(TOKEN_NOT_YET_VALID));
+		ENCODED_BODIES.put(TOKEN_REVOKED, encode(TOKEN_REVOKED));
+		ENCODED_BODIES.put(TOKEN_EXPIRED, encode(TOKEN_EXPIRED));
+		ENCODED_BODIES.put(TOO_MANY_REQUESTS, encode(TOO_MANY_REQUESTS));
+	}
+
+	private Rejections() {
+		// Utility class
+	}
+
+	/**
+	 * Converts a jjwt exception into one of the reusable exceptions, hiding the
+	 * details of the failure to the client
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static RuntimeException fromJwtException(JwtException e) {
+		return e instanceof ExpiredJwtException ? TOKEN_EXPIRED : INVALID_TOKEN;
+	}
+
+	/**
+	 *
+	 * @return The error as JSON {@link BackendErrorPojo}, for the reusable
+	 *         exceptions, it is encoded only once
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static byte[] toJsonBody(RuntimeException e) {
+		byte[] body = ENCODED_BODIES.get(e);
+		return body == null ? encode(e) : body;
+	}
+
+	/**
+	 *
+	 * @return The error as JSON {@link BackendErrorPojo}, encoded with a shared
+	 *         mapper
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static String toJsonString(RuntimeException e) {
+		try {
+			return MAPPER.writeValueAsString(toErrorPojo(e));
+		} catch (JsonProcessingException jsonException) {
+			throw new CommonRestException("Couldn't encode the error", jsonException);
+		}
+	}
+
+	private static byte[] encode(RuntimeException e) {
+		try {
+			return MAPPER.writeValueAsBytes(toErrorPojo(e));
+		} catch (JsonProcessingException jsonException) {
+			throw new CommonRestException("Couldn't encode the error", jsonException);
+		}
+	}
+
+	private static BackendErrorPojo toErrorPojo(RuntimeException e) {
+		BackendErrorPojo errorPojo = new BackendErrorPojo();
+		errorPojo.setExceptionType(e.getClass().getSimpleName());
+		errorPojo.setMessage(e.getMessage());
+		return errorPojo;
+	}
+}
@@ -1,6 +1,9 @@
 package com.kevinguanchedarias.kevinsuite.commons.rest.security;
 
 import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.TokenUserDecoder;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.CryptoProvider;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.KeySetProvider;
 
 /**
  * In order to define a custom loader must extend this, and AuthenticationFilter
@@ -56,4 +59,45 @@ public interface TokenConfigLoader {
 	public default long getAllowedClockSkew() {
 		return 0L;
 	}
+
+	/**
+	 * Defines the keys used to verify tokens by their <b>kid</b>, when not null,
+	 * {@link #getTokenSecret()} and {@link #getPublicKey()} are not used for
+	 * verification, a
+	 * {@link com.kevinguanchedarias.kevinsuite.commons.rest.security.key.ReloadingKeySetProvider}
+	 * is started when the verifier is built
+	 * 
+	 * @return
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public default KeySetProvider getKeySetProvider() {
+		return null;
+	}
+
+	/**
+	 * Defines how the user is created from the token payload, for example a
+	 * {@link com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.ClaimMappingDecoder},
+	 * only used when the filter doesn't have its own decoder
+	 * 
+	 * @return
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public default TokenUserDecoder getTokenUserDecoder() {
+		return null;
+	}
+
+	/**
+	 * Defines the JCA provider used to parse the RSA keys, by default the JDK
+	 * one, BouncyCastle is only used when {@link CryptoProvider#BOUNCY_CASTLE}
+	 * is returned
+	 * 
+	 * @return
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public default CryptoProvider getCryptoProvider() {
+		return CryptoProvider.JDK;
+	}
 }
@@ -13,7 +13,7 @@ import org.springframework.security.core.GrantedAuthority;
  * @author Kevin Guanche Darias
  *
  */
-public class TokenUser implements Serializable, Authentication {
+public class TokenUser implements Serializable, Authentication, Cloneable {
 	private static final long serialVersionUID = -2547736501872756240L;
 
 	private Number id;
@@ -80,4 +80,22 @@ public class TokenUser implements Serializable, Authentication {
 		this.email = email;
 	}
 
+	/**
+	 * Creates a shallow copy of this user, which is not authenticated<br />
+	 * Subclasses with mutable fields should override it and copy them
+	 *
+	 * @return A copy of this user
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TokenUser snapshot() {
+		try {
+			TokenUser copy = (TokenUser) super.clone();
+			copy.authenticated = false;
+			return copy;
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,284 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.cors;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * {@link CorsConfigurator} that can be modified while requests are being
+ * served, the lists are immutable snapshots published through a volatile
+ * reference, so reads never lock<br />
+ * Changes are applied at once by {@link Batch#apply()}, each applied change
+ * increments the {@link #getVersion()}, so the filters rebuild their indexes
+ * only when something changed
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class ConcurrentCorsConfigurator implements CorsConfigurator {
+	private volatile Snapshot snapshot = new Snapshot(null, null, null, null, 0L);
+
+	/**
+	 *
+	 * @return The current values, consistent between them
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public Snapshot getSnapshot() {
+		return snapshot;
+	}
+
+	@Override
+	public List<String> getOriginList() {
+		return snapshot.originList;
+	}
+
+	@Override
+	public List<String> getRootOriginList() {
+		return snapshot.rootOriginList;
+	}
+
+	@Override
+	public List<String> getMethodList() {
+		return snapshot.methodList;
+	}
+
+	@Override
+	public List<String> getHeaderList() {
+		return snapshot.headerList;
+	}
+
+	@Override
+	public long getVersion() {
+		return snapshot.version;
+	}
+
+	public void setOriginList(List<String> originList) {
+		batch().replaceOrigins(originList).apply();
+	}
+
+	public void setRootOriginList(List<String> rootOriginList) {
+		batch().replaceRootOrigins(rootOriginList).apply();
+	}
+
+	public void setMethodList(List<String> methodList) {
+		batch().replaceMethods(methodList).apply();
+	}
+
+	public void setHeaderList(List<String> headerList) {
+		batch().replaceHeaders(headerList).apply();
+	}
+
+	@Override
+	public void addOrigin(String origin) {
+		batch().addOrigin(origin).apply();
+	}
+
+	@Override
+	public void addMethod(String method) {
+		batch().addMethod(method).apply();
+	}
+
+	@Override
+	public void addHeader(String header) {
+		batch().addHeader(header).apply();
+	}
+
+	/**
+	 *
+	 * @return A new set of changes, nothing changes until
+	 *         {@link Batch#apply()} is invoked
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public Batch batch() {
+		return new Batch();
+	}
+
+	private synchronized boolean apply(Batch batch) {
+		Snapshot current = snapshot;
+		List<String> originList = batch.origins.applyTo(current.originList);
+		List<String> rootOriginList = batch.rootOrigins.applyTo(current.rootOriginList);
+		List<String> methodList = batch.methods.applyTo(current.methodList);
+		List<String> headerList = batch.headers.applyTo(current.headerList);
+		if (originList == current.originList && rootOriginList == current.rootOriginList
+				&& methodList == current.methodList && headerList == current.headerList) {
+			return false;
+		}
+		snapshot = new Snapshot(originList, rootOriginList, methodList, headerList, current.version + 1);
+		return true;
+	}
+
+	/**
+	 * Immutable values of the configurator, a null list means the list is not
+	 * defined
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static final class Snapshot {
+		private final List<String> originList;
+		private final List<String> rootOriginList;
+		private final List<String> methodList;
+		private final List<String> headerList;
+		private final long version;
+
+		private Snapshot(List<String> originList, List<String> rootOriginList, List<String> methodList,
+				List<String> headerList, long version) {
+			this.originList = originList;
+			this.rootOriginList = rootOriginList;
+			this.methodList = methodList;
+			this.headerList = headerList;
+			this.version = version;
+		}
+
+		public List<String> getOriginList() {
+			return originList;
+		}
+
+		public List<String> getRootOriginList() {
+			return rootOriginList;
+		}
+
+		public List<String> getMethodList() {
+			return methodList;
+		}
+
+		public List<String> getHeaderList() {
+			return headerList;
+		}
+
+		public long getVersion() {
+			return version;
+		}
+	}
+
+	/**
+	 * Changes applied at once, added values already present, and removed values
+	 * not present, are ignored
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public final class Batch {
+		private final ListChanges origins = new ListChanges();
+		private final ListChanges rootOrigins = new ListChanges();
+		private final ListChanges methods = new ListChanges();
+		private final ListChanges headers = new ListChanges();
+
+		private Batch() {
+		}
+
+		public Batch addOrigin(String origin) {
+			origins.added.add(origin);
+			return this;
+		}
+
+		public Batch removeOrigin(String origin) {
+			origins.removed.add(origin);
+			return this;
+		}
+
+		public Batch replaceOrigins(Collection<String> originList) {
+			origins.replace(originList);
+			return this;
+		}
+
+		/**
+		 *
+		 * @param rootOrigin See {@link CorsConfigurator#getRootOriginList()}
+		 * @return this
+		 * @since 0.5.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		public Batch addRootOrigin(String rootOrigin) {
+			rootOrigins.added.add(rootOrigin);
+			return this;
+		}
+
+		public Batch removeRootOrigin(String rootOrigin) {
+			rootOrigins.removed.add(rootOrigin);
+			return this;
+		}
+
+		public Batch replaceRootOrigins(Collection<String> rootOriginList) {
+			rootOrigins.replace(rootOriginList);
+			return this;
+		}
+
+		public Batch addMethod(String method) {
+			methods.added.add(method);
+			return this;
+		}
+
+		public Batch removeMethod(String method) {
+			methods.removed.add(method);
+			return this;
+		}
+
+		public Batch replaceMethods(Collection<String> methodList) {
+			methods.replace(methodList);
+			return this;
+		}
+
+		public Batch addHeader(String header) {
+			headers.added.add(header);
+			return this;
+		}
+
+		public Batch removeHeader(String header) {
+			headers.removed.add(header);
+			return this;
+		}
+
+		public Batch replaceHeaders(Collection<String> headerList) {
+			headers.replace(headerList);
+			return this;
+		}
+
+		/**
+		 * Publishes a new snapshot with the changes
+		 *
+		 * @return true if the values have changed, and so the version
+		 * @since 0.5.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		public boolean apply() {
+			return ConcurrentCorsConfigurator.this.apply(this);
+		}
+	}
+
+	private static final class ListChanges {
+		private final Set<String> added = new LinkedHashSet<>();
+		private final Set<String> removed = new LinkedHashSet<>();
+		private boolean replaced;
+		private List<String> replacement;
+
+		private void replace(Collection<String> values) {
+			replaced = true;
+			replacement = values == null ? null : Collections.unmodifiableList(new ArrayList<>(values));
+			added.clear();
+			removed.clear();
+		}
+
+		/**
+		 *
+		 * @return The same list when nothing changes, so the version is kept
+		 */
+		private List<String> applyTo(List<String> current) {
+			List<String> base = replaced ? replacement : current;
+			if (added.isEmpty() && (removed.isEmpty() || base == null)) {
+				return Objects.equals(base, current) ? current : base;
+			}
+			Set<String> values = base == null ? new LinkedHashSet<>() : new LinkedHashSet<>(base);
+			values.addAll(added);
+			values.removeAll(removed);
+			List<String> retVal = Collections.unmodifiableList(new ArrayList<>(values));
+			return retVal.equals(current) ? current : retVal;
+		}
+	}
+}
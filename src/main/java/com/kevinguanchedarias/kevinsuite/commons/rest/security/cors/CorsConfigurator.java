@@ -16,4 +16,27 @@ public interface CorsConfigurator {
 	public void addMethod(String method);
 
 	public void addHeader(String header);
+
+	/**
+	 * Allows the filters to detect changes without comparing the lists
+	 *
+	 * @return A number which changes each time the lists change, or a negative
+	 *         value if the configurator doesn't track its changes
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public default long getVersion() {
+		return -1L;
+	}
+
+	/**
+	 * Invoked by the filters for each rejected origin, it must not block, by
+	 * default, it does nothing
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public default void reportRejectedOrigin(String origin) {
+		// Nothing to do by default
+	}
 }
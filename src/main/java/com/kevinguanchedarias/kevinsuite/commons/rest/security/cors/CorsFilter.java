@@ -1,31 +1,52 @@
 package com.kevinguanchedarias.kevinsuite.commons.rest.security.cors;
 
 import com.kevinguanchedarias.kevinsuite.commons.rest.cors.exception.InvalidOriginException;
-import com.kevinguanchedarias.kevinsuite.commons.rest.exception.CommonJwtException;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.metrics.CorsMetrics;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.util.List;
 
 @Slf4j
 public class CorsFilter extends OncePerRequestFilter {
 
-	private static final String ALLOW_ANY_ORIGIN = "*";
-	private static final String MAX_CACHE_SIZE = "86400";
-
 	@Getter
 	private CorsConfigurator corsConfigurator;
 
+	/**
+	 * When true, CORS preflight requests are answered with 204 No Content,
+	 * instead of writing "OK" to the body, it's opt-in, so the default
+	 * responses don't change
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	@Setter
+	private boolean shortCircuitPreflight = false;
+
+	/**
+	 * When not null, counts the accepted and rejected origins, and the
+	 * preflight requests
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	@Setter
+	private CorsMetrics metrics;
+
+	private volatile CorsOriginIndex originIndex;
+	private volatile CorsHeaderBundle headerBundle;
+
 	public void setCorsConfigurator(CorsConfigurator corsConfigurator) {
 		this.corsConfigurator = corsConfigurator;
+		originIndex = null;
+		headerBundle = null;
 	}
 
 	@Override
@@ -35,7 +56,14 @@ public class CorsFilter extends OncePerRequestFilter {
 		String clientOriginHeader = request.getHeader("Origin");
 		if (clientOriginHeader != null && corsConfigurator != null) {
 			checkValidOrigin(clientOriginHeader);
-			addHeadersFromConfigurator(request, response);
+			addHeadersFromConfigurator(request, response, clientOriginHeader);
+			if (metrics != null && isPreflight(request)) {
+				metrics.recordPreflight();
+			}
+			if (shortCircuitPreflight && isPreflight(request)) {
+				response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+				return;
+			}
 		} else if (corsConfigurator == null) {
 			log.warn(this.getClass().getName() + " is doing nothing, as CorsConfigurator has not been set!");
 		} else {
@@ -52,36 +80,68 @@ public class CorsFilter extends OncePerRequestFilter {
 
 	}
 
-	private void addHeadersFromConfigurator(HttpServletRequest request, HttpServletResponse response) {
-		response.addHeader("Access-Control-Allow-Origin", request.getHeader("Origin"));
-		response.setHeader("Access-Control-Allow-Credentials", "true");
-		response.setHeader("Access-Control-Max-Age", MAX_CACHE_SIZE);
-		if (corsConfigurator.getHeaderList() != null) {
-			throw new AssertionError(
-					"Use headers from corsConfigurator has not been implemented, is it even required?");
+	private void addHeadersFromConfigurator(HttpServletRequest request, HttpServletResponse response,
+			String clientOriginHeader) {
+		CorsHeaderBundle bundle = findHeaderBundle();
+		response.addHeader(CorsHeaderBundle.ALLOW_ORIGIN, clientOriginHeader);
+		response.setHeader(CorsHeaderBundle.ALLOW_CREDENTIALS, CorsHeaderBundle.ALLOW_CREDENTIALS_VALUE);
+		response.setHeader(CorsHeaderBundle.MAX_AGE, CorsHeaderBundle.MAX_AGE_VALUE);
+		if (bundle.getAllowMethods() != null) {
+			response.setHeader(CorsHeaderBundle.ALLOW_METHODS, bundle.getAllowMethods());
 		}
-		if (corsConfigurator.getMethodList() != null) {
-			response.setHeader("Access-Control-Allow-Methods", String.join(", ", corsConfigurator.getMethodList()));
+
+		if (bundle.getAllowHeaders() != null) {
+			response.setHeader(CorsHeaderBundle.ALLOW_HEADERS, bundle.getAllowHeaders());
+		} else {
+			response.addHeader(CorsHeaderBundle.ALLOW_HEADERS, request.getHeader(CorsHeaderBundle.REQUEST_HEADERS));
 		}
+	}
 
-		response.addHeader("Access-Control-Allow-Headers", request.getHeader("Access-Control-Request-Headers"));
+	private boolean isPreflight(HttpServletRequest request) {
+		return "OPTIONS".equals(request.getMethod()) && request.getHeader(CorsHeaderBundle.REQUEST_METHOD) != null;
 	}
 
 	private void checkValidOrigin(String clientOriginHeader) {
-		List<String> originList = corsConfigurator.getOriginList();
-		if (!originList.contains(ALLOW_ANY_ORIGIN) && !originList.contains(clientOriginHeader)
-				&& !isFromRootDomain(clientOriginHeader)) {
+		if (findOriginIndex().isAllowed(clientOriginHeader)) {
+			if (metrics != null) {
+				metrics.recordAccepted();
+			}
+		} else {
+			if (metrics != null) {
+				metrics.recordRejected();
+			}
+			corsConfigurator.reportRejectedOrigin(clientOriginHeader);
 			throw new InvalidOriginException("Origin " + clientOriginHeader + " is not authorized to use the service");
 		}
 	}
 
-	private boolean isFromRootDomain(String clientOriginHeader) {
-		String domain;
-		try {
-			domain = new URI(clientOriginHeader).getHost();
-		} catch (URISyntaxException e) {
-			throw new CommonJwtException("Bad HTTP Origin header", e);
+	/**
+	 * Rebuilds the origin index and the header values, required when the lists
+	 * of the configurator are modified in place, without changing their size
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void refreshOriginIndex() {
+		originIndex = null;
+		headerBundle = null;
+	}
+
+	private CorsOriginIndex findOriginIndex() {
+		CorsOriginIndex index = originIndex;
+		if (index == null || index.isStale(corsConfigurator)) {
+			index = CorsOriginIndex.of(corsConfigurator);
+			originIndex = index;
+		}
+		return index;
+	}
+
+	private CorsHeaderBundle findHeaderBundle() {
+		CorsHeaderBundle bundle = headerBundle;
+		if (bundle == null || bundle.isStale(corsConfigurator)) {
+			bundle = CorsHeaderBundle.of(corsConfigurator);
+			headerBundle = bundle;
 		}
-		return corsConfigurator.getRootOriginList().stream().anyMatch(domain::endsWith);
+		return bundle;
 	}
 }
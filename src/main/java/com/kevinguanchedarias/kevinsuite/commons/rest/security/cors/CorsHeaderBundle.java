@@ -0,0 +1,98 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.cors;
+
+import java.util.List;
+
+/**
+ * Values of the CORS response headers that don't depend on the request,
+ * computed once for each version of the {@link CorsConfigurator}
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class CorsHeaderBundle {
+	public static final String ALLOW_ORIGIN = "Access-Control-Allow-Origin";
+	public static final String ALLOW_CREDENTIALS = "Access-Control-Allow-Credentials";
+	public static final String MAX_AGE = "Access-Control-Max-Age";
+	public static final String ALLOW_METHODS = "Access-Control-Allow-Methods";
+	public static final String ALLOW_HEADERS = "Access-Control-Allow-Headers";
+	public static final String REQUEST_METHOD = "Access-Control-Request-Method";
+	public static final String REQUEST_HEADERS = "Access-Control-Request-Headers";
+	public static final String ALLOW_CREDENTIALS_VALUE = "true";
+	public static final String MAX_AGE_VALUE = "86400";
+
+	private final CorsConfigurator corsConfigurator;
+	private final long version;
+	private final List<String> methodList;
+	private final int methodListSize;
+	private final String allowMethods;
+	private final List<String> headerList;
+	private final int headerListSize;
+	private final String allowHeaders;
+
+	private CorsHeaderBundle(CorsConfigurator corsConfigurator) {
+		this.corsConfigurator = corsConfigurator;
+		version = corsConfigurator.getVersion();
+		methodList = corsConfigurator.getMethodList();
+		methodListSize = methodList == null ? -1 : methodList.size();
+		allowMethods = methodList == null ? null : String.join(", ", methodList);
+		headerList = corsConfigurator.getHeaderList();
+		headerListSize = headerList == null ? -1 : headerList.size();
+		allowHeaders = headerList == null || headerList.isEmpty() ? null : String.join(", ", headerList);
+	}
+
+	/**
+	 *
+	 * @param corsConfigurator The configuration
+	 * @return The header values of the current configuration
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static CorsHeaderBundle of(CorsConfigurator corsConfigurator) {
+		return new CorsHeaderBundle(corsConfigurator);
+	}
+
+	/**
+	 * Checks, without iterating the lists, if the values were computed from
+	 * other configurator, or its method or header lists have been replaced or
+	 * resized,
+	 * versioned configurators are compared by their
+	 * {@link CorsConfigurator#getVersion()}
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean isStale(CorsConfigurator currentConfigurator) {
+		if (version >= 0) {
+			return currentConfigurator != corsConfigurator || currentConfigurator.getVersion() != version;
+		}
+		List<String> currentMethodList = currentConfigurator.getMethodList();
+		List<String> currentHeaderList = currentConfigurator.getHeaderList();
+		return currentConfigurator != corsConfigurator || currentMethodList != methodList
+				|| (currentMethodList == null ? -1 : currentMethodList.size()) != methodListSize
+				|| currentHeaderList != headerList
+				|| (currentHeaderList == null ? -1 : currentHeaderList.size()) != headerListSize;
+	}
+
+	/**
+	 *
+	 * @return The value of the Access-Control-Allow-Methods header, or null if
+	 *         it should not be sent
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String getAllowMethods() {
+		return allowMethods;
+	}
+
+	/**
+	 *
+	 * @return The value of the Access-Control-Allow-Headers header, or null if
+	 *         the headers of the Access-Control-Request-Headers should be
+	 *         allowed, as when the header list is null or empty
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String getAllowHeaders() {
+		return allowHeaders;
+	}
+}
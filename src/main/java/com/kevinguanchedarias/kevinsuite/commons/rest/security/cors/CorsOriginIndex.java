@@ -0,0 +1,192 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.cors;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Immutable index of the origins allowed by a {@link CorsConfigurator}, exact
+ * origins are stored in a hash set, and root domains in a trie of their
+ * reversed labels, so a lookup costs the length of the host, not the number of
+ * allowed origins
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@Slf4j
+public final class CorsOriginIndex {
+	private static final String ALLOW_ANY_ORIGIN = "*";
+	private static final String SCHEME_SEPARATOR = "://";
+
+	private final CorsConfigurator corsConfigurator;
+	private final long version;
+	private final List<String> originList;
+	private final List<String> rootOriginList;
+	private final int originListSize;
+	private final int rootOriginListSize;
+	private final boolean allowAnyOrigin;
+	private final Set<String> origins;
+	private final SuffixNode rootDomains = new SuffixNode();
+
+	private CorsOriginIndex(CorsConfigurator corsConfigurator) {
+		this.corsConfigurator = corsConfigurator;
+		version = corsConfigurator.getVersion();
+		originList = corsConfigurator.getOriginList();
+		rootOriginList = corsConfigurator.getRootOriginList();
+		originListSize = sizeOf(originList);
+		rootOriginListSize = sizeOf(rootOriginList);
+		origins = originList == null ? Collections.emptySet() : new HashSet<>(originList);
+		allowAnyOrigin = origins.contains(ALLOW_ANY_ORIGIN);
+		if (rootOriginList != null) {
+			rootOriginList.forEach(this::addRootDomain);
+		}
+	}
+
+	/**
+	 *
+	 * @param corsConfigurator The configuration to index
+	 * @return The index of the current values of the configurator
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static CorsOriginIndex of(CorsConfigurator corsConfigurator) {
+		return new CorsOriginIndex(corsConfigurator);
+	}
+
+	/**
+	 * Checks, without iterating the lists, if the index was built from other
+	 * configurator, or if its origin lists have been replaced, or have grown or
+	 * shrunk, versioned configurators are compared by their
+	 * {@link CorsConfigurator#getVersion()}
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean isStale(CorsConfigurator currentConfigurator) {
+		if (version >= 0) {
+			return currentConfigurator != corsConfigurator || currentConfigurator.getVersion() != version;
+		}
+		List<String> currentOriginList = currentConfigurator.getOriginList();
+		List<String> currentRootOriginList = currentConfigurator.getRootOriginList();
+		return currentConfigurator != corsConfigurator || currentOriginList != originList
+				|| currentRootOriginList != rootOriginList || sizeOf(currentOriginList) != originListSize
+				|| sizeOf(currentRootOriginList) != rootOriginListSize;
+	}
+
+	/**
+	 *
+	 * @param origin The value of the Origin header
+	 * @return True if the origin is allowed
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean isAllowed(String origin) {
+		return allowAnyOrigin || origins.contains(origin) || isFromRootDomain(origin);
+	}
+
+	/**
+	 *
+	 * @param origin The value of the Origin header
+	 * @return True if the host of the origin is a root domain, or a subdomain of
+	 *         it, origins with user info, a query or a fragment are never from a
+	 *         root domain, as browsers don't send them
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean isFromRootDomain(String origin) {
+		int schemeEnd = origin.indexOf(SCHEME_SEPARATOR);
+		if (schemeEnd < 0) {
+			return false;
+		}
+		int hostStart = schemeEnd + SCHEME_SEPARATOR.length();
+		int hostEnd = hostStart;
+		int length = origin.length();
+		while (hostEnd < length) {
+			char current = origin.charAt(hostEnd);
+			if (current == ':' || current == '/' || current == '[') {
+				break;
+			} else if (current == '@' || current == '?' || current == '#') {
+				return false;
+			}
+			hostEnd++;
+		}
+		return hostEnd > hostStart && rootDomains.matchesSuffix(origin, hostStart, hostEnd);
+	}
+
+	private void addRootDomain(String rootDomain) {
+		String normalized = rootDomain == null ? "" : rootDomain.trim().toLowerCase(Locale.ROOT);
+		while (normalized.startsWith(".")) {
+			normalized = normalized.substring(1);
+		}
+		while (normalized.endsWith(".")) {
+			normalized = normalized.substring(0, normalized.length() - 1);
+		}
+		if (normalized.isEmpty()) {
+			log.warn("Ignoring empty root domain, it would allow any origin, use * for that");
+		} else {
+			rootDomains.add(normalized);
+		}
+	}
+
+	private static int sizeOf(List<String> list) {
+		return list == null ? -1 : list.size();
+	}
+
+	/**
+	 * Trie node of the domain characters, from right to left, a domain matches
+	 * only when the walk ends at a label boundary
+	 */
+	private static final class SuffixNode {
+		private char[] keys = new char[0];
+		private SuffixNode[] children = new SuffixNode[0];
+		private boolean terminal;
+
+		private void add(String domain) {
+			SuffixNode node = this;
+			for (int i = domain.length() - 1; i >= 0; i--) {
+				node = node.childOrCreate(domain.charAt(i));
+			}
+			node.terminal = true;
+		}
+
+		private boolean matchesSuffix(String value, int start, int end) {
+			SuffixNode node = this;
+			for (int i = end - 1; i >= start; i--) {
+				node = node.child(Character.toLowerCase(value.charAt(i)));
+				if (node == null) {
+					return false;
+				}
+				if (node.terminal && (i == start || value.charAt(i - 1) == '.')) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private SuffixNode child(char key) {
+			for (int i = 0; i < keys.length; i++) {
+				if (keys[i] == key) {
+					return children[i];
+				}
+			}
+			return null;
+		}
+
+		private SuffixNode childOrCreate(char key) {
+			SuffixNode child = child(key);
+			if (child == null) {
+				child = new SuffixNode();
+				keys = Arrays.copyOf(keys, keys.length + 1);
+				children = Arrays.copyOf(children, children.length + 1);
+				keys[keys.length - 1] = key;
+				children[children.length - 1] = child;
+			}
+			return child;
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.cors;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable origins loaded by a {@link CorsOriginSource}, with the marker the
+ * source uses to detect whether they changed since the previous load
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class CorsOriginSet {
+	private final List<String> originList;
+	private final List<String> rootOriginList;
+	private final Object marker;
+
+	/**
+	 *
+	 * @param originList     See {@link CorsConfigurator#getOriginList()}
+	 * @param rootOriginList See {@link CorsConfigurator#getRootOriginList()}
+	 * @param marker         Identifies the state of the storage, for example
+	 *                       the modification time of a file, may be null
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public CorsOriginSet(Collection<String> originList, Collection<String> rootOriginList, Object marker) {
+		this.originList = Collections.unmodifiableList(new ArrayList<>(originList));
+		this.rootOriginList = Collections.unmodifiableList(new ArrayList<>(rootOriginList));
+		this.marker = marker;
+	}
+
+	public List<String> getOriginList() {
+		return originList;
+	}
+
+	public List<String> getRootOriginList() {
+		return rootOriginList;
+	}
+
+	public Object getMarker() {
+		return marker;
+	}
+
+	/**
+	 *
+	 * @return true if the marker is not null, and equals to the given one
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean hasMarker(Object otherMarker) {
+		return marker != null && Objects.equals(marker, otherMarker);
+	}
+}
@@ -0,0 +1,39 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.cors;
+
+import java.io.IOException;
+
+/**
+ * Loads the allowed origins from some storage, used by
+ * {@link RefreshingCorsConfigurator}, it's only invoked from a background
+ * thread
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@FunctionalInterface
+public interface CorsOriginSource {
+
+	/**
+	 * Loads the origins, sources able to detect changes cheaply should return
+	 * the previous set when nothing changed
+	 *
+	 * @param previous The set returned by the previous invocation, null the
+	 *                 first time
+	 * @return The current origins
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public CorsOriginSet load(CorsOriginSet previous) throws IOException;
+
+	/**
+	 * Checks a single origin, used to accept origins added to the storage
+	 * since the last load, without waiting for the next one
+	 *
+	 * @return true if the exact origin is allowed, by default, false
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public default boolean contains(String origin) throws IOException {
+		return false;
+	}
+}
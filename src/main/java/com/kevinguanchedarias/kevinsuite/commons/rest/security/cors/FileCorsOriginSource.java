@@ -0,0 +1,53 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.cors;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the origins from a text file, one by line, empty lines and lines
+ * starting with <b>#</b> are ignored, lines with a scheme, like
+ * <b>https://app.kevinguanchedarias.com</b>, or <b>*</b>, are origins, the
+ * rest are root domains, like <b>kevinguanchedarias.com</b><br />
+ * The file is read again only when its modification time or its size change,
+ * replace it atomically to avoid reading partial contents
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class FileCorsOriginSource implements CorsOriginSource {
+	private static final String ALLOW_ANY_ORIGIN = "*";
+
+	private final Path file;
+
+	public FileCorsOriginSource(Path file) {
+		this.file = file;
+	}
+
+	@Override
+	public CorsOriginSet load(CorsOriginSet previous) throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+		List<Object> marker = List.of(attributes.lastModifiedTime().toMillis(), attributes.size());
+		if (previous != null && previous.hasMarker(marker)) {
+			return previous;
+		}
+		List<String> originList = new ArrayList<>();
+		List<String> rootOriginList = new ArrayList<>();
+		for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+			String value = line.trim();
+			if (value.isEmpty() || value.startsWith("#")) {
+				continue;
+			}
+			if (value.contains("://") || ALLOW_ANY_ORIGIN.equals(value)) {
+				originList.add(value);
+			} else {
+				rootOriginList.add(value);
+			}
+		}
+		return new CorsOriginSet(originList, rootOriginList, marker);
+	}
+}
@@ -0,0 +1,113 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.cors;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the origins from a database table, by default
+ * <b>cors_origin(origin VARCHAR, root_domain BOOLEAN, updated_at
+ * TIMESTAMP)</b>, rows with <b>root_domain</b> are root domains<br />
+ * Before reading the rows, the change query is executed, and the rows are
+ * read only if its result differs from the previous one, so the table is not
+ * read when nothing changed, the default query detects insertions, updates
+ * and deletions using the number of rows, and the last <b>updated_at</b>
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class JdbcCorsOriginSource implements CorsOriginSource {
+	public static final String DEFAULT_ORIGINS_QUERY = "SELECT origin, root_domain FROM cors_origin";
+	public static final String DEFAULT_CHANGE_QUERY = "SELECT COUNT(*), MAX(updated_at) FROM cors_origin";
+	public static final String DEFAULT_CONTAINS_QUERY = "SELECT 1 FROM cors_origin WHERE origin = ?"
+			+ " AND root_domain = FALSE";
+
+	private final DataSource dataSource;
+	private final String originsQuery;
+	private final String changeQuery;
+	private final String containsQuery;
+
+	public JdbcCorsOriginSource(DataSource dataSource) {
+		this(dataSource, DEFAULT_ORIGINS_QUERY, DEFAULT_CHANGE_QUERY, DEFAULT_CONTAINS_QUERY);
+	}
+
+	/**
+	 *
+	 * @param originsQuery  Returns the origin, and a boolean telling if it's a
+	 *                      root domain
+	 * @param changeQuery   Returns a single row which changes when the origins
+	 *                      change, null to read the origins on each load
+	 * @param containsQuery Returns a row when the exact origin, its only
+	 *                      parameter, is allowed, null to disable the single
+	 *                      origin lookups
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public JdbcCorsOriginSource(DataSource dataSource, String originsQuery, String changeQuery,
+			String containsQuery) {
+		this.dataSource = dataSource;
+		this.originsQuery = originsQuery;
+		this.changeQuery = changeQuery;
+		this.containsQuery = containsQuery;
+	}
+
+	@Override
+	public CorsOriginSet load(CorsOriginSet previous) throws IOException {
+		try (Connection connection = dataSource.getConnection()) {
+			List<Object> marker = changeQuery == null ? null : findMarker(connection);
+			if (previous != null && previous.hasMarker(marker)) {
+				return previous;
+			}
+			List<String> originList = new ArrayList<>();
+			List<String> rootOriginList = new ArrayList<>();
+			try (PreparedStatement statement = connection.prepareStatement(originsQuery);
+					ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					String origin = resultSet.getString(1);
+					if (origin != null) {
+						(resultSet.getBoolean(2) ? rootOriginList : originList).add(origin.trim());
+					}
+				}
+			}
+			return new CorsOriginSet(originList, rootOriginList, marker);
+		} catch (SQLException e) {
+			throw new IOException("Couldn't read the CORS origins", e);
+		}
+	}
+
+	@Override
+	public boolean contains(String origin) throws IOException {
+		if (containsQuery == null) {
+			return false;
+		}
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement statement = connection.prepareStatement(containsQuery)) {
+			statement.setString(1, origin);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				return resultSet.next();
+			}
+		} catch (SQLException e) {
+			throw new IOException("Couldn't look up the CORS origin " + origin, e);
+		}
+	}
+
+	private List<Object> findMarker(Connection connection) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(changeQuery);
+				ResultSet resultSet = statement.executeQuery()) {
+			List<Object> marker = new ArrayList<>();
+			if (resultSet.next()) {
+				ResultSetMetaData metaData = resultSet.getMetaData();
+				for (int i = 1; i <= metaData.getColumnCount(); i++) {
+					marker.add(resultSet.getObject(i));
+				}
+			}
+			return marker;
+		}
+	}
+}
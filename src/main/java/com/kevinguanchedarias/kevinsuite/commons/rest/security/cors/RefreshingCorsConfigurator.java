@@ -0,0 +1,238 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.cors;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.CommonRestException;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.LogRateLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ConcurrentCorsConfigurator} whose origins are periodically reloaded
+ * from a {@link CorsOriginSource} in a background thread, a new snapshot is
+ * published only when the origins have changed, if a reload fails, the
+ * previous origins are kept<br />
+ * Optionally, rejected origins are looked up in the source in background, so
+ * origins added to the storage are accepted before the next reload, the
+ * lookups are limited globally, queued in a bounded queue, and the misses are
+ * cached during the TTL, so the reloads remain the only routine source of I/O,
+ * and unknown origins can't flood the storage, requests never wait for the
+ * source<br />
+ * The method and header lists are not managed by the source, set them as
+ * usual
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@Slf4j
+public class RefreshingCorsConfigurator extends ConcurrentCorsConfigurator implements Closeable {
+	private static final Duration DEFAULT_REJECTED_ORIGIN_TTL = Duration.ofSeconds(30);
+	private static final int MAX_REJECTED_ORIGINS = 10_000;
+	private static final int MAX_QUEUED_LOOKUPS = 16;
+	private static final long PENDING = Long.MAX_VALUE;
+
+	private final CorsOriginSource source;
+	private final Duration refreshInterval;
+	private final Clock clock;
+	private final Executor customLookupExecutor;
+	private final ConcurrentHashMap<String, Long> rejectedOrigins = new ConcurrentHashMap<>();
+	private CorsOriginSet originSet;
+	private volatile ScheduledExecutorService executor;
+	private volatile Executor lookupExecutor;
+
+	/**
+	 * When true, rejected origins are looked up in the source, set it before
+	 * {@link #start()}
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	@Setter
+	private boolean lookUpRejectedOrigins = false;
+
+	/**
+	 * Time during which a rejected origin that is not in the source is not
+	 * looked up again, zero disables the lookups
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	@Setter
+	private volatile Duration rejectedOriginTtl = DEFAULT_REJECTED_ORIGIN_TTL;
+
+	/**
+	 * Max lookups of rejected origins, shared by all the origins, by default 10
+	 * per second
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	@Setter
+	private volatile LogRateLimiter lookupRateLimiter = new LogRateLimiter(10, Duration.ofSeconds(1));
+
+	public RefreshingCorsConfigurator(CorsOriginSource source, Duration refreshInterval) {
+		this(source, refreshInterval, Clock.systemUTC(), null);
+	}
+
+	RefreshingCorsConfigurator(CorsOriginSource source, Duration refreshInterval, Clock clock,
+			Executor customLookupExecutor) {
+		this.source = source;
+		this.refreshInterval = refreshInterval;
+		this.clock = clock;
+		this.customLookupExecutor = customLookupExecutor;
+	}
+
+	/**
+	 * Loads the origins, and starts the background reloads
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	@PostConstruct
+	public synchronized void start() {
+		refresh();
+		if (executor == null) {
+			ScheduledExecutorService newExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "kevinsuite-cors-origin-refresher");
+				thread.setDaemon(true);
+				return thread;
+			});
+			long intervalMillis = refreshInterval.toMillis();
+			newExecutor.scheduleWithFixedDelay(this::refreshIfPossible, intervalMillis, intervalMillis,
+					TimeUnit.MILLISECONDS);
+			executor = newExecutor;
+		}
+		if (lookUpRejectedOrigins && lookupExecutor == null) {
+			lookupExecutor = customLookupExecutor == null ? createLookupExecutor() : customLookupExecutor;
+		}
+	}
+
+	/**
+	 * Loads the origins now, the version changes only if they have changed
+	 *
+	 * @throws CommonRestException When the origins can't be loaded
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public synchronized void refresh() {
+		CorsOriginSet loaded;
+		try {
+			loaded = source.load(originSet);
+		} catch (IOException e) {
+			throw new CommonRestException("Couldn't load the CORS origins", e);
+		}
+		if (loaded != originSet) {
+			if (batch().replaceOrigins(loaded.getOriginList()).replaceRootOrigins(loaded.getRootOriginList())
+					.apply()) {
+				log.debug("CORS origins changed, now has {} origins and {} root domains",
+						loaded.getOriginList().size(), loaded.getRootOriginList().size());
+			}
+			originSet = loaded;
+		}
+		purgeExpiredRejectedOrigins();
+	}
+
+	/**
+	 * Schedules a lookup of the origin, if the lookups are enabled, the origin
+	 * is not being looked up, nor was missing during the
+	 * {@link #getRejectedOriginTtl()}, and the {@link #getLookupRateLimiter()}
+	 * allows it, else it's ignored
+	 */
+	@Override
+	public void reportRejectedOrigin(String origin) {
+		Executor currentExecutor = lookupExecutor;
+		if (currentExecutor == null || rejectedOriginTtl.isZero()) {
+			return;
+		}
+		Long expiresAt = rejectedOrigins.get(origin);
+		if (expiresAt != null && expiresAt > clock.millis()) {
+			return;
+		}
+		if (expiresAt == null && rejectedOrigins.size() >= MAX_REJECTED_ORIGINS) {
+			purgeExpiredRejectedOrigins();
+		}
+		boolean reserved = expiresAt == null
+				? rejectedOrigins.size() < MAX_REJECTED_ORIGINS && rejectedOrigins.putIfAbsent(origin, PENDING) == null
+				: rejectedOrigins.replace(origin, expiresAt, PENDING);
+		if (!reserved) {
+			return;
+		}
+		if (!lookupRateLimiter.tryAcquire()) {
+			rejectedOrigins.remove(origin, PENDING);
+			return;
+		}
+		try {
+			currentExecutor.execute(() -> lookUp(origin));
+		} catch (RejectedExecutionException e) {
+			rejectedOrigins.remove(origin, PENDING);
+			log.debug("Not looking up {}, the lookup queue is full, or the refresher has been stopped", origin);
+		}
+	}
+
+	@Override
+	@PreDestroy
+	public synchronized void close() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+		if (lookupExecutor instanceof ExecutorService) {
+			((ExecutorService) lookupExecutor).shutdownNow();
+		}
+		lookupExecutor = null;
+	}
+
+	private void lookUp(String origin) {
+		boolean found = false;
+		try {
+			found = source.contains(origin);
+			if (found) {
+				batch().addOrigin(origin).apply();
+			}
+		} catch (IOException | RuntimeException e) {
+			log.warn("Couldn't look up the CORS origin {}", origin, e);
+		}
+		if (found) {
+			rejectedOrigins.remove(origin);
+		} else {
+			rejectedOrigins.put(origin, clock.millis() + rejectedOriginTtl.toMillis());
+		}
+	}
+
+	private static ExecutorService createLookupExecutor() {
+		return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(MAX_QUEUED_LOOKUPS),
+				runnable -> {
+					Thread thread = new Thread(runnable, "kevinsuite-cors-origin-lookup");
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	private void purgeExpiredRejectedOrigins() {
+		long now = clock.millis();
+		rejectedOrigins.values().removeIf(expiresAt -> expiresAt <= now);
+	}
+
+	private void refreshIfPossible() {
+		try {
+			refresh();
+		} catch (RuntimeException e) {
+			log.warn("Couldn't reload the CORS origins, will keep using the previous ones", e);
+		}
+	}
+}
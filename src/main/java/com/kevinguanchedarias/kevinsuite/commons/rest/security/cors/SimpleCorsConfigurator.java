@@ -56,19 +56,19 @@ public class SimpleCorsConfigurator implements CorsConfigurator {
 
 	@Override
 	public void addOrigin(String origin) {
-		addAndCreateIfRequired(origin, originList);
+		originList = addAndCreateIfRequired(origin, originList);
 
 	}
 
 	@Override
 	public void addMethod(String method) {
-		addAndCreateIfRequired(method, methodList);
+		methodList = addAndCreateIfRequired(method, methodList);
 
 	}
 
 	@Override
 	public void addHeader(String header) {
-		addAndCreateIfRequired(header, headerList);
+		headerList = addAndCreateIfRequired(header, headerList);
 
 	}
 
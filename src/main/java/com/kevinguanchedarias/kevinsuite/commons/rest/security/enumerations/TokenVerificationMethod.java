@@ -9,5 +9,48 @@ package com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations;
  * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
  */
 public enum TokenVerificationMethod {
-	SECRET, RSA_KEY;
+	SECRET(null), RSA_KEY("RSA"),
+
+	/**
+	 * ECDSA keys, for <b>ES256</b>, <b>ES384</b> and <b>ES512</b> tokens, read
+	 * from the same PEM files as the RSA ones
+	 *
+	 * @since 0.5.0
+	 */
+	EC_KEY("EC"),
+
+	/**
+	 * Ed25519 keys, for <b>EdDSA</b> tokens, read from the same PEM files as the
+	 * RSA ones
+	 *
+	 * @since 0.5.0
+	 */
+	ED_KEY("Ed25519");
+
+	private final String keyAlgorithm;
+
+	private TokenVerificationMethod(String keyAlgorithm) {
+		this.keyAlgorithm = keyAlgorithm;
+	}
+
+	/**
+	 *
+	 * @return The JCA key algorithm, null for {@link #SECRET}
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String getKeyAlgorithm() {
+		return keyAlgorithm;
+	}
+
+	/**
+	 *
+	 * @return true if the tokens are verified with a public key, and signed with
+	 *         a private key
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean usesKeyPair() {
+		return keyAlgorithm != null;
+	}
 }
@@ -0,0 +1,62 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.event;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of the authentication of a request
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@Getter
+@AllArgsConstructor
+public final class AuthenticationEvent {
+
+	/**
+	 * Epoch millisecond of the authentication
+	 *
+	 * @since 0.5.0
+	 */
+	private final long timestamp;
+
+	/**
+	 * The authenticated user, null when rejected
+	 *
+	 * @since 0.5.0
+	 */
+	private final TokenUser user;
+
+	/**
+	 * HTTP method of the request
+	 *
+	 * @since 0.5.0
+	 */
+	private final String method;
+
+	/**
+	 * Request URI
+	 *
+	 * @since 0.5.0
+	 */
+	private final String path;
+
+	/**
+	 * Time spent authenticating the request
+	 *
+	 * @since 0.5.0
+	 */
+	private final long durationNanos;
+
+	/**
+	 * The reason of the rejection, null when accepted
+	 *
+	 * @since 0.5.0
+	 */
+	private final Throwable rejection;
+
+	public boolean isAccepted() {
+		return rejection == null;
+	}
+}
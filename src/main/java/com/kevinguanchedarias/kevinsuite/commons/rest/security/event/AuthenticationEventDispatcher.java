@@ -0,0 +1,239 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.event;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers the {@link AuthenticationEvent}s to an
+ * {@link AuthenticationEventListener}, by default, events are stored in a
+ * bounded lock-free ring buffer, and a background thread delivers them in
+ * batches, so the listener latency is not added to the requests, what happens
+ * when the buffer is full is defined by the {@link OverflowPolicy}<br />
+ * Synchronous dispatchers invoke the listener on the request thread, use them
+ * when the listener must be able to reject requests by throwing
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@Slf4j
+public final class AuthenticationEventDispatcher implements Closeable {
+	private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	private final AuthenticationEventListener listener;
+	private final EventRingBuffer buffer;
+	private final OverflowPolicy overflowPolicy;
+	private final int batchSize;
+	private final int sampleRate;
+	private final int sampleThreshold;
+	private final long flushIntervalNanos;
+	private final Thread consumer;
+	private final LongAdder droppedCount = new LongAdder();
+	private final LongAdder deliveredCount = new LongAdder();
+	private volatile boolean running = true;
+
+	private AuthenticationEventDispatcher(Builder builder) {
+		listener = builder.listener;
+		overflowPolicy = builder.overflowPolicy;
+		batchSize = builder.batchSize;
+		sampleRate = builder.sampleRate;
+		flushIntervalNanos = builder.flushInterval.toNanos();
+		if (builder.synchronous) {
+			buffer = null;
+			sampleThreshold = 0;
+			consumer = null;
+		} else {
+			buffer = new EventRingBuffer(builder.capacity);
+			sampleThreshold = buffer.capacity() - buffer.capacity() / 4;
+			consumer = new Thread(this::consume, "kevinsuite-authentication-events");
+			consumer.setDaemon(true);
+			consumer.start();
+		}
+	}
+
+	/**
+	 *
+	 * @param listener Receives the events
+	 * @return A builder of a dispatcher with a buffer of 8192 events, batches of
+	 *         256, and {@link OverflowPolicy#DROP}
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static Builder builder(AuthenticationEventListener listener) {
+		return new Builder(listener);
+	}
+
+	/**
+	 * Stores the event for the background delivery, or delivers it now when the
+	 * dispatcher is synchronous
+	 *
+	 * @return false if the event has been discarded
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean publish(AuthenticationEvent event) {
+		if (buffer == null) {
+			listener.onEvents(Collections.singletonList(event));
+			deliveredCount.increment();
+			return true;
+		}
+		boolean stored = running && (overflowPolicy != OverflowPolicy.SAMPLE || buffer.size() < sampleThreshold
+				|| ThreadLocalRandom.current().nextInt(sampleRate) == 0) && buffer.offer(event);
+		while (!stored && running && overflowPolicy == OverflowPolicy.BLOCK) {
+			LockSupport.parkNanos(BLOCK_PARK_NANOS);
+			stored = buffer.offer(event);
+		}
+		if (!stored) {
+			droppedCount.increment();
+		}
+		return stored;
+	}
+
+	public boolean isSynchronous() {
+		return buffer == null;
+	}
+
+	public long getDroppedCount() {
+		return droppedCount.sum();
+	}
+
+	public long getDeliveredCount() {
+		return deliveredCount.sum();
+	}
+
+	/**
+	 * Stops accepting events, delivers the buffered ones, and stops the
+	 * background thread
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	@Override
+	@PreDestroy
+	public void close() {
+		running = false;
+		if (consumer != null) {
+			LockSupport.unpark(consumer);
+			try {
+				consumer.join(TimeUnit.SECONDS.toMillis(10));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void consume() {
+		List<AuthenticationEvent> batch = new ArrayList<>(batchSize);
+		List<AuthenticationEvent> readOnlyBatch = Collections.unmodifiableList(batch);
+		while (running || buffer.size() > 0) {
+			if (buffer.drainTo(batch, batchSize) == 0) {
+				if (running) {
+					LockSupport.parkNanos(flushIntervalNanos);
+				} else {
+					Thread.onSpinWait();
+				}
+				continue;
+			}
+			try {
+				listener.onEvents(readOnlyBatch);
+				deliveredCount.add(batch.size());
+			} catch (RuntimeException e) {
+				droppedCount.add(batch.size());
+				log.warn("Authentication event listener failed, {} events lost", batch.size(), e);
+			}
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Configures the {@link AuthenticationEventDispatcher}, the background
+	 * thread is started by {@link #build()}
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static final class Builder {
+		private final AuthenticationEventListener listener;
+		private int capacity = 8192;
+		private int batchSize = 256;
+		private int sampleRate = 10;
+		private Duration flushInterval = Duration.ofMillis(10);
+		private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+		private boolean synchronous;
+
+		private Builder(AuthenticationEventListener listener) {
+			this.listener = listener;
+		}
+
+		/**
+		 *
+		 * @param capacity Max number of buffered events, rounded up to a power
+		 *                 of two
+		 * @return this
+		 */
+		public Builder capacity(int capacity) {
+			this.capacity = capacity;
+			return this;
+		}
+
+		public Builder batchSize(int batchSize) {
+			this.batchSize = batchSize;
+			return this;
+		}
+
+		/**
+		 *
+		 * @param flushInterval Time the background thread waits when there are
+		 *                      no events
+		 * @return this
+		 */
+		public Builder flushInterval(Duration flushInterval) {
+			this.flushInterval = flushInterval;
+			return this;
+		}
+
+		public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+			this.overflowPolicy = overflowPolicy;
+			return this;
+		}
+
+		/**
+		 *
+		 * @param sampleRate With {@link OverflowPolicy#SAMPLE}, one of each
+		 *                   <i>sampleRate</i> events is kept
+		 * @return this
+		 */
+		public Builder sampleRate(int sampleRate) {
+			this.sampleRate = sampleRate;
+			return this;
+		}
+
+		/**
+		 *
+		 * @param synchronous When true, the listener is invoked on the request
+		 *                    thread, with one event each time, and its exceptions
+		 *                    reject the request
+		 * @return this
+		 */
+		public Builder synchronous(boolean synchronous) {
+			this.synchronous = synchronous;
+			return this;
+		}
+
+		public AuthenticationEventDispatcher build() {
+			if (capacity < 1 || batchSize < 1 || sampleRate < 1) {
+				throw new IllegalArgumentException("capacity, batchSize and sampleRate must be positive");
+			}
+			return new AuthenticationEventDispatcher(this);
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.event;
+
+import java.util.List;
+
+/**
+ * Receives the authentication events, in batches
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@FunctionalInterface
+public interface AuthenticationEventListener {
+
+	/**
+	 *
+	 * @param events The events, in publication order, the list is reused after
+	 *               returning, so copy it to keep it
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void onEvents(List<AuthenticationEvent> events);
+}
@@ -0,0 +1,86 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.event;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer, each slot
+ * has a sequence telling whether it can be written or read, producers claim
+ * slots with a CAS on the tail, the consumer never uses CAS
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+final class EventRingBuffer {
+	private final AuthenticationEvent[] events;
+	private final AtomicLongArray sequences;
+	private final int mask;
+	private final AtomicLong tail = new AtomicLong();
+	private volatile long head;
+
+	EventRingBuffer(int minimumCapacity) {
+		int capacity = Integer.highestOneBit(Math.max(2, minimumCapacity) - 1) << 1;
+		events = new AuthenticationEvent[capacity];
+		sequences = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++) {
+			sequences.set(i, i);
+		}
+		mask = capacity - 1;
+	}
+
+	/**
+	 *
+	 * @return false if the buffer is full
+	 */
+	boolean offer(AuthenticationEvent event) {
+		long position = tail.get();
+		while (true) {
+			int index = (int) position & mask;
+			long difference = sequences.get(index) - position;
+			if (difference == 0L) {
+				if (tail.compareAndSet(position, position + 1)) {
+					events[index] = event;
+					sequences.lazySet(index, position + 1);
+					return true;
+				}
+				position = tail.get();
+			} else if (difference < 0L) {
+				return false;
+			} else {
+				position = tail.get();
+			}
+		}
+	}
+
+	/**
+	 * Moves up to <i>maxEvents</i> to the target, only invoked by the consumer
+	 *
+	 * @return The number of moved events
+	 */
+	int drainTo(List<AuthenticationEvent> target, int maxEvents) {
+		long position = head;
+		int drained = 0;
+		while (drained < maxEvents) {
+			int index = (int) position & mask;
+			if (sequences.get(index) != position + 1) {
+				break;
+			}
+			target.add(events[index]);
+			events[index] = null;
+			sequences.lazySet(index, position + events.length);
+			position++;
+			drained++;
+		}
+		head = position;
+		return drained;
+	}
+
+	int size() {
+		return (int) Math.max(0L, tail.get() - head);
+	}
+
+	int capacity() {
+		return events.length;
+	}
+}
@@ -0,0 +1,27 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.event;
+
+/**
+ * What {@link AuthenticationEventDispatcher} does with the events published
+ * while its buffer is full
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public enum OverflowPolicy {
+	/**
+	 * The event is discarded
+	 */
+	DROP,
+
+	/**
+	 * The request thread waits until the consumer frees some space
+	 */
+	BLOCK,
+
+	/**
+	 * Once the buffer is three quarters full, only one of each
+	 * {@link AuthenticationEventDispatcher.Builder#sampleRate(int)} events is
+	 * kept, when it's full, the event is discarded
+	 */
+	SAMPLE
+}
@@ -0,0 +1,270 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.CommonRestException;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.Rejections;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Creates a {@link TokenUser}, or a subclass of it, binding claim paths to
+ * setters<br />
+ * The mapping is compiled once into a tree of claim names with
+ * {@link MethodHandle} setters, so decoding a token uses the Jackson streaming
+ * parser, and no reflection<br />
+ * <b>data.id</b>, <b>data.username</b> and <b>data.email</b> are always mapped,
+ * unless they are mapped to other path
+ *
+ * @param <T> The type of the user
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class ClaimMappingDecoder<T extends TokenUser> implements TokenUserDecoder {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(TokenUser.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, TokenUser.class, Object.class);
+
+	private final MethodHandle constructor;
+	private final PathNode root;
+
+	private ClaimMappingDecoder(MethodHandle constructor, PathNode root) {
+		this.constructor = constructor;
+		this.root = root;
+	}
+
+	/**
+	 *
+	 * @param userClass The user class, must have a public no-args constructor
+	 * @return A builder with the default mappings of {@link TokenUser}
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static <T extends TokenUser> Builder<T> builder(Class<T> userClass) {
+		return new Builder<>(userClass);
+	}
+
+	/**
+	 * Creates a decoder using the {@link ClaimPath} annotations of the user class
+	 * and its superclasses
+	 *
+	 * @param userClass The user class, must have a public no-args constructor
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static <T extends TokenUser> ClaimMappingDecoder<T> fromAnnotations(Class<T> userClass) {
+		Builder<T> builder = builder(userClass);
+		for (Class<?> current = userClass; current != Object.class; current = current.getSuperclass()) {
+			for (Field field : current.getDeclaredFields()) {
+				ClaimPath claimPath = field.getAnnotation(ClaimPath.class);
+				if (claimPath != null) {
+					builder.map(claimPath.value(), field.getName());
+				}
+			}
+		}
+		for (Method method : userClass.getMethods()) {
+			ClaimPath claimPath = method.getAnnotation(ClaimPath.class);
+			if (claimPath != null) {
+				builder.map(claimPath.value(), method);
+			}
+		}
+		return builder.build();
+	}
+
+	@Override
+	public TokenUser decode(byte[] payload) {
+		TokenUser user;
+		try {
+			user = (TokenUser) constructor.invokeExact();
+		} catch (Throwable e) {
+			throw new CommonRestException("Couldn't create the token user", asException(e));
+		}
+		try (JsonParser parser = MAPPER.getFactory().createParser(payload)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw Rejections.INVALID_TOKEN;
+			}
+			readObject(parser, root, user);
+		} catch (IOException e) {
+			throw Rejections.INVALID_TOKEN;
+		}
+		return user;
+	}
+
+	private static void readObject(JsonParser parser, PathNode node, TokenUser user) throws IOException {
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			PathNode child = node.children.get(parser.getCurrentName());
+			JsonToken value = parser.nextToken();
+			if (child == null) {
+				parser.skipChildren();
+			} else if (child.setter != null) {
+				child.setter.set(parser, value, user);
+			} else if (value == JsonToken.START_OBJECT) {
+				readObject(parser, child, user);
+			} else {
+				parser.skipChildren();
+			}
+		}
+	}
+
+	private static Exception asException(Throwable e) {
+		return e instanceof Exception ? (Exception) e : new IllegalStateException(e);
+	}
+
+	/**
+	 * Defines the claim mappings
+	 *
+	 * @param <T> The type of the user
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static final class Builder<T extends TokenUser> {
+		private final Class<T> userClass;
+		private final Map<String, Method> settersByPath = new LinkedHashMap<>();
+
+		private Builder(Class<T> userClass) {
+			this.userClass = userClass;
+			map("data.id", "id");
+			map("data.username", "username");
+			map("data.email", "email");
+		}
+
+		/**
+		 *
+		 * @param claimPath Path of the claim, for example <b>data.roles</b>
+		 * @param property  Name of the property, must have a public setter
+		 * @since 0.5.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		public Builder<T> map(String claimPath, String property) {
+			return map(claimPath, findSetter(property));
+		}
+
+		/**
+		 *
+		 * @param claimPath Path of the claim, for example <b>data.roles</b>
+		 * @param setter    Public method with a single argument
+		 * @since 0.5.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		public Builder<T> map(String claimPath, Method setter) {
+			if (setter.getParameterCount() != 1 || !Modifier.isPublic(setter.getModifiers())) {
+				throw new CommonRestException("Not a public setter " + setter);
+			}
+			settersByPath.values().remove(setter);
+			settersByPath.put(claimPath, setter);
+			return this;
+		}
+
+		/**
+		 * Compiles the mappings
+		 *
+		 * @since 0.5.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		public ClaimMappingDecoder<T> build() {
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			try {
+				MethodHandle constructor = lookup.findConstructor(userClass, MethodType.methodType(void.class))
+						.asType(CONSTRUCTOR_TYPE);
+				PathNode root = new PathNode();
+				for (Map.Entry<String, Method> entry : settersByPath.entrySet()) {
+					PathNode node = root;
+					for (String name : entry.getKey().split("\\.")) {
+						node = node.children.computeIfAbsent(name, key -> new PathNode());
+					}
+					node.setter = ClaimSetter.of(lookup, entry.getValue());
+				}
+				return new ClaimMappingDecoder<>(constructor, root);
+			} catch (NoSuchMethodException | IllegalAccessException e) {
+				throw new CommonRestException("Couldn't compile the claim mappings of " + userClass.getName(), e);
+			}
+		}
+
+		private Method findSetter(String property) {
+			String setterName = "set" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+			for (Method method : userClass.getMethods()) {
+				if (method.getName().equals(setterName) && method.getParameterCount() == 1) {
+					return method;
+				}
+			}
+			throw new CommonRestException("No public setter for " + property + " in " + userClass.getName());
+		}
+	}
+
+	private static final class PathNode {
+		private final Map<String, PathNode> children = new HashMap<>();
+		private ClaimSetter setter;
+	}
+
+	/**
+	 * Reads the current JSON value, converted to the type of the setter, and
+	 * invokes it
+	 */
+	private static final class ClaimSetter {
+		private final MethodHandle setter;
+		private final Class<?> type;
+		private final JavaType javaType;
+
+		private ClaimSetter(MethodHandle setter, Class<?> type, JavaType javaType) {
+			this.setter = setter;
+			this.type = type;
+			this.javaType = javaType;
+		}
+
+		private static ClaimSetter of(MethodHandles.Lookup lookup, Method method) throws IllegalAccessException {
+			MethodHandle handle = lookup.unreflect(method).asType(SETTER_TYPE);
+			return new ClaimSetter(handle, method.getParameterTypes()[0],
+					MAPPER.constructType(method.getGenericParameterTypes()[0]));
+		}
+
+		private void set(JsonParser parser, JsonToken token, TokenUser user) throws IOException {
+			if (token == JsonToken.VALUE_NULL && type.isPrimitive()) {
+				return;
+			}
+			Object value = read(parser, token);
+			try {
+				setter.invokeExact(user, value);
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new CommonRestException("Couldn't set the claim", asException(e));
+			}
+		}
+
+		private Object read(JsonParser parser, JsonToken token) throws IOException {
+			if (token == JsonToken.VALUE_NULL) {
+				return null;
+			} else if (type == String.class) {
+				return token.isScalarValue() ? parser.getValueAsString() : readTree(parser);
+			} else if (type == Number.class && token.isNumeric()) {
+				return parser.getNumberValue();
+			} else if ((type == Long.class || type == long.class) && token.isNumeric()) {
+				return parser.getLongValue();
+			} else if ((type == Integer.class || type == int.class) && token.isNumeric()) {
+				return parser.getIntValue();
+			} else if ((type == Double.class || type == double.class) && token.isNumeric()) {
+				return parser.getDoubleValue();
+			} else if ((type == Boolean.class || type == boolean.class) && token.isBoolean()) {
+				return parser.getBooleanValue();
+			} else {
+				return MAPPER.readValue(parser, javaType);
+			}
+		}
+
+		private static String readTree(JsonParser parser) throws IOException {
+			return MAPPER.readTree(parser).toString();
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a claim of the token to a property of a
+ * {@link com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser}
+ * subclass, place it in the public setter, or in the field of the property, see
+ * {@link ClaimMappingDecoder#fromAnnotations(Class)}
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.FIELD })
+public @interface ClaimPath {
+
+	/**
+	 *
+	 * @return Path of the claim, using dots to separate the nested objects, for
+	 *         example <b>data.roles</b>
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	String value();
+}
@@ -0,0 +1,322 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.CommonRestException;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.Rejections;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenConfigLoader;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.KeySetProvider;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.PemKeys;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.ReloadingKeySetProvider;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.VerificationKeySet;
+import io.jsonwebtoken.io.Deserializer;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Routes each token to the {@link TokenConfigLoader} of its issuer, selected
+ * by the unverified <b>kid</b> header, or else by the <b>iss</b> claim, with a
+ * hash lookup, so the token is verified only with the keys of its issuer<br />
+ * After the verification, the <b>iss</b> claim must be one of the values
+ * registered for the same loader, so the keys of an issuer can't sign tokens
+ * of other issuer<br />
+ * The {@link JwtVerifier} of each issuer is built once, with its own clock
+ * skew, when the registry is built, build a new registry when the loader
+ * values change
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class IssuerRegistry {
+	private final Map<String, Issuer> byKeyId;
+	private final Map<String, Issuer> byIssuer;
+	private final List<Issuer> issuers;
+	private final TokenScreener routingScreener;
+
+	private IssuerRegistry(Map<String, Issuer> byKeyId, Map<String, Issuer> byIssuer, List<Issuer> issuers,
+			Clock clock) {
+		this.byKeyId = byKeyId;
+		this.byIssuer = byIssuer;
+		this.issuers = Collections.unmodifiableList(issuers);
+		Set<String> algorithms = new HashSet<>();
+		long maxClockSkew = 0L;
+		for (Issuer issuer : issuers) {
+			algorithms.addAll(TokenScreener.defaultAlgorithms(issuer.tokenConfigLoader.getVerificationMethod()));
+			maxClockSkew = Math.max(maxClockSkew, issuer.tokenConfigLoader.getAllowedClockSkew());
+		}
+		routingScreener = new TokenScreener(algorithms, maxClockSkew * 1000L, clock);
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Reads the unverified values used for routing, when the filter doesn't have
+	 * its own {@link TokenScreener}, the allowed algorithms are the ones of all
+	 * the issuers, and the clock skew is the biggest one
+	 *
+	 * @throws RuntimeException One of the {@link Rejections}, when the token is
+	 *                          rejected
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ScreenedToken screen(String token) {
+		return routingScreener.screen(token);
+	}
+
+	/**
+	 *
+	 * @param screenedToken Unverified values of the token
+	 * @return The issuer registered for the <b>kid</b>, or else for the
+	 *         <b>iss</b>
+	 * @throws RuntimeException {@link Rejections#UNKNOWN_ISSUER} when none is
+	 *                          registered
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public Issuer route(ScreenedToken screenedToken) {
+		Issuer retVal = screenedToken.getKeyId() == null ? null : byKeyId.get(screenedToken.getKeyId());
+		if (retVal == null && screenedToken.getIssuer() != null) {
+			retVal = byIssuer.get(screenedToken.getIssuer());
+		}
+		if (retVal == null) {
+			throw Rejections.UNKNOWN_ISSUER;
+		}
+		return retVal;
+	}
+
+	/**
+	 *
+	 * @return The distinct issuers, in registration order
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public List<Issuer> getIssuers() {
+		return issuers;
+	}
+
+	/**
+	 * Registers the listener in the {@link KeySetProvider} of each issuer that
+	 * has one
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void addKeySetChangeListener(Consumer<VerificationKeySet> listener) {
+		for (Issuer issuer : issuers) {
+			KeySetProvider keySetProvider = issuer.tokenConfigLoader.getKeySetProvider();
+			if (keySetProvider != null) {
+				keySetProvider.addKeySetChangeListener(listener);
+			}
+		}
+	}
+
+	/**
+	 * The verifier, the decoder and the <b>iss</b> values of one issuer
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static final class Issuer {
+		private final TokenConfigLoader tokenConfigLoader;
+		private final JwtVerifier jwtVerifier;
+		private final TokenUserDecoder tokenUserDecoder;
+		private final Set<String> issuerClaims;
+		private final Set<String> registeredIssuerClaims;
+
+		private Issuer(TokenConfigLoader tokenConfigLoader, JwtVerifier jwtVerifier,
+				TokenUserDecoder tokenUserDecoder, Set<String> issuerClaims, Set<String> registeredIssuerClaims) {
+			this.tokenConfigLoader = tokenConfigLoader;
+			this.jwtVerifier = jwtVerifier;
+			this.tokenUserDecoder = tokenUserDecoder;
+			this.issuerClaims = issuerClaims;
+			this.registeredIssuerClaims = registeredIssuerClaims;
+		}
+
+		public TokenConfigLoader getTokenConfigLoader() {
+			return tokenConfigLoader;
+		}
+
+		public JwtVerifier getJwtVerifier() {
+			return jwtVerifier;
+		}
+
+		/**
+		 *
+		 * @return {@link TokenConfigLoader#getTokenUserDecoder()}, or the default
+		 *         decoder of the registry, may be null
+		 * @since 0.5.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		public TokenUserDecoder getTokenUserDecoder() {
+			return tokenUserDecoder;
+		}
+
+		/**
+		 *
+		 * @return The <b>iss</b> values registered for the loader of this issuer,
+		 *         empty if it's registered only by <b>kid</b>
+		 * @since 0.5.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		public Set<String> getIssuerClaims() {
+			return issuerClaims;
+		}
+
+		/**
+		 * Checks the <b>iss</b> of a token verified with the keys of this issuer
+		 *
+		 * @param issuerClaim The verified <b>iss</b> claim, may be null
+		 * @return True if it's one of the {@link #getIssuerClaims()}, or, when
+		 *         the issuer is registered only by <b>kid</b>, if it's not
+		 *         registered for other issuer
+		 * @since 0.5.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		public boolean acceptsIssuerClaim(String issuerClaim) {
+			if (issuerClaims.isEmpty()) {
+				return issuerClaim == null || !registeredIssuerClaims.contains(issuerClaim);
+			}
+			return issuerClaim != null && issuerClaims.contains(issuerClaim);
+		}
+	}
+
+	public static final class Builder {
+		private final Map<String, TokenConfigLoader> keyIds = new LinkedHashMap<>();
+		private final Map<String, TokenConfigLoader> issuers = new LinkedHashMap<>();
+		private TokenUserDecoder tokenUserDecoder;
+		private boolean pooledCrypto;
+		private Clock clock = Clock.systemUTC();
+
+		private Builder() {
+		}
+
+		/**
+		 *
+		 * @param issuer            Value of the <b>iss</b> claim
+		 * @param tokenConfigLoader Loader of the issuer, the same loader can be
+		 *                          registered for several values
+		 * @since 0.5.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		public Builder issuer(String issuer, TokenConfigLoader tokenConfigLoader) {
+			issuers.put(issuer, tokenConfigLoader);
+			return this;
+		}
+
+		/**
+		 *
+		 * @param keyId             Value of the <b>kid</b> header, takes
+		 *                          precedence over the <b>iss</b> claim
+		 * @param tokenConfigLoader Loader of the issuer, the same loader can be
+		 *                          registered for several values
+		 * @since 0.5.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		public Builder keyId(String keyId, TokenConfigLoader tokenConfigLoader) {
+			keyIds.put(keyId, tokenConfigLoader);
+			return this;
+		}
+
+		/**
+		 *
+		 * @param tokenUserDecoder Decoder used by the issuers whose loader doesn't
+		 *                         define one
+		 * @since 0.5.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		public Builder tokenUserDecoder(TokenUserDecoder tokenUserDecoder) {
+			this.tokenUserDecoder = tokenUserDecoder;
+			return this;
+		}
+
+		/**
+		 *
+		 * @param pooledCrypto See {@link JwtVerifier}
+		 * @since 0.5.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		public Builder pooledCrypto(boolean pooledCrypto) {
+			this.pooledCrypto = pooledCrypto;
+			return this;
+		}
+
+		Builder clock(Clock clock) {
+			this.clock = clock;
+			return this;
+		}
+
+		/**
+		 * Reads the key material of each distinct loader, and builds its verifier
+		 *
+		 * @throws CommonRestException When the keys can't be read
+		 * @since 0.5.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		public IssuerRegistry build() {
+			Map<TokenConfigLoader, Issuer> built = new IdentityHashMap<>();
+			List<Issuer> distinct = new ArrayList<>();
+			Map<String, Issuer> byKeyId = new HashMap<>();
+			Map<String, Issuer> byIssuer = new HashMap<>();
+			Map<TokenConfigLoader, Set<String>> issuerClaims = new IdentityHashMap<>();
+			issuers.forEach(
+					(issuer, loader) -> issuerClaims.computeIfAbsent(loader, key -> new HashSet<>()).add(issuer));
+			Set<String> registeredIssuerClaims = Collections.unmodifiableSet(new HashSet<>(issuers.keySet()));
+			keyIds.forEach((keyId, loader) -> byKeyId.put(keyId,
+					findOrBuild(loader, built, distinct, issuerClaims, registeredIssuerClaims)));
+			issuers.forEach((issuer, loader) -> byIssuer.put(issuer,
+					findOrBuild(loader, built, distinct, issuerClaims, registeredIssuerClaims)));
+			return new IssuerRegistry(byKeyId, byIssuer, distinct, clock);
+		}
+
+		private Issuer findOrBuild(TokenConfigLoader loader, Map<TokenConfigLoader, Issuer> built,
+				List<Issuer> distinct, Map<TokenConfigLoader, Set<String>> issuerClaims,
+				Set<String> registeredIssuerClaims) {
+			Issuer retVal = built.get(loader);
+			if (retVal == null) {
+				TokenUserDecoder decoder = loader.getTokenUserDecoder() == null ? tokenUserDecoder
+						: loader.getTokenUserDecoder();
+				Deserializer<Map<String, ?>> deserializer = decoder == null ? null
+						: ShallowClaimsDeserializer.INSTANCE;
+				KeySetProvider keySetProvider = loader.getKeySetProvider() == null
+						? JwtVerifier.singleKeySet(loader, readPublicKeyIfRequired(loader))
+						: loader.getKeySetProvider();
+				if (keySetProvider instanceof ReloadingKeySetProvider) {
+					((ReloadingKeySetProvider) keySetProvider).start();
+				}
+				retVal = new Issuer(loader, new JwtVerifier(loader, keySetProvider, deserializer, pooledCrypto),
+						decoder, Collections.unmodifiableSet(issuerClaims.getOrDefault(loader, Collections.emptySet())),
+						registeredIssuerClaims);
+				built.put(loader, retVal);
+				distinct.add(retVal);
+			}
+			return retVal;
+		}
+
+		private PublicKey readPublicKeyIfRequired(TokenConfigLoader loader) {
+			TokenVerificationMethod verificationMethod = loader.getVerificationMethod();
+			if (!verificationMethod.usesKeyPair()) {
+				return null;
+			}
+			try {
+				return PemKeys.readPublicKey(PemKeys.keyFactory(verificationMethod, loader.getCryptoProvider()),
+						loader.getPublicKey());
+			} catch (GeneralSecurityException | IOException e) {
+				throw new CommonRestException("Couldn't read the public key " + loader.getPublicKey(), e);
+			}
+		}
+	}
+}
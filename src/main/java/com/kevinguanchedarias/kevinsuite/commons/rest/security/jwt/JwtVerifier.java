@@ -0,0 +1,154 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.InvalidVerificationMethod;
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.MissingArgumentException;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenConfigLoader;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.KeySetProvider;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.SecretKeySetSource;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.VerificationKeySet;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.JwtParserBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Deserializer;
+
+import java.security.PublicKey;
+import java.time.Clock;
+import java.util.Map;
+
+/**
+ * Immutable JWT verifier, the parser and the verification keys are built once,
+ * so a single instance can be shared by all request threads<br />
+ * When the values returned by the {@link TokenConfigLoader} change, build a new
+ * instance, instead of modifying this one
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class JwtVerifier {
+	private final TokenVerificationMethod verificationMethod;
+	private final JwtParser parser;
+	private final PooledJwsVerifier pooledVerifier;
+
+	/**
+	 *
+	 * @param tokenConfigLoader Source of the verification method, the secret and
+	 *                          the clock skew
+	 * @param publicKey         Key used when the method uses a key pair, ignored
+	 *                          otherwise
+	 * @throws MissingArgumentException  When the required key material is not
+	 *                                   present
+	 * @throws InvalidVerificationMethod When the verification method is not
+	 *                                   supported
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public JwtVerifier(TokenConfigLoader tokenConfigLoader, PublicKey publicKey) {
+		this(tokenConfigLoader, singleKeySet(tokenConfigLoader, publicKey), null);
+	}
+
+	/**
+	 *
+	 * @param tokenConfigLoader Source of the verification method and the clock
+	 *                          skew
+	 * @param keySetProvider    Gives the keys, selected by the kid of each token
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public JwtVerifier(TokenConfigLoader tokenConfigLoader, KeySetProvider keySetProvider) {
+		this(tokenConfigLoader, keySetProvider, null);
+	}
+
+	/**
+	 *
+	 * @param tokenConfigLoader Source of the verification method and the clock
+	 *                          skew
+	 * @param keySetProvider    Gives the keys, selected by the kid of each token
+	 * @param deserializer      Deserializes the header and the claims, for
+	 *                          example {@link ShallowClaimsDeserializer}, null to
+	 *                          use the jjwt default one
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public JwtVerifier(TokenConfigLoader tokenConfigLoader, KeySetProvider keySetProvider,
+			Deserializer<Map<String, ?>> deserializer) {
+		this(tokenConfigLoader, keySetProvider, deserializer, false);
+	}
+
+	/**
+	 *
+	 * @param tokenConfigLoader Source of the verification method and the clock
+	 *                          skew
+	 * @param keySetProvider    Gives the keys, selected by the kid of each token
+	 * @param deserializer      Deserializes the header and the claims, null to use
+	 *                          the default one
+	 * @param pooledCrypto      When true, signatures are verified with reusable
+	 *                          instances, kept in a {@link SignaturePool} for
+	 *                          each key, {@link TokenVerificationMethod#ED_KEY}
+	 *                          tokens are always verified this way, as jjwt
+	 *                          doesn't support EdDSA
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public JwtVerifier(TokenConfigLoader tokenConfigLoader, KeySetProvider keySetProvider,
+			Deserializer<Map<String, ?>> deserializer, boolean pooledCrypto) {
+		verificationMethod = tokenConfigLoader.getVerificationMethod();
+		JwtParserBuilder parserBuilder = Jwts.parserBuilder()
+				.setAllowedClockSkewSeconds(tokenConfigLoader.getAllowedClockSkew())
+				.setSigningKeyResolver(new KeySetSigningKeyResolver(keySetProvider));
+		if (deserializer != null) {
+			parserBuilder.deserializeJsonWith(deserializer);
+		}
+		parser = parserBuilder.build();
+		pooledVerifier = pooledCrypto || verificationMethod == TokenVerificationMethod.ED_KEY
+				? new PooledJwsVerifier(keySetProvider, deserializer, tokenConfigLoader.getAllowedClockSkew(),
+						Clock.systemUTC())
+				: null;
+	}
+
+	/**
+	 * Verifies the signature and the dates of the token
+	 *
+	 * @param token Compact JWS
+	 * @return The claims of the token
+	 * @throws io.jsonwebtoken.JwtException When the token is not valid
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public Claims parseClaims(String token) {
+		return pooledVerifier == null ? parser.parseClaimsJws(token).getBody()
+				: pooledVerifier.parseClaims(token, parser);
+	}
+
+	public TokenVerificationMethod getVerificationMethod() {
+		return verificationMethod;
+	}
+
+	/**
+	 *
+	 * @return A key set with the secret or the public key of the loader, as
+	 *         defined by its verification method
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static KeySetProvider singleKeySet(TokenConfigLoader tokenConfigLoader, PublicKey publicKey) {
+		TokenVerificationMethod verificationMethod = tokenConfigLoader.getVerificationMethod();
+		VerificationKeySet keySet;
+		if (verificationMethod == TokenVerificationMethod.SECRET) {
+			String secret = tokenConfigLoader.getTokenSecret();
+			if (secret == null) {
+				throw new MissingArgumentException("Token secret was not specified");
+			}
+			keySet = VerificationKeySet.single(SecretKeySetSource.toSecretKey(secret));
+		} else if (verificationMethod.usesKeyPair()) {
+			if (publicKey == null) {
+				throw new MissingArgumentException("Public key was not specified");
+			}
+			keySet = VerificationKeySet.single(publicKey);
+		} else {
+			throw new InvalidVerificationMethod("No such method: " + verificationMethod);
+		}
+		return () -> keySet;
+	}
+}
@@ -0,0 +1,44 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.Rejections;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.KeySetProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+
+import java.security.Key;
+
+/**
+ * Selects the verification key by the <b>kid</b> header of the token
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+class KeySetSigningKeyResolver extends SigningKeyResolverAdapter {
+	private final KeySetProvider keySetProvider;
+
+	KeySetSigningKeyResolver(KeySetProvider keySetProvider) {
+		this.keySetProvider = keySetProvider;
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	public Key resolveSigningKey(JwsHeader header, Claims claims) {
+		return findKey(header);
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	public Key resolveSigningKey(JwsHeader header, String plaintext) {
+		return findKey(header);
+	}
+
+	@SuppressWarnings("rawtypes")
+	private Key findKey(JwsHeader header) {
+		Key key = keySetProvider.getKeySet().findKey(header.getKeyId());
+		if (key == null) {
+			throw Rejections.UNKNOWN_KEY_ID;
+		}
+		return key;
+	}
+}
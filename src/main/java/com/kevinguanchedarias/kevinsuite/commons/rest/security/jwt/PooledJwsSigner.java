@@ -0,0 +1,75 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Signs tokens with reusable {@link javax.crypto.Mac} or
+ * {@link java.security.Signature} instances, the key is bound once, when the
+ * {@link SignaturePool} of each algorithm is created<br />
+ * The tokens are the same that the jjwt builder creates, as the payload is
+ * still serialized by it
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class PooledJwsSigner {
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+	private final Key key;
+	private final Map<String, SignaturePool> pools = new ConcurrentHashMap<>();
+	private final Map<String, String> encodedHeaders = new ConcurrentHashMap<>();
+
+	/**
+	 *
+	 * @param key The secret, or the private key
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public PooledJwsSigner(Key key) {
+		this.key = key;
+	}
+
+	/**
+	 *
+	 * @param claims    The claims of the token
+	 * @param algorithm HMAC, RSA or ECDSA algorithm
+	 * @return Compact JWS
+	 * @throws io.jsonwebtoken.security.InvalidKeyException When the key can't be
+	 *                                                      used with the
+	 *                                                      algorithm
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String sign(Map<String, Object> claims, SignatureAlgorithm algorithm) {
+		return sign(claims, algorithm.getValue());
+	}
+
+	/**
+	 *
+	 * @param claims    The claims of the token
+	 * @param algorithm The <b>alg</b>, one of {@link SignatureAlgorithm}, or
+	 *                  {@link SignaturePool#EDDSA}
+	 * @return Compact JWS
+	 * @throws io.jsonwebtoken.security.InvalidKeyException When the key can't be
+	 *                                                      used with the
+	 *                                                      algorithm
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String sign(Map<String, Object> claims, String algorithm) {
+		SignaturePool pool = pools.computeIfAbsent(algorithm, unused -> SignaturePool.forSigning(algorithm, key));
+		String header = encodedHeaders.computeIfAbsent(algorithm, unused -> ENCODER
+				.encodeToString(("{\"alg\":\"" + algorithm + "\"}").getBytes(StandardCharsets.UTF_8)));
+		String unsignedToken = Jwts.builder().setClaims(claims).compact();
+		String signingInput = header + unsignedToken.substring(unsignedToken.indexOf('.'), unsignedToken.length() - 1);
+		byte[] ascii = signingInput.getBytes(StandardCharsets.ISO_8859_1);
+		return signingInput + '.' + ENCODER.encodeToString(pool.sign(ascii, ascii.length));
+	}
+}
@@ -0,0 +1,157 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.KeySetProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.PrematureJwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.DeserializationException;
+import io.jsonwebtoken.io.Deserializer;
+import io.jsonwebtoken.security.SignatureException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verifies HMAC, RSA, ECDSA and EdDSA signatures with {@link SignaturePool},
+ * instead of letting jjwt create a {@link javax.crypto.Mac} or
+ * {@link java.security.Signature} for each token<br />
+ * Compressed tokens, and unsigned ones are handled by the jjwt parser, except
+ * the EdDSA ones, which jjwt doesn't support
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+class PooledJwsVerifier {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+	private static final int MAX_CACHED_KEYS = 64;
+	private static final int EDDSA_INDEX = SignatureAlgorithm.values().length;
+	private static final Deserializer<Map<String, ?>> JACKSON_DESERIALIZER = bytes -> {
+		try {
+			@SuppressWarnings("unchecked")
+			Map<String, ?> retVal = MAPPER.readValue(bytes, Map.class);
+			return retVal;
+		} catch (IOException e) {
+			throw new DeserializationException("Unable to deserialize bytes into a Map", e);
+		}
+	};
+
+	private final KeySetSigningKeyResolver keyResolver;
+	private final Deserializer<Map<String, ?>> deserializer;
+	private final long allowedClockSkewMillis;
+	private final Clock clock;
+	private final Map<Key, SignaturePool[]> pools = new ConcurrentHashMap<>();
+
+	PooledJwsVerifier(KeySetProvider keySetProvider, Deserializer<Map<String, ?>> deserializer,
+			long allowedClockSkewSeconds, Clock clock) {
+		keyResolver = new KeySetSigningKeyResolver(keySetProvider);
+		this.deserializer = deserializer == null ? JACKSON_DESERIALIZER : deserializer;
+		allowedClockSkewMillis = allowedClockSkewSeconds * 1000L;
+		this.clock = clock;
+	}
+
+	@SuppressWarnings("unchecked")
+	Claims parseClaims(String token, JwtParser fallbackParser) {
+		int headerEnd = token.indexOf('.');
+		int payloadEnd = headerEnd < 1 ? -1 : token.indexOf('.', headerEnd + 1);
+		if (payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+			throw new MalformedJwtException("JWT strings must contain exactly 2 period characters");
+		}
+		if (payloadEnd == token.length() - 1) {
+			throw new UnsupportedJwtException("Unsigned JWTs are not supported");
+		}
+		byte[] ascii = token.getBytes(StandardCharsets.ISO_8859_1);
+		JwsHeader<?> header = Jwts.jwsHeader((Map<String, Object>) deserialize(decode(ascii, 0, headerEnd)));
+		String algorithm = header.getAlgorithm();
+		int algorithmIndex;
+		if (SignaturePool.EDDSA.equals(algorithm)) {
+			if (header.getCompressionAlgorithm() != null) {
+				throw new UnsupportedJwtException("Compressed EdDSA tokens are not supported");
+			}
+			algorithmIndex = EDDSA_INDEX;
+		} else {
+			SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.forName(algorithm);
+			if (header.getCompressionAlgorithm() != null || signatureAlgorithm == SignatureAlgorithm.NONE) {
+				return fallbackParser.parseClaimsJws(token).getBody();
+			}
+			algorithmIndex = signatureAlgorithm.ordinal();
+		}
+		Key key = keyResolver.resolveSigningKey(header, (Claims) null);
+		if (!findPool(algorithm, algorithmIndex, key).verify(ascii, payloadEnd, decode(ascii, payloadEnd + 1, ascii.length))) {
+			throw new SignatureException("JWT signature does not match locally computed signature."
+					+ " JWT validity cannot be asserted and should not be trusted.");
+		}
+		Claims claims = Jwts.claims((Map<String, Object>) deserialize(decode(ascii, headerEnd + 1, payloadEnd)));
+		long now = clock.millis();
+		Date expiration = claims.getExpiration();
+		if (expiration != null && now - allowedClockSkewMillis > expiration.getTime()) {
+			throw new ExpiredJwtException(header, claims, "JWT expired at " + expiration.toInstant()
+					+ ". Current time: " + Instant.ofEpochMilli(now));
+		}
+		Date notBefore = claims.getNotBefore();
+		if (notBefore != null && now + allowedClockSkewMillis < notBefore.getTime()) {
+			throw new PrematureJwtException(header, claims, "JWT must not be accepted before "
+					+ notBefore.toInstant() + ". Current time: " + Instant.ofEpochMilli(now));
+		}
+		return claims;
+	}
+
+	private SignaturePool findPool(String algorithm, int algorithmIndex, Key key) {
+		SignaturePool[] keyPools = pools.get(key);
+		if (keyPools == null) {
+			if (pools.size() >= MAX_CACHED_KEYS) {
+				pools.clear();
+			}
+			keyPools = pools.computeIfAbsent(key, unused -> new SignaturePool[EDDSA_INDEX + 1]);
+		}
+		SignaturePool pool = keyPools[algorithmIndex];
+		if (pool == null) {
+			pool = SignaturePool.forVerification(algorithm, key);
+			keyPools[algorithmIndex] = pool;
+		}
+		return pool;
+	}
+
+	private Map<String, ?> deserialize(byte[] json) {
+		try {
+			Map<String, ?> retVal = deserializer.deserialize(json);
+			if (retVal == null) {
+				throw new MalformedJwtException("Invalid JWT JSON");
+			}
+			return retVal;
+		} catch (DeserializationException e) {
+			throw new MalformedJwtException("Unable to read JSON value", e);
+		}
+	}
+
+	private static byte[] decode(byte[] ascii, int start, int end) {
+		ByteBuffer decoded;
+		try {
+			decoded = DECODER.decode(ByteBuffer.wrap(ascii, start, end - start));
+		} catch (IllegalArgumentException e) {
+			throw new MalformedJwtException("Invalid Base64url value", e);
+		}
+		byte[] retVal = decoded.array();
+		if (decoded.arrayOffset() != 0 || decoded.remaining() != retVal.length) {
+			retVal = Arrays.copyOfRange(retVal, decoded.arrayOffset() + decoded.position(),
+					decoded.arrayOffset() + decoded.limit());
+		}
+		return retVal;
+	}
+}
@@ -0,0 +1,87 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+/**
+ * Unverified values read by the {@link TokenScreener}, <b>don't trust them</b>
+ * until the signature has been verified
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class ScreenedToken {
+	private final String algorithm;
+	private final String keyId;
+	private final String issuer;
+	private final String id;
+	private final long expiration;
+	private final long notBefore;
+	private final byte[] payload;
+
+	ScreenedToken(String algorithm, String keyId, String issuer, String id, long expiration, long notBefore,
+			byte[] payload) {
+		this.algorithm = algorithm;
+		this.keyId = keyId;
+		this.issuer = issuer;
+		this.id = id;
+		this.expiration = expiration;
+		this.notBefore = notBefore;
+		this.payload = payload;
+	}
+
+	/**
+	 *
+	 * @return The <b>alg</b> header
+	 */
+	public String getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 *
+	 * @return The <b>kid</b> header, or null
+	 */
+	public String getKeyId() {
+		return keyId;
+	}
+
+	/**
+	 *
+	 * @return The <b>iss</b> claim, or null
+	 */
+	public String getIssuer() {
+		return issuer;
+	}
+
+	/**
+	 *
+	 * @return The <b>jti</b> claim, or null
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 *
+	 * @return The <b>exp</b> claim in milliseconds, or {@link Long#MAX_VALUE} if
+	 *         not present
+	 */
+	public long getExpiration() {
+		return expiration;
+	}
+
+	/**
+	 *
+	 * @return The <b>nbf</b> claim in milliseconds, or {@link Long#MIN_VALUE} if
+	 *         not present
+	 */
+	public long getNotBefore() {
+		return notBefore;
+	}
+
+	/**
+	 *
+	 * @return The decoded JSON payload, must not be modified
+	 */
+	public byte[] getPayload() {
+		return payload;
+	}
+}
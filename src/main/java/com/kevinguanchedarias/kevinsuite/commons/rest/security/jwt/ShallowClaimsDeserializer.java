@@ -0,0 +1,56 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.jsonwebtoken.io.DeserializationException;
+import io.jsonwebtoken.io.Deserializer;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Deserializes only the top level values that are not objects nor arrays, which
+ * is enough for jjwt to validate <b>exp</b> and <b>nbf</b>, nested claims are
+ * skipped without creating any map, as they will be read by a
+ * {@link TokenUserDecoder}
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class ShallowClaimsDeserializer implements Deserializer<Map<String, ?>> {
+	public static final ShallowClaimsDeserializer INSTANCE = new ShallowClaimsDeserializer();
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private ShallowClaimsDeserializer() {
+		// Stateless, use INSTANCE
+	}
+
+	@Override
+	public Map<String, ?> deserialize(byte[] bytes) {
+		Map<String, Object> retVal = new HashMap<>();
+		try (JsonParser parser = JSON_FACTORY.createParser(bytes)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new DeserializationException("JSON object expected");
+			}
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String name = parser.getCurrentName();
+				JsonToken value = parser.nextToken();
+				if (value.isStructStart()) {
+					parser.skipChildren();
+				} else if (value.isNumeric()) {
+					retVal.put(name, parser.getNumberValue());
+				} else if (value.isBoolean()) {
+					retVal.put(name, parser.getBooleanValue());
+				} else if (value == JsonToken.VALUE_STRING) {
+					retVal.put(name, parser.getText());
+				}
+			}
+		} catch (IOException e) {
+			throw new DeserializationException("Unable to deserialize the JSON", e);
+		}
+		return retVal;
+	}
+}
@@ -0,0 +1,248 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.InvalidKeyException;
+import io.jsonwebtoken.security.SignatureException;
+
+import javax.crypto.Mac;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.EdECKey;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Reusable {@link Mac} or {@link Signature} instances of one algorithm, with the
+ * key already bound, so the providers are looked up only when the pool is
+ * empty<br />
+ * Instances are kept in a lock-free array of slots, selected by the thread id,
+ * instead of in a {@link ThreadLocal}, so virtual threads, which are not
+ * reused, share them too<br />
+ * ECDSA signatures use the JCA <b>P1363</b> format, which is the JOSE R || S
+ * concatenation, so they are not transcoded from DER
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class SignaturePool {
+	private static final int SLOT_COUNT = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1)
+			<< 1;
+	private static final int SLOT_MASK = SLOT_COUNT - 1;
+	private static final int PROBES = 4;
+
+	/**
+	 * The <b>alg</b> of Ed25519 tokens, not defined by
+	 * {@link SignatureAlgorithm}
+	 *
+	 * @since 0.5.0
+	 */
+	public static final String EDDSA = "EdDSA";
+
+	private final String algorithm;
+	private final String jcaName;
+	private final boolean hmac;
+	private final Key key;
+	private final AtomicReferenceArray<Object> slots = new AtomicReferenceArray<>(SLOT_COUNT);
+
+	private SignaturePool(String algorithm, String jcaName, boolean hmac, Key key) {
+		this.algorithm = algorithm;
+		this.jcaName = jcaName;
+		this.hmac = hmac;
+		this.key = key;
+	}
+
+	/**
+	 *
+	 * @param algorithm HMAC, RSA or ECDSA algorithm
+	 * @param key       The secret, or the public key
+	 * @throws InvalidKeyException When the key can't be used with the algorithm
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static SignaturePool forVerification(SignatureAlgorithm algorithm, Key key) {
+		algorithm.assertValidVerificationKey(key);
+		return of(algorithm, key);
+	}
+
+	/**
+	 *
+	 * @param algorithm The <b>alg</b>, one of {@link SignatureAlgorithm}, or
+	 *                  {@link #EDDSA}
+	 * @param key       The secret, or the public key
+	 * @throws InvalidKeyException When the key can't be used with the algorithm
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static SignaturePool forVerification(String algorithm, Key key) {
+		return EDDSA.equals(algorithm) ? ofEdDsa(key) : forVerification(SignatureAlgorithm.forName(algorithm), key);
+	}
+
+	/**
+	 *
+	 * @param algorithm HMAC, RSA or ECDSA algorithm
+	 * @param key       The secret, or the private key
+	 * @throws InvalidKeyException When the key can't be used with the algorithm
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static SignaturePool forSigning(SignatureAlgorithm algorithm, Key key) {
+		algorithm.assertValidSigningKey(key);
+		return of(algorithm, key);
+	}
+
+	/**
+	 *
+	 * @param algorithm The <b>alg</b>, one of {@link SignatureAlgorithm}, or
+	 *                  {@link #EDDSA}
+	 * @param key       The secret, or the private key
+	 * @throws InvalidKeyException When the key can't be used with the algorithm
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static SignaturePool forSigning(String algorithm, Key key) {
+		return EDDSA.equals(algorithm) ? ofEdDsa(key) : forSigning(SignatureAlgorithm.forName(algorithm), key);
+	}
+
+	/**
+	 *
+	 * @param data      Buffer with the signing input
+	 * @param length    Length of the signing input, starting at 0
+	 * @param signature The signature to check
+	 * @return true if the signature is valid
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean verify(byte[] data, int length, byte[] signature) {
+		Object instance = borrow();
+		try {
+			if (instance instanceof Mac) {
+				Mac mac = (Mac) instance;
+				mac.update(data, 0, length);
+				return MessageDigest.isEqual(mac.doFinal(), signature);
+			} else {
+				Signature verifier = (Signature) instance;
+				verifier.update(data, 0, length);
+				return verifier.verify(signature);
+			}
+		} catch (java.security.SignatureException e) {
+			return false;
+		} finally {
+			release(instance);
+		}
+	}
+
+	/**
+	 *
+	 * @param data   Buffer with the signing input
+	 * @param length Length of the signing input, starting at 0
+	 * @return The signature
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public byte[] sign(byte[] data, int length) {
+		Object instance = borrow();
+		try {
+			if (instance instanceof Mac) {
+				Mac mac = (Mac) instance;
+				mac.update(data, 0, length);
+				return mac.doFinal();
+			} else {
+				Signature signer = (Signature) instance;
+				signer.update(data, 0, length);
+				return signer.sign();
+			}
+		} catch (java.security.SignatureException e) {
+			throw new SignatureException("Couldn't sign the token", e);
+		} finally {
+			release(instance);
+		}
+	}
+
+	/**
+	 *
+	 * @return The <b>alg</b> of the tokens
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String getAlgorithm() {
+		return algorithm;
+	}
+
+	private static SignaturePool of(SignatureAlgorithm algorithm, Key key) {
+		String jcaName = algorithm.isEllipticCurve() ? algorithm.getJcaName() + "inP1363Format"
+				: algorithm.getJcaName();
+		SignaturePool retVal = new SignaturePool(algorithm.getValue(), jcaName, algorithm.isHmac(), key);
+		retVal.release(retVal.create());
+		return retVal;
+	}
+
+	private static SignaturePool ofEdDsa(Key key) {
+		if (!(key instanceof EdECKey) || !"Ed25519".equals(((EdECKey) key).getParams().getName())) {
+			throw new InvalidKeyException("EdDSA tokens require an Ed25519 key");
+		}
+		SignaturePool retVal = new SignaturePool(EDDSA, "Ed25519", false, key);
+		retVal.release(retVal.create());
+		return retVal;
+	}
+
+	private Object borrow() {
+		int start = (int) Thread.currentThread().getId();
+		for (int i = 0; i < PROBES; i++) {
+			int index = (start + i) & SLOT_MASK;
+			if (slots.get(index) != null) {
+				Object instance = slots.getAndSet(index, null);
+				if (instance != null) {
+					return instance;
+				}
+			}
+		}
+		return create();
+	}
+
+	private void release(Object instance) {
+		int start = (int) Thread.currentThread().getId();
+		for (int i = 0; i < PROBES; i++) {
+			if (slots.compareAndSet((start + i) & SLOT_MASK, null, instance)) {
+				return;
+			}
+		}
+	}
+
+	private Object create() {
+		try {
+			if (hmac) {
+				Mac mac = Mac.getInstance(jcaName);
+				mac.init(key);
+				return mac;
+			}
+			Signature signature = Signature.getInstance(jcaName);
+			if (jcaName.equals("RSASSA-PSS")) {
+				signature.setParameter(pssParameters());
+			}
+			if (key instanceof PrivateKey) {
+				signature.initSign((PrivateKey) key);
+			} else {
+				signature.initVerify((PublicKey) key);
+			}
+			return signature;
+		} catch (GeneralSecurityException e) {
+			throw new SignatureException("Couldn't create the " + jcaName + " instance", e);
+		}
+	}
+
+	private PSSParameterSpec pssParameters() {
+		switch (algorithm) {
+		case "PS256":
+			return new PSSParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, 32, 1);
+		case "PS384":
+			return new PSSParameterSpec("SHA-384", "MGF1", MGF1ParameterSpec.SHA384, 48, 1);
+		default:
+			return new PSSParameterSpec("SHA-512", "MGF1", MGF1ParameterSpec.SHA512, 64, 1);
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.Rejections;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+
+import java.io.IOException;
+
+/**
+ * Reads the <b>data.id</b>, <b>data.username</b> and <b>data.email</b> claims
+ * with the Jackson streaming parser, the other claims are skipped, without
+ * creating any map
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class StreamingTokenUserDecoder implements TokenUserDecoder {
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	@Override
+	public TokenUser decode(byte[] payload) {
+		TokenUser user = null;
+		try (JsonParser parser = JSON_FACTORY.createParser(payload)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw Rejections.INVALID_TOKEN;
+			}
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String name = parser.getCurrentName();
+				if (parser.nextToken() == JsonToken.START_OBJECT && "data".equals(name)) {
+					user = readUserData(parser);
+				} else {
+					parser.skipChildren();
+				}
+			}
+		} catch (IOException e) {
+			throw Rejections.INVALID_TOKEN;
+		}
+		if (user == null) {
+			throw Rejections.INVALID_TOKEN;
+		}
+		return user;
+	}
+
+	/**
+	 * Creates the user to fill, override to use a subclass
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected TokenUser createUser() {
+		return new TokenUser();
+	}
+
+	private TokenUser readUserData(JsonParser parser) throws IOException {
+		TokenUser user = createUser();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+			if ("id".equals(name) && value.isNumeric()) {
+				user.setId(parser.getNumberValue());
+			} else if ("username".equals(name) && value == JsonToken.VALUE_STRING) {
+				user.setUsername(parser.getText());
+			} else if ("email".equals(name) && value == JsonToken.VALUE_STRING) {
+				user.setEmail(parser.getText());
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return user;
+	}
+}
@@ -0,0 +1,73 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Typed claims of a token built by the {@link TokenIssuer}, the registered
+ * claims are written as they are, without building a claims map, dates are
+ * written as seconds since the epoch
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@Getter
+@Setter
+public class TokenClaims {
+	private String issuer;
+	private String subject;
+	private String audience;
+	private String id;
+	private Instant issuedAt;
+	private Instant notBefore;
+	private Instant expiration;
+
+	/**
+	 * Written as the <b>data</b> claim, with the id, username and email, as read
+	 * by the {@link com.kevinguanchedarias.kevinsuite.commons.rest.security.JwtAuthenticationFilter}
+	 *
+	 * @since 0.5.0
+	 */
+	private TokenUser user;
+
+	/**
+	 * Other claims, serialized with Jackson
+	 *
+	 * @since 0.5.0
+	 */
+	private Map<String, Object> additionalClaims;
+
+	/**
+	 *
+	 * @param user       Written as the <b>data</b> claim
+	 * @param expiration The <b>exp</b> claim
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static TokenClaims forUser(TokenUser user, Instant expiration) {
+		TokenClaims retVal = new TokenClaims();
+		retVal.setUser(user);
+		retVal.setExpiration(expiration);
+		return retVal;
+	}
+
+	/**
+	 * Adds a claim to the {@link #getAdditionalClaims()}
+	 *
+	 * @return this
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TokenClaims claim(String name, Object value) {
+		if (additionalClaims == null) {
+			additionalClaims = new LinkedHashMap<>();
+		}
+		additionalClaims.put(name, value);
+		return this;
+	}
+}
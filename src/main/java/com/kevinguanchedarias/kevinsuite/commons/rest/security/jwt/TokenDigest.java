@@ -0,0 +1,77 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.CommonRestException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 digest of a compact token, allows to index tokens without keeping the
+ * token itself in memory
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class TokenDigest {
+	private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new CommonRestException("SHA-256 is not available", e);
+		}
+	});
+
+	private final long first;
+	private final long second;
+	private final long third;
+	private final long fourth;
+
+	private TokenDigest(long first, long second, long third, long fourth) {
+		this.first = first;
+		this.second = second;
+		this.third = third;
+		this.fourth = fourth;
+	}
+
+	/**
+	 *
+	 * @param token Compact token
+	 * @return The digest of the token
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static TokenDigest of(String token) {
+		MessageDigest messageDigest = SHA_256.get();
+		ByteBuffer hash = ByteBuffer.wrap(messageDigest.digest(token.getBytes(StandardCharsets.ISO_8859_1)));
+		return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+	}
+
+	/**
+	 *
+	 * @return The first 64 bits of the digest, useful as a compact key
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getHighBits() {
+		return first;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (first ^ (first >>> 32));
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof TokenDigest)) {
+			return false;
+		}
+		TokenDigest other = (TokenDigest) obj;
+		return first == other.first && second == other.second && third == other.third && fourth == other.fourth;
+	}
+}
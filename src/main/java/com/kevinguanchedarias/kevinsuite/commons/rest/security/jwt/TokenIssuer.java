@@ -0,0 +1,315 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.CommonRestException;
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.MissingArgumentException;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenConfigLoader;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.PemKeys;
+import io.jsonwebtoken.security.Keys;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Builds tokens for one key and one algorithm, for services issuing lots of
+ * them<br />
+ * The key is bound once in a {@link SignaturePool}, the header segment is
+ * encoded once, and {@link TokenClaims} are written directly with the Jackson
+ * streaming generator<br />
+ * {@link #buildTokens(List)} signs big batches in a bounded
+ * {@link ForkJoinPool}, owned by the issuer, {@link #close()} it when it's no
+ * longer used
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class TokenIssuer implements AutoCloseable {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final JsonFactory JSON_FACTORY = MAPPER.getFactory();
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final int DEFAULT_BATCH_THRESHOLD = 16;
+
+	private final SignaturePool signaturePool;
+	private final byte[] headerSegment;
+	private final int parallelism;
+	private int batchThreshold = DEFAULT_BATCH_THRESHOLD;
+	private ForkJoinPool signingPool;
+	private boolean closed;
+
+	/**
+	 *
+	 * @param key       The secret, or the private key
+	 * @param algorithm The <b>alg</b>, for example <b>RS256</b> or
+	 *                  {@link SignaturePool#EDDSA}
+	 * @throws io.jsonwebtoken.security.InvalidKeyException When the key can't be
+	 *                                                      used with the
+	 *                                                      algorithm
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TokenIssuer(Key key, String algorithm) {
+		this(key, algorithm, null, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 *
+	 * @param key         The secret, or the private key
+	 * @param algorithm   The <b>alg</b>, for example <b>RS256</b> or
+	 *                    {@link SignaturePool#EDDSA}
+	 * @param keyId       The <b>kid</b> header, may be null
+	 * @param parallelism Maximum threads signing a batch
+	 * @throws io.jsonwebtoken.security.InvalidKeyException When the key can't be
+	 *                                                      used with the
+	 *                                                      algorithm
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TokenIssuer(Key key, String algorithm, String keyId, int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("The parallelism must be at least 1");
+		}
+		signaturePool = SignaturePool.forSigning(algorithm, key);
+		headerSegment = (ENCODER.encodeToString(encodeHeader(algorithm, keyId)) + '.')
+				.getBytes(StandardCharsets.US_ASCII);
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Creates an issuer with the secret, or the private key, of the loader
+	 *
+	 * @param algorithm The <b>alg</b>, must match the verification method
+	 * @throws MissingArgumentException When the secret or the private key are not
+	 *                                  defined
+	 * @throws CommonRestException      When the private key can't be read
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static TokenIssuer fromConfig(TokenConfigLoader tokenConfigLoader, String algorithm) {
+		TokenVerificationMethod verificationMethod = tokenConfigLoader.getVerificationMethod();
+		if (!verificationMethod.usesKeyPair()) {
+			if (tokenConfigLoader.getTokenSecret() == null) {
+				throw new MissingArgumentException("Token secret was not specified");
+			}
+			byte[] secret = tokenConfigLoader.getTokenSecret().getBytes(StandardCharsets.UTF_8);
+			return new TokenIssuer(Keys.hmacShaKeyFor(secret), algorithm);
+		}
+		if (tokenConfigLoader.getPrivateKey() == null) {
+			throw new MissingArgumentException("Private key was not specified");
+		}
+		try {
+			return new TokenIssuer(PemKeys.readPrivateKey(
+					PemKeys.keyFactory(verificationMethod, tokenConfigLoader.getCryptoProvider()),
+					tokenConfigLoader.getPrivateKey()), algorithm);
+		} catch (GeneralSecurityException | IOException e) {
+			throw new CommonRestException("Couldn't read the private key " + tokenConfigLoader.getPrivateKey(), e);
+		}
+	}
+
+	/**
+	 *
+	 * @return Compact JWS
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String buildToken(TokenClaims claims) {
+		return sign(encodeClaims(claims));
+	}
+
+	/**
+	 *
+	 * @param claims Claims serialized with Jackson
+	 * @return Compact JWS
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String buildToken(Map<String, Object> claims) {
+		try {
+			return sign(MAPPER.writeValueAsBytes(claims));
+		} catch (IOException e) {
+			throw new CommonRestException("Couldn't encode the claims", e);
+		}
+	}
+
+	/**
+	 * Builds a token for each element, batches bigger than
+	 * {@link #getBatchThreshold()} are split between the threads of the signing
+	 * pool
+	 *
+	 * @return The tokens, in the same order
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public List<String> buildTokens(List<TokenClaims> claims) {
+		String[] retVal = new String[claims.size()];
+		if (retVal.length <= batchThreshold || parallelism == 1) {
+			for (int i = 0; i < retVal.length; i++) {
+				retVal[i] = buildToken(claims.get(i));
+			}
+		} else {
+			findSigningPool().invoke(new SigningTask(claims, retVal, 0, retVal.length));
+		}
+		return Arrays.asList(retVal);
+	}
+
+	public int getBatchThreshold() {
+		return batchThreshold;
+	}
+
+	/**
+	 *
+	 * @param batchThreshold Batches up to this size are signed in the calling
+	 *                       thread, it's also the size of the chunks signed by
+	 *                       each task
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setBatchThreshold(int batchThreshold) {
+		this.batchThreshold = Math.max(1, batchThreshold);
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Stops the signing pool, batches can't be signed in parallel after
+	 * closing, single tokens can still be built
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	@Override
+	public synchronized void close() {
+		closed = true;
+		if (signingPool != null) {
+			signingPool.shutdown();
+			signingPool = null;
+		}
+	}
+
+	private synchronized ForkJoinPool findSigningPool() {
+		if (closed) {
+			throw new IllegalStateException("The token issuer has been closed");
+		}
+		if (signingPool == null) {
+			signingPool = new ForkJoinPool(parallelism);
+		}
+		return signingPool;
+	}
+
+	private String sign(byte[] payload) {
+		byte[] encodedPayload = ENCODER.encode(payload);
+		int signingInputLength = headerSegment.length + encodedPayload.length;
+		byte[] signingInput = Arrays.copyOf(headerSegment, signingInputLength);
+		System.arraycopy(encodedPayload, 0, signingInput, headerSegment.length, encodedPayload.length);
+		byte[] encodedSignature = ENCODER.encode(signaturePool.sign(signingInput, signingInputLength));
+		byte[] token = Arrays.copyOf(signingInput, signingInputLength + 1 + encodedSignature.length);
+		token[signingInputLength] = '.';
+		System.arraycopy(encodedSignature, 0, token, signingInputLength + 1, encodedSignature.length);
+		return new String(token, StandardCharsets.ISO_8859_1);
+	}
+
+	private static byte[] encodeHeader(String algorithm, String keyId) {
+		try (ByteArrayBuilder buffer = new ByteArrayBuilder();
+				JsonGenerator generator = JSON_FACTORY.createGenerator(buffer, JsonEncoding.UTF8)) {
+			generator.writeStartObject();
+			generator.writeStringField("alg", algorithm);
+			if (keyId != null) {
+				generator.writeStringField("kid", keyId);
+			}
+			generator.writeEndObject();
+			generator.flush();
+			return buffer.toByteArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static byte[] encodeClaims(TokenClaims claims) {
+		try (ByteArrayBuilder buffer = new ByteArrayBuilder(256);
+				JsonGenerator generator = JSON_FACTORY.createGenerator(buffer, JsonEncoding.UTF8)) {
+			generator.writeStartObject();
+			writeString(generator, "iss", claims.getIssuer());
+			writeString(generator, "sub", claims.getSubject());
+			writeString(generator, "aud", claims.getAudience());
+			writeString(generator, "jti", claims.getId());
+			writeSeconds(generator, "iat", claims.getIssuedAt());
+			writeSeconds(generator, "nbf", claims.getNotBefore());
+			writeSeconds(generator, "exp", claims.getExpiration());
+			TokenUser user = claims.getUser();
+			if (user != null) {
+				generator.writeObjectFieldStart("data");
+				generator.writeObjectField("id", user.getId());
+				generator.writeStringField("username", user.getUsername());
+				generator.writeStringField("email", user.getEmail());
+				generator.writeEndObject();
+			}
+			if (claims.getAdditionalClaims() != null) {
+				for (Map.Entry<String, Object> claim : claims.getAdditionalClaims().entrySet()) {
+					generator.writeObjectField(claim.getKey(), claim.getValue());
+				}
+			}
+			generator.writeEndObject();
+			generator.flush();
+			return buffer.toByteArray();
+		} catch (IOException e) {
+			throw new CommonRestException("Couldn't encode the claims", e);
+		}
+	}
+
+	private static void writeString(JsonGenerator generator, String name, String value) throws IOException {
+		if (value != null) {
+			generator.writeStringField(name, value);
+		}
+	}
+
+	private static void writeSeconds(JsonGenerator generator, String name, Instant value) throws IOException {
+		if (value != null) {
+			generator.writeNumberField(name, value.getEpochSecond());
+		}
+	}
+
+	private final class SigningTask extends RecursiveAction {
+		private static final long serialVersionUID = 2930185306476632301L;
+
+		private final transient List<TokenClaims> claims;
+		private final String[] tokens;
+		private final int start;
+		private final int end;
+
+		private SigningTask(List<TokenClaims> claims, String[] tokens, int start, int end) {
+			this.claims = claims;
+			this.tokens = tokens;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start <= batchThreshold) {
+				for (int i = start; i < end; i++) {
+					tokens[i] = buildToken(claims.get(i));
+				}
+			} else {
+				int middle = (start + end) >>> 1;
+				invokeAll(new SigningTask(claims, tokens, start, middle), new SigningTask(claims, tokens, middle, end));
+			}
+		}
+	}
+}
@@ -0,0 +1,257 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.Rejections;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenConfigLoader;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Cheap checks done before verifying the signature, so expired, oversized, or
+ * junk tokens are rejected without doing any cryptographic work<br />
+ * Only the header and the payload are decoded, the signature is not verified
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class TokenScreener {
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+	private static final int DEFAULT_MAX_TOKEN_LENGTH = 8192;
+
+	private final Clock clock;
+	private int maxTokenLength = DEFAULT_MAX_TOKEN_LENGTH;
+	private Set<String> allowedAlgorithms;
+	private long allowedClockSkewMillis;
+
+	/**
+	 * Creates a screener allowing the algorithms of the verification method, and
+	 * the clock skew of the loader
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TokenScreener(TokenConfigLoader tokenConfigLoader) {
+		this(tokenConfigLoader, Clock.systemUTC());
+	}
+
+	TokenScreener(TokenConfigLoader tokenConfigLoader, Clock clock) {
+		this(defaultAlgorithms(tokenConfigLoader.getVerificationMethod()),
+				tokenConfigLoader.getAllowedClockSkew() * 1000L, clock);
+	}
+
+	TokenScreener(Set<String> allowedAlgorithms, long allowedClockSkewMillis, Clock clock) {
+		this.clock = clock;
+		this.allowedAlgorithms = Set.copyOf(allowedAlgorithms);
+		this.allowedClockSkewMillis = allowedClockSkewMillis;
+	}
+
+	/**
+	 *
+	 * @param token Compact token
+	 * @return The unverified values of the token
+	 * @throws RuntimeException One of the {@link Rejections}, when the token is
+	 *                          rejected
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ScreenedToken screen(String token) {
+		if (token.length() > maxTokenLength) {
+			throw Rejections.INVALID_TOKEN;
+		}
+		int headerEnd = token.indexOf('.');
+		int payloadEnd = headerEnd < 1 ? -1 : token.indexOf('.', headerEnd + 1);
+		if (payloadEnd < 0 || payloadEnd == headerEnd + 1 || payloadEnd == token.length() - 1
+				|| token.indexOf('.', payloadEnd + 1) >= 0) {
+			throw Rejections.INVALID_TOKEN;
+		}
+		byte[] ascii = token.getBytes(StandardCharsets.ISO_8859_1);
+		Values values = new Values();
+		parseHeader(decode(ascii, 0, headerEnd), values);
+		if (values.algorithm == null || !allowedAlgorithms.contains(values.algorithm)) {
+			throw Rejections.INVALID_TOKEN;
+		}
+		byte[] payload = decode(ascii, headerEnd + 1, payloadEnd);
+		parsePayload(payload, values);
+		long now = clock.millis();
+		if (now - allowedClockSkewMillis > values.expiration) {
+			throw Rejections.TOKEN_EXPIRED;
+		}
+		if (now + allowedClockSkewMillis < values.notBefore) {
+			throw Rejections.TOKEN_NOT_YET_VALID;
+		}
+		return new ScreenedToken(values.algorithm, values.keyId, values.issuer, values.id, values.expiration,
+				values.notBefore, payload);
+	}
+
+	public int getMaxTokenLength() {
+		return maxTokenLength;
+	}
+
+	public void setMaxTokenLength(int maxTokenLength) {
+		this.maxTokenLength = maxTokenLength;
+	}
+
+	public Set<String> getAllowedAlgorithms() {
+		return allowedAlgorithms;
+	}
+
+	/**
+	 *
+	 * @param allowedAlgorithms The accepted <b>alg</b> headers, for example
+	 *                          <b>RS256</b>
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setAllowedAlgorithms(Set<String> allowedAlgorithms) {
+		this.allowedAlgorithms = Set.copyOf(allowedAlgorithms);
+	}
+
+	public long getAllowedClockSkewMillis() {
+		return allowedClockSkewMillis;
+	}
+
+	public void setAllowedClockSkewMillis(long allowedClockSkewMillis) {
+		this.allowedClockSkewMillis = allowedClockSkewMillis;
+	}
+
+	/**
+	 *
+	 * @return The algorithms that can be used with the verification method
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static Set<String> defaultAlgorithms(TokenVerificationMethod verificationMethod) {
+		if (verificationMethod == TokenVerificationMethod.SECRET) {
+			return Set.of("HS256", "HS384", "HS512");
+		} else if (verificationMethod == TokenVerificationMethod.RSA_KEY) {
+			return Set.of("RS256", "RS384", "RS512", "PS256", "PS384", "PS512");
+		} else if (verificationMethod == TokenVerificationMethod.EC_KEY) {
+			return Set.of("ES256", "ES384", "ES512");
+		} else if (verificationMethod == TokenVerificationMethod.ED_KEY) {
+			return Set.of(SignaturePool.EDDSA);
+		} else {
+			return Set.of();
+		}
+	}
+
+	/**
+	 * Decodes the payload, without screening nor verifying the token
+	 *
+	 * @param token Compact token
+	 * @return The decoded payload
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static byte[] decodePayload(String token) {
+		int headerEnd = token.indexOf('.');
+		int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+		if (payloadEnd < 0) {
+			throw Rejections.INVALID_TOKEN;
+		}
+		return decode(token.getBytes(StandardCharsets.ISO_8859_1), headerEnd + 1, payloadEnd);
+	}
+
+	/**
+	 * Reads the <b>jti</b> of the payload, without screening nor verifying the
+	 * token, so its length, algorithm and dates are not checked
+	 *
+	 * @param token Compact token
+	 * @return The <b>jti</b>, or null if the token doesn't have it
+	 * @throws RuntimeException {@link Rejections#INVALID_TOKEN} when the payload
+	 *                          can't be decoded
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static String readId(String token) {
+		Values values = new Values();
+		parsePayload(decodePayload(token), values);
+		return values.id;
+	}
+
+	private static byte[] decode(byte[] ascii, int start, int end) {
+		ByteBuffer decoded;
+		try {
+			decoded = DECODER.decode(ByteBuffer.wrap(ascii, start, end - start));
+		} catch (IllegalArgumentException e) {
+			throw Rejections.INVALID_TOKEN;
+		}
+		byte[] retVal = decoded.array();
+		if (decoded.arrayOffset() != 0 || decoded.remaining() != retVal.length) {
+			retVal = Arrays.copyOfRange(retVal, decoded.arrayOffset() + decoded.position(),
+					decoded.arrayOffset() + decoded.limit());
+		}
+		return retVal;
+	}
+
+	private static void parseHeader(byte[] header, Values values) {
+		try (JsonParser parser = JSON_FACTORY.createParser(header)) {
+			checkObjectStart(parser);
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String name = parser.getCurrentName();
+				JsonToken value = parser.nextToken();
+				if ("alg".equals(name) && value == JsonToken.VALUE_STRING) {
+					values.algorithm = parser.getText();
+				} else if ("kid".equals(name) && value == JsonToken.VALUE_STRING) {
+					values.keyId = parser.getText();
+				} else {
+					parser.skipChildren();
+				}
+			}
+		} catch (IOException e) {
+			throw Rejections.INVALID_TOKEN;
+		}
+	}
+
+	private static void parsePayload(byte[] payload, Values values) {
+		try (JsonParser parser = JSON_FACTORY.createParser(payload)) {
+			checkObjectStart(parser);
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String name = parser.getCurrentName();
+				JsonToken value = parser.nextToken();
+				if ("exp".equals(name) && value.isNumeric()) {
+					values.expiration = toMillis(parser);
+				} else if ("nbf".equals(name) && value.isNumeric()) {
+					values.notBefore = toMillis(parser);
+				} else if ("iss".equals(name) && value == JsonToken.VALUE_STRING) {
+					values.issuer = parser.getText();
+				} else if ("jti".equals(name) && value == JsonToken.VALUE_STRING) {
+					values.id = parser.getText();
+				} else {
+					parser.skipChildren();
+				}
+			}
+		} catch (IOException e) {
+			throw Rejections.INVALID_TOKEN;
+		}
+	}
+
+	private static void checkObjectStart(JsonParser parser) throws IOException {
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			throw Rejections.INVALID_TOKEN;
+		}
+	}
+
+	private static long toMillis(JsonParser parser) throws IOException {
+		return parser.getCurrentToken() == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() * 1000L
+				: (long) (parser.getDoubleValue() * 1000D);
+	}
+
+	private static final class Values {
+		private String algorithm;
+		private String keyId;
+		private String issuer;
+		private String id;
+		private long expiration = Long.MAX_VALUE;
+		private long notBefore = Long.MIN_VALUE;
+	}
+}
@@ -0,0 +1,24 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+
+/**
+ * Creates the {@link TokenUser} from the JSON payload of an already verified
+ * token
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@FunctionalInterface
+public interface TokenUserDecoder {
+
+	/**
+	 *
+	 * @param payload The decoded, and already verified, JSON payload, must not be
+	 *                modified
+	 * @return The user
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TokenUser decode(byte[] payload);
+}
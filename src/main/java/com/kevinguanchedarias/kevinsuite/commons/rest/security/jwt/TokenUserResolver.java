@@ -0,0 +1,474 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.CommonRestException;
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.InvalidAuthorizationHeader;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.LazyTokenUser;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.Rejections;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenConfigLoader;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.KeySetProvider;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.ReloadingKeySetProvider;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.PemKeys;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.metrics.AuthenticationMetrics;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.revocation.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.io.Deserializer;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.util.Map;
+
+/**
+ * Resolves the verified {@link TokenUser} of a compact token, shared by the
+ * servlet filter and the reactive converter, so both apply the same
+ * screening, issuer routing, revocation, cache, coalescing and decoding<br />
+ * The work is split in {@link #prepare(String)}, which is cheap and never
+ * verifies the signature, and {@link #verify(PreparedToken)}, so callers can
+ * verify the signature in other thread<br />
+ * Override {@link #parseClaims(String)} and {@link #toTokenUser(Claims)} to
+ * customize the verification and the mapping
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class TokenUserResolver {
+
+	@Getter
+	@Setter
+	private TokenConfigLoader tokenConfigLoader;
+
+	/**
+	 * When not null, already verified tokens are taken from this cache
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	@Setter
+	private VerifiedTokenCache verifiedTokenCache;
+
+	/**
+	 * When not null, tokens are screened before verifying their signature
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	@Setter
+	private TokenScreener tokenScreener;
+
+	/**
+	 * When not null, the user is created by this decoder from the token payload,
+	 * instead of from the claims map, when null, the
+	 * {@link TokenConfigLoader#getTokenUserDecoder()} is used by
+	 * {@link #rebuildVerifier()}
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	@Setter
+	private TokenUserDecoder tokenUserDecoder;
+
+	/**
+	 * When not null, each token is verified by the verifier of its issuer,
+	 * selected by the <b>kid</b> or the <b>iss</b>
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	private IssuerRegistry issuerRegistry;
+
+	/**
+	 * When not null, tokens whose <b>jti</b> or digest have been revoked are
+	 * rejected, before looking the cache, when there is no
+	 * {@link TokenScreener} nor {@link IssuerRegistry}, only the <b>jti</b> is
+	 * read from the payload, see {@link TokenScreener#readId(String)}
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	private TokenRevocationList tokenRevocationList;
+
+	/**
+	 * When not null, concurrent verifications of the same token wait for a
+	 * single verification
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	@Setter
+	private VerificationCoalescer verificationCoalescer;
+
+	/**
+	 * When true, the user is a {@link LazyTokenUser}, when there is no
+	 * {@link TokenUserDecoder}, a {@link StreamingTokenUserDecoder} is used
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	@Setter
+	private boolean lazyTokenUser = false;
+
+	/**
+	 * When true, malformed tokens are rejected with
+	 * {@link Rejections#INVALID_TOKEN}
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	@Setter
+	private boolean lightweightRejections = false;
+
+	/**
+	 * When true, HMAC and RSA tokens are verified with reusable instances, see
+	 * {@link JwtVerifier}, set it before {@link #rebuildVerifier()}
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	@Setter
+	private boolean pooledCrypto = false;
+
+	/**
+	 * When not null, records the latency of the verification and the mapping
+	 *
+	 * @since 0.5.0
+	 */
+	@Getter
+	@Setter
+	private AuthenticationMetrics metrics;
+
+	private volatile JwtVerifier jwtVerifier;
+	private KeySetProvider listenedKeySetProvider;
+
+	public TokenUserResolver() {
+		// Loader set later
+	}
+
+	public TokenUserResolver(TokenConfigLoader tokenConfigLoader) {
+		this.tokenConfigLoader = tokenConfigLoader;
+	}
+
+	/**
+	 * Reloads the key material, and builds a new {@link JwtVerifier} from the
+	 * current values of the {@link TokenConfigLoader}, tokens being verified
+	 * keep using the previous verifier
+	 *
+	 * @throws CommonRestException When the public key can't be read
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public synchronized void rebuildVerifier() {
+		if (tokenUserDecoder == null) {
+			tokenUserDecoder = tokenConfigLoader.getTokenUserDecoder();
+		}
+		if (tokenUserDecoder == null && lazyTokenUser) {
+			tokenUserDecoder = new StreamingTokenUserDecoder();
+		}
+		KeySetProvider keySetProvider = tokenConfigLoader.getKeySetProvider();
+		Deserializer<Map<String, ?>> deserializer = tokenUserDecoder == null ? null
+				: ShallowClaimsDeserializer.INSTANCE;
+		if (keySetProvider == null) {
+			jwtVerifier = new JwtVerifier(tokenConfigLoader,
+					JwtVerifier.singleKeySet(tokenConfigLoader, readPublicKeyIfRequired()), deserializer,
+					pooledCrypto);
+		} else {
+			if (keySetProvider instanceof ReloadingKeySetProvider) {
+				((ReloadingKeySetProvider) keySetProvider).start();
+			}
+			jwtVerifier = new JwtVerifier(tokenConfigLoader, keySetProvider, deserializer, pooledCrypto);
+			if (keySetProvider != listenedKeySetProvider) {
+				keySetProvider.addKeySetChangeListener(keySet -> onKeySetChange());
+				listenedKeySetProvider = keySetProvider;
+			}
+		}
+		clearVerifiedTokenCache();
+		if (metrics != null) {
+			metrics.bindVerifiedTokenCache(verifiedTokenCache);
+			metrics.bindKeySetProvider(keySetProvider);
+		}
+	}
+
+	/**
+	 *
+	 * @return The verifier built by {@link #rebuildVerifier()}, or null if it
+	 *         has not been invoked
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public JwtVerifier getJwtVerifier() {
+		return jwtVerifier;
+	}
+
+	/**
+	 *
+	 * @return The verifier, built on the first invocation if required
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public JwtVerifier findJwtVerifier() {
+		JwtVerifier verifier = jwtVerifier;
+		if (verifier == null) {
+			synchronized (this) {
+				if (jwtVerifier == null) {
+					rebuildVerifier();
+				}
+				verifier = jwtVerifier;
+			}
+		}
+		return verifier;
+	}
+
+	/**
+	 *
+	 * @param issuerRegistry The issuers, the verified token cache is cleared
+	 *                       when their key sets change
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setIssuerRegistry(IssuerRegistry issuerRegistry) {
+		this.issuerRegistry = issuerRegistry;
+		if (issuerRegistry != null) {
+			issuerRegistry.addKeySetChangeListener(keySet -> onKeySetChange());
+		}
+		clearVerifiedTokenCache();
+	}
+
+	/**
+	 *
+	 * @param tokenRevocationList The revoked tokens, the verified token cache is
+	 *                            cleared when tokens are revoked
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setTokenRevocationList(TokenRevocationList tokenRevocationList) {
+		this.tokenRevocationList = tokenRevocationList;
+		if (tokenRevocationList != null) {
+			tokenRevocationList.addRevocationListener(this::clearVerifiedTokenCache);
+		}
+		clearVerifiedTokenCache();
+	}
+
+	/**
+	 * Resolves the user in the calling thread
+	 *
+	 * @param token Compact token
+	 * @return The verified user
+	 * @throws RuntimeException When the token is rejected
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TokenUser resolve(String token) {
+		PreparedToken preparedToken = prepare(token);
+		return preparedToken.cachedUser == null ? verify(preparedToken) : preparedToken.cachedUser;
+	}
+
+	/**
+	 * Screens the token, routes it to its issuer, checks the revocation, and
+	 * looks the cache, without verifying the signature
+	 *
+	 * @param token Compact token
+	 * @throws RuntimeException When the token is rejected
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public PreparedToken prepare(String token) {
+		ScreenedToken screenedToken = tokenScreener == null ? null : tokenScreener.screen(token);
+		IssuerRegistry.Issuer issuer = null;
+		if (issuerRegistry != null) {
+			if (screenedToken == null) {
+				screenedToken = issuerRegistry.screen(token);
+			}
+			issuer = issuerRegistry.route(screenedToken);
+		}
+		String tokenId = null;
+		if (tokenRevocationList != null) {
+			tokenId = screenedToken == null ? TokenScreener.readId(token) : screenedToken.getId();
+		}
+		TokenDigest digest = verifiedTokenCache == null && tokenRevocationList == null ? null
+				: TokenDigest.of(token);
+		if (isRevoked(tokenId, digest)) {
+			throw Rejections.TOKEN_REVOKED;
+		}
+		TokenUser cachedUser = verifiedTokenCache == null ? null : verifiedTokenCache.get(digest);
+		return new PreparedToken(token, screenedToken, tokenId, issuer, digest, cachedUser);
+	}
+
+	/**
+	 * Verifies the signature of a token not found in the cache, and creates its
+	 * user
+	 *
+	 * @throws RuntimeException When the token is rejected
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TokenUser verify(PreparedToken preparedToken) {
+		if (verificationCoalescer != null) {
+			return preparedToken.digest == null
+					? verificationCoalescer.verify(preparedToken.token, () -> doVerify(preparedToken))
+					: verificationCoalescer.verify(preparedToken.digest, () -> doVerify(preparedToken));
+		}
+		return doVerify(preparedToken);
+	}
+
+	/**
+	 * Verifies the token with the verifier of the {@link TokenConfigLoader},
+	 * used when there is no {@link IssuerRegistry}
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected Claims parseClaims(String token) {
+		return findJwtVerifier().parseClaims(token);
+	}
+
+	/**
+	 * Maps the claims of an already verified token to the user, used when there
+	 * is no {@link TokenUserDecoder}
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected TokenUser toTokenUser(Claims body) {
+		return fromDataClaim(body);
+	}
+
+	/**
+	 *
+	 * @return The user defined by the <b>data</b> claim, with its <b>id</b>,
+	 *         <b>username</b> and <b>email</b>
+	 * @throws RuntimeException {@link Rejections#INVALID_TOKEN} when the claim
+	 *                          is missing
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	@SuppressWarnings("unchecked")
+	public static TokenUser fromDataClaim(Claims body) {
+		Object data = body.get("data");
+		if (!(data instanceof Map)) {
+			throw Rejections.INVALID_TOKEN;
+		}
+		Map<String, Object> userData = (Map<String, Object>) data;
+		TokenUser user = new TokenUser();
+		user.setId((Number) userData.get("id"));
+		user.setUsername((String) userData.get("username"));
+		user.setEmail((String) userData.get("email"));
+		return user;
+	}
+
+	private TokenUser doVerify(PreparedToken preparedToken) {
+		String token = preparedToken.token;
+		ScreenedToken screenedToken = preparedToken.screenedToken;
+		IssuerRegistry.Issuer issuer = preparedToken.issuer;
+		TokenUser user;
+		try {
+			long verificationStart = metrics == null ? 0L : System.nanoTime();
+			Claims body = issuer == null ? parseClaims(token) : issuer.getJwtVerifier().parseClaims(token);
+			if (issuer != null && !issuer.acceptsIssuerClaim(body.getIssuer())) {
+				throw Rejections.UNKNOWN_ISSUER;
+			}
+			long mappingStart = metrics == null ? 0L : System.nanoTime();
+			TokenUserDecoder decoder = issuer == null || issuer.getTokenUserDecoder() == null ? tokenUserDecoder
+					: issuer.getTokenUserDecoder();
+			if (decoder == null) {
+				user = toTokenUser(body);
+			} else if (lazyTokenUser) {
+				user = screenedToken == null ? new LazyTokenUser(token, decoder)
+						: new LazyTokenUser(screenedToken.getPayload(), decoder);
+			} else {
+				user = decoder.decode(screenedToken == null ? TokenScreener.decodePayload(token)
+						: screenedToken.getPayload());
+			}
+			if (metrics != null) {
+				metrics.recordVerification(mappingStart - verificationStart);
+				metrics.recordMapping(System.nanoTime() - mappingStart);
+			}
+			if (preparedToken.digest != null && verifiedTokenCache != null) {
+				verifiedTokenCache.put(preparedToken.digest, user, body.getExpiration());
+				if (isRevoked(preparedToken.tokenId, preparedToken.digest)) {
+					verifiedTokenCache.remove(preparedToken.digest);
+					throw Rejections.TOKEN_REVOKED;
+				}
+			}
+		} catch (MalformedJwtException e) {
+			if (lightweightRejections) {
+				throw Rejections.INVALID_TOKEN;
+			}
+			throw new InvalidAuthorizationHeader(e.getMessage(), e);
+		}
+		return user;
+	}
+
+	/**
+	 * The revocation listener clears the cache after publishing the revoked
+	 * tokens, so checking again after a put detects the tokens revoked while
+	 * they were being verified
+	 */
+	private boolean isRevoked(String tokenId, TokenDigest digest) {
+		return tokenRevocationList != null && tokenRevocationList.isRevoked(tokenId, digest);
+	}
+
+	private PublicKey readPublicKeyIfRequired() {
+		TokenVerificationMethod verificationMethod = tokenConfigLoader.getVerificationMethod();
+		if (!verificationMethod.usesKeyPair()) {
+			return null;
+		}
+		try {
+			return PemKeys.readPublicKey(PemKeys.keyFactory(verificationMethod, tokenConfigLoader.getCryptoProvider()),
+					tokenConfigLoader.getPublicKey());
+		} catch (GeneralSecurityException | IOException e) {
+			throw new CommonRestException("Couldn't read the public key " + tokenConfigLoader.getPublicKey(), e);
+		}
+	}
+
+	private void onKeySetChange() {
+		clearVerifiedTokenCache();
+		if (metrics != null) {
+			metrics.recordKeySetChange();
+		}
+	}
+
+	private void clearVerifiedTokenCache() {
+		if (verifiedTokenCache != null) {
+			verifiedTokenCache.clear();
+		}
+	}
+
+	/**
+	 * Outcome of {@link TokenUserResolver#prepare(String)}
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static final class PreparedToken {
+		private final String token;
+		private final ScreenedToken screenedToken;
+		private final String tokenId;
+		private final IssuerRegistry.Issuer issuer;
+		private final TokenDigest digest;
+		private final TokenUser cachedUser;
+
+		private PreparedToken(String token, ScreenedToken screenedToken, String tokenId,
+				IssuerRegistry.Issuer issuer, TokenDigest digest, TokenUser cachedUser) {
+			this.token = token;
+			this.screenedToken = screenedToken;
+			this.tokenId = tokenId;
+			this.issuer = issuer;
+			this.digest = digest;
+			this.cachedUser = cachedUser;
+		}
+
+		/**
+		 *
+		 * @return The user of the cache, or null if the token must be verified
+		 * @since 0.5.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		public TokenUser getCachedUser() {
+			return cachedUser;
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates the concurrent verifications of the same token, the first
+ * thread verifies it, while the others wait for its outcome, keyed by the
+ * {@link TokenDigest}, or by the token itself<br />
+ * Waiting threads receive their own {@link TokenUser#snapshot()} of a copy
+ * published by the first thread, never the user it returns, or the same
+ * exception thrown by the verification<br />
+ * Waiting parks the thread, without holding monitors, so virtual threads are
+ * not pinned, without contention, it costs a map lookup, an insertion and a
+ * removal
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class VerificationCoalescer {
+	private final ConcurrentHashMap<Object, CompletableFuture<TokenUser>> inFlight = new ConcurrentHashMap<>();
+	private final LongAdder coalescedCount = new LongAdder();
+
+	/**
+	 *
+	 * @param digest       The digest of the token
+	 * @param verification Verifies the token and creates the user, invoked
+	 *                     only if no other thread is verifying the same token
+	 * @return The user created by this thread, or a copy of the user created by
+	 *         the thread that was already verifying it
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TokenUser verify(TokenDigest digest, Supplier<TokenUser> verification) {
+		return verifyOnce(digest, verification);
+	}
+
+	/**
+	 * Same as {@link #verify(TokenDigest, Supplier)}, keyed by the token, so
+	 * its digest doesn't have to be computed
+	 *
+	 * @param token        Compact token
+	 * @param verification Verifies the token and creates the user, invoked
+	 *                     only if no other thread is verifying the same token
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TokenUser verify(String token, Supplier<TokenUser> verification) {
+		return verifyOnce(token, verification);
+	}
+
+	/**
+	 *
+	 * @return Number of verifications which waited for the outcome of another
+	 *         thread
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getCoalescedCount() {
+		return coalescedCount.sum();
+	}
+
+	/**
+	 *
+	 * @return Number of tokens being verified right now
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int inFlightCount() {
+		return inFlight.size();
+	}
+
+	private TokenUser verifyOnce(Object key, Supplier<TokenUser> verification) {
+		CompletableFuture<TokenUser> existing = inFlight.get(key);
+		if (existing == null) {
+			CompletableFuture<TokenUser> own = new CompletableFuture<>();
+			existing = inFlight.putIfAbsent(key, own);
+			if (existing == null) {
+				return lead(key, own, verification);
+			}
+		}
+		coalescedCount.increment();
+		return awaitSnapshot(existing);
+	}
+
+	private TokenUser lead(Object key, CompletableFuture<TokenUser> own, Supplier<TokenUser> verification) {
+		try {
+			TokenUser user = verification.get();
+			own.complete(user == null ? null : user.snapshot());
+			return user;
+		} catch (RuntimeException | Error e) {
+			own.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, own);
+		}
+	}
+
+	private static TokenUser awaitSnapshot(CompletableFuture<TokenUser> verification) {
+		TokenUser user;
+		try {
+			user = verification.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		}
+		return user == null ? null : user.snapshot();
+	}
+}
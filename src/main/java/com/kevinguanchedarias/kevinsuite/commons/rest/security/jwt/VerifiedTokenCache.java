@@ -0,0 +1,209 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size bounded cache of already verified tokens, keyed by the
+ * {@link TokenDigest} of the token<br />
+ * Stores a snapshot of the {@link TokenUser}, and returns a new copy on each
+ * hit, so callers can modify the returned user<br />
+ * Entries are evicted using LRU per segment, and never outlive the
+ * <b>exp</b> of the token
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class VerifiedTokenCache {
+	private static final int MAX_SEGMENTS = 16;
+	private static final Duration DEFAULT_MAX_TIME_TO_LIVE = Duration.ofMinutes(15);
+
+	private final Segment[] segments;
+	private final int segmentMask;
+	private final long maxTimeToLiveMillis;
+	private final Clock clock;
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+
+	/**
+	 *
+	 * @param maximumSize Max number of tokens to keep
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public VerifiedTokenCache(int maximumSize) {
+		this(maximumSize, DEFAULT_MAX_TIME_TO_LIVE);
+	}
+
+	/**
+	 *
+	 * @param maximumSize    Max number of tokens to keep
+	 * @param maxTimeToLive Max time an entry is kept, even if the token expires
+	 *                       later, or has no <b>exp</b> claim
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public VerifiedTokenCache(int maximumSize, Duration maxTimeToLive) {
+		this(maximumSize, maxTimeToLive, Clock.systemUTC());
+	}
+
+	VerifiedTokenCache(int maximumSize, Duration maxTimeToLive, Clock clock) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("maximumSize must be positive");
+		}
+		int segmentCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maximumSize));
+		int segmentCapacity = (maximumSize + segmentCount - 1) / segmentCount;
+		segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			segments[i] = new Segment(segmentCapacity);
+		}
+		segmentMask = segmentCount - 1;
+		maxTimeToLiveMillis = maxTimeToLive.toMillis();
+		this.clock = clock;
+	}
+
+	/**
+	 *
+	 * @param digest Digest of the token
+	 * @return A copy of the cached user, or null if the token is not cached, or
+	 *         has expired
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TokenUser get(TokenDigest digest) {
+		Segment segment = segmentFor(digest);
+		CachedUser cached;
+		synchronized (segment) {
+			cached = segment.get(digest);
+			if (cached != null && cached.expiresAt <= clock.millis()) {
+				segment.remove(digest);
+				evictionCount.increment();
+				cached = null;
+			}
+		}
+		if (cached == null) {
+			missCount.increment();
+			return null;
+		}
+		hitCount.increment();
+		return cached.user.snapshot();
+	}
+
+	/**
+	 *
+	 * @param digest     Digest of the token
+	 * @param user       Already verified user, a snapshot is stored, so the
+	 *                   caller can keep modifying it
+	 * @param expiration The <b>exp</b> of the token, may be null
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void put(TokenDigest digest, TokenUser user, Date expiration) {
+		long now = clock.millis();
+		long expiresAt = now + maxTimeToLiveMillis;
+		if (expiration != null) {
+			expiresAt = Math.min(expiresAt, expiration.getTime());
+		}
+		if (expiresAt <= now) {
+			return;
+		}
+		CachedUser cached = new CachedUser(user.snapshot(), expiresAt);
+		Segment segment = segmentFor(digest);
+		synchronized (segment) {
+			segment.put(digest, cached);
+		}
+	}
+
+	/**
+	 * Removes the entry of a token, if it's cached
+	 *
+	 * @param digest Digest of the token
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void remove(TokenDigest digest) {
+		Segment segment = segmentFor(digest);
+		synchronized (segment) {
+			segment.remove(digest);
+		}
+	}
+
+	/**
+	 * Removes all the entries, for example, because the verification keys have
+	 * changed
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void clear() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictionCount.sum();
+	}
+
+	private Segment segmentFor(TokenDigest digest) {
+		int hash = digest.hashCode();
+		return segments[(hash ^ (hash >>> 16)) & segmentMask];
+	}
+
+	private static final class CachedUser {
+		private final TokenUser user;
+		private final long expiresAt;
+
+		private CachedUser(TokenUser user, long expiresAt) {
+			this.user = user;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	private final class Segment extends LinkedHashMap<TokenDigest, CachedUser> {
+		private static final long serialVersionUID = 6012437512903398811L;
+
+		private final int capacity;
+
+		private Segment(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<TokenDigest, CachedUser> eldest) {
+			if (size() > capacity) {
+				evictionCount.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.key;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Loaded only when {@link CryptoProvider#BOUNCY_CASTLE} is used, so
+ * BouncyCastle is not required otherwise
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+final class BouncyCastleHolder {
+	private static final BouncyCastleProvider PROVIDER = new BouncyCastleProvider();
+
+	private BouncyCastleHolder() {
+		// Utility class
+	}
+
+	static KeyFactory keyFactory(String algorithm) throws NoSuchAlgorithmException {
+		return KeyFactory.getInstance(algorithm, PROVIDER);
+	}
+}
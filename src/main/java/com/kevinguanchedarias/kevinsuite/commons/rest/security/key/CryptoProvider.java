@@ -0,0 +1,47 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.key;
+
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Defines which JCA provider parses the keys, see
+ * {@link com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenConfigLoader#getCryptoProvider()}
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public enum CryptoProvider {
+	/**
+	 * The providers of the JDK, SunRsaSign and SunJCE
+	 *
+	 * @since 0.5.0
+	 */
+	JDK {
+		@Override
+		public KeyFactory keyFactory(String algorithm) throws NoSuchAlgorithmException {
+			return KeyFactory.getInstance(algorithm);
+		}
+	},
+
+	/**
+	 * BouncyCastle, used without registering it in {@link java.security.Security},
+	 * so the provider resolution of the JVM doesn't change, requires
+	 * <b>bcprov-jdk18on</b> in the classpath
+	 *
+	 * @since 0.5.0
+	 */
+	BOUNCY_CASTLE {
+		@Override
+		public KeyFactory keyFactory(String algorithm) throws NoSuchAlgorithmException {
+			return BouncyCastleHolder.keyFactory(algorithm);
+		}
+	};
+
+	/**
+	 *
+	 * @param algorithm For example <b>RSA</b>
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public abstract KeyFactory keyFactory(String algorithm) throws NoSuchAlgorithmException;
+}
@@ -0,0 +1,33 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.key;
+
+import java.util.function.Consumer;
+
+/**
+ * Gives the current {@link VerificationKeySet}, invoked for each verified
+ * token, so it must not block
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@FunctionalInterface
+public interface KeySetProvider {
+
+	/**
+	 *
+	 * @return The current key set
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public VerificationKeySet getKeySet();
+
+	/**
+	 * Registers a listener invoked after the key set has changed, by default
+	 * the key set never changes
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public default void addKeySetChangeListener(Consumer<VerificationKeySet> listener) {
+		// Static key sets never change
+	}
+}
@@ -0,0 +1,22 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.key;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+
+/**
+ * Loads the keys from some storage, used by {@link ReloadingKeySetProvider}
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@FunctionalInterface
+public interface KeySetSource {
+
+	/**
+	 *
+	 * @return A new snapshot of the keys
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public VerificationKeySet load() throws IOException, GeneralSecurityException;
+}
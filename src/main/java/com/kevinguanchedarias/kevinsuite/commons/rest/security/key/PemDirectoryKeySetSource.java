@@ -0,0 +1,88 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.key;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Loads the public keys stored as <b>&lt;kid&gt;.pem</b> files in a
+ * directory<br />
+ * To rotate the keys, add the new file, start signing with the new kid, and
+ * remove the old file once the tokens signed with it have expired
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class PemDirectoryKeySetSource implements KeySetSource {
+	private static final String EXTENSION = ".pem";
+
+	private final Path directory;
+	private final String defaultKeyId;
+	private final CryptoProvider cryptoProvider;
+	private final TokenVerificationMethod verificationMethod;
+
+	/**
+	 *
+	 * @param directory    Directory containing the public keys
+	 * @param defaultKeyId kid of the key used for tokens without kid, may be null
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public PemDirectoryKeySetSource(Path directory, String defaultKeyId) {
+		this(directory, defaultKeyId, CryptoProvider.JDK);
+	}
+
+	/**
+	 *
+	 * @param directory      Directory containing the public keys
+	 * @param defaultKeyId   kid of the key used for tokens without kid, may be
+	 *                       null
+	 * @param cryptoProvider Provider used to parse the keys
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public PemDirectoryKeySetSource(Path directory, String defaultKeyId, CryptoProvider cryptoProvider) {
+		this(directory, defaultKeyId, cryptoProvider, TokenVerificationMethod.RSA_KEY);
+	}
+
+	/**
+	 *
+	 * @param directory          Directory containing the public keys
+	 * @param defaultKeyId       kid of the key used for tokens without kid, may
+	 *                           be null
+	 * @param cryptoProvider     Provider used to parse the keys
+	 * @param verificationMethod Defines the type of the keys, for example
+	 *                           {@link TokenVerificationMethod#EC_KEY}
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public PemDirectoryKeySetSource(Path directory, String defaultKeyId, CryptoProvider cryptoProvider,
+			TokenVerificationMethod verificationMethod) {
+		this.directory = directory;
+		this.defaultKeyId = defaultKeyId;
+		this.cryptoProvider = cryptoProvider;
+		this.verificationMethod = verificationMethod;
+	}
+
+	@Override
+	public VerificationKeySet load() throws IOException, GeneralSecurityException {
+		KeyFactory keyFactory = PemKeys.keyFactory(verificationMethod, cryptoProvider);
+		Map<String, PublicKey> keys = new TreeMap<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+			for (Path file : files) {
+				String filename = file.getFileName().toString();
+				String keyId = filename.substring(0, filename.length() - EXTENSION.length());
+				keys.put(keyId, PemKeys.readPublicKey(keyFactory, file.toString()));
+			}
+		}
+		return VerificationKeySet.of(keys, defaultKeyId);
+	}
+}
@@ -0,0 +1,81 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.key;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.InvalidVerificationMethod;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.pojo.PemFile;
+
+import java.io.IOException;
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+
+/**
+ * Reads keys from PEM files
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class PemKeys {
+
+	private PemKeys() {
+		// Utility class
+	}
+
+	/**
+	 *
+	 * @return A RSA key factory of the JDK provider
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static KeyFactory rsaKeyFactory() throws NoSuchAlgorithmException {
+		return rsaKeyFactory(CryptoProvider.JDK);
+	}
+
+	/**
+	 *
+	 * @param cryptoProvider The provider, null to use the JDK one
+	 * @return A RSA key factory
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static KeyFactory rsaKeyFactory(CryptoProvider cryptoProvider) throws NoSuchAlgorithmException {
+		return (cryptoProvider == null ? CryptoProvider.JDK : cryptoProvider).keyFactory("RSA");
+	}
+
+	/**
+	 *
+	 * @param verificationMethod Method using a key pair
+	 * @param cryptoProvider     The provider, null to use the JDK one
+	 * @return A key factory for the keys of the method, for example <b>EC</b>
+	 *         for {@link TokenVerificationMethod#EC_KEY}
+	 * @throws InvalidVerificationMethod When the method doesn't use a key pair
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static KeyFactory keyFactory(TokenVerificationMethod verificationMethod, CryptoProvider cryptoProvider)
+			throws NoSuchAlgorithmException {
+		if (!verificationMethod.usesKeyPair()) {
+			throw new InvalidVerificationMethod("No keys for method: " + verificationMethod);
+		}
+		return (cryptoProvider == null ? CryptoProvider.JDK : cryptoProvider)
+				.keyFactory(verificationMethod.getKeyAlgorithm());
+	}
+
+	public static PrivateKey readPrivateKey(KeyFactory factory, String filename)
+			throws InvalidKeySpecException, IOException {
+		byte[] content = new PemFile(filename).getContent();
+		PKCS8EncodedKeySpec privKeySpec = new PKCS8EncodedKeySpec(content);
+		return factory.generatePrivate(privKeySpec);
+	}
+
+	public static PublicKey readPublicKey(KeyFactory factory, String filename)
+			throws InvalidKeySpecException, IOException {
+		byte[] content = new PemFile(filename).getContent();
+		X509EncodedKeySpec pubKeySpec = new X509EncodedKeySpec(content);
+		return factory.generatePublic(pubKeySpec);
+	}
+}
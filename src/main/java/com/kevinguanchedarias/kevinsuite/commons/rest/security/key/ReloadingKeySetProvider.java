@@ -0,0 +1,118 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.key;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.CommonRestException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Periodically reloads the keys from a {@link KeySetSource} in a background
+ * thread, and swaps the snapshot when they have changed<br />
+ * Reading the current key set never takes a lock, if a reload fails, the
+ * previous key set is kept<br />
+ * It's started by the verifiers it's bound to, or by the first
+ * {@link #getKeySet()}
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@Slf4j
+public class ReloadingKeySetProvider implements KeySetProvider, Closeable {
+	private final KeySetSource source;
+	private final Duration reloadInterval;
+	private final List<Consumer<VerificationKeySet>> listeners = new CopyOnWriteArrayList<>();
+	private volatile VerificationKeySet keySet;
+	private ScheduledExecutorService executor;
+
+	public ReloadingKeySetProvider(KeySetSource source, Duration reloadInterval) {
+		this.source = source;
+		this.reloadInterval = reloadInterval;
+	}
+
+	/**
+	 * Loads the keys, and starts the background reloads, does nothing if they
+	 * were already started
+	 *
+	 * @throws CommonRestException When the keys can't be loaded
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	@PostConstruct
+	public synchronized void start() {
+		if (executor == null) {
+			reload();
+			executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "kevinsuite-key-set-reloader");
+				thread.setDaemon(true);
+				return thread;
+			});
+			long intervalMillis = reloadInterval.toMillis();
+			executor.scheduleWithFixedDelay(this::reloadIfPossible, intervalMillis, intervalMillis,
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Loads the keys now, listeners are invoked if they have changed
+	 *
+	 * @throws CommonRestException When the keys can't be loaded
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public synchronized void reload() {
+		VerificationKeySet loaded;
+		try {
+			loaded = source.load();
+		} catch (IOException | GeneralSecurityException e) {
+			throw new CommonRestException("Couldn't load the key set", e);
+		}
+		if (!loaded.equals(keySet)) {
+			log.debug("Key set changed, now has {} keys", loaded.size());
+			keySet = loaded;
+			listeners.forEach(listener -> listener.accept(loaded));
+		}
+	}
+
+	@Override
+	public VerificationKeySet getKeySet() {
+		VerificationKeySet current = keySet;
+		if (current == null) {
+			start();
+			current = keySet;
+		}
+		return current;
+	}
+
+	@Override
+	public void addKeySetChangeListener(Consumer<VerificationKeySet> listener) {
+		listeners.add(listener);
+	}
+
+	@Override
+	@PreDestroy
+	public synchronized void close() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	private void reloadIfPossible() {
+		try {
+			reload();
+		} catch (RuntimeException e) {
+			log.warn("Couldn't reload the key set, will keep using the previous one", e);
+		}
+	}
+}
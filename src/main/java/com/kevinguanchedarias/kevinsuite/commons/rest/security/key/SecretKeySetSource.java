@@ -0,0 +1,52 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.key;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Key set made of string secrets, indexed by kid
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class SecretKeySetSource implements KeySetSource {
+	private final Supplier<Map<String, String>> secretsSupplier;
+	private final String defaultKeyId;
+
+	/**
+	 *
+	 * @param secretsSupplier Invoked on each load, returns the secrets by kid
+	 * @param defaultKeyId    kid of the secret used for tokens without kid, may
+	 *                        be null
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SecretKeySetSource(Supplier<Map<String, String>> secretsSupplier, String defaultKeyId) {
+		this.secretsSupplier = secretsSupplier;
+		this.defaultKeyId = defaultKeyId;
+	}
+
+	/**
+	 * Converts a string secret into a HMAC key, the same way the
+	 * <b>SECRET</b> verification method does
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static SecretKey toSecretKey(String secret) {
+		return new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), SignatureAlgorithm.HS256.getJcaName());
+	}
+
+	@Override
+	public VerificationKeySet load() {
+		Map<String, SecretKey> keys = new LinkedHashMap<>();
+		secretsSupplier.get().forEach((keyId, secret) -> keys.put(keyId, toSecretKey(secret)));
+		return VerificationKeySet.of(keys, defaultKeyId);
+	}
+}
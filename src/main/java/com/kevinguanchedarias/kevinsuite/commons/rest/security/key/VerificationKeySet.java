@@ -0,0 +1,86 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.key;
+
+import java.security.Key;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable snapshot of the keys that can verify tokens, selected by the
+ * <b>kid</b> header of the token
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class VerificationKeySet {
+	private final Map<String, Key> keys;
+	private final Key defaultKey;
+
+	private VerificationKeySet(Map<String, Key> keys, Key defaultKey) {
+		this.keys = keys;
+		this.defaultKey = defaultKey;
+	}
+
+	/**
+	 * Key set with a single key, used for all tokens, whatever the kid they have
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static VerificationKeySet single(Key key) {
+		return new VerificationKeySet(Collections.emptyMap(), key);
+	}
+
+	/**
+	 *
+	 * @param keys         Keys by kid
+	 * @param defaultKeyId kid of the key used for tokens without kid, may be
+	 *                     null, to reject such tokens
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static VerificationKeySet of(Map<String, ? extends Key> keys, String defaultKeyId) {
+		Map<String, Key> copy = Collections.unmodifiableMap(new LinkedHashMap<>(keys));
+		return new VerificationKeySet(copy, defaultKeyId == null ? null : copy.get(defaultKeyId));
+	}
+
+	/**
+	 *
+	 * @param keyId The kid of the token, may be null
+	 * @return The key, or null if there isn't any key for the kid
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public Key findKey(String keyId) {
+		if (keyId == null || keys.isEmpty()) {
+			return defaultKey;
+		}
+		return keys.get(keyId);
+	}
+
+	public Map<String, Key> getKeys() {
+		return keys;
+	}
+
+	public int size() {
+		return keys.isEmpty() && defaultKey != null ? 1 : keys.size();
+	}
+
+	@Override
+	public int hashCode() {
+		return keys.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof VerificationKeySet)) {
+			return false;
+		}
+		VerificationKeySet other = (VerificationKeySet) obj;
+		return keys.equals(other.keys) && Objects.equals(defaultKey, other.defaultKey);
+	}
+}
@@ -0,0 +1,122 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.metrics;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.VerifiedTokenCache;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.KeySetProvider;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Metrics of the
+ * {@link com.kevinguanchedarias.kevinsuite.commons.rest.security.JwtAuthenticationFilter},
+ * when the filter doesn't have metrics, it doesn't even read the clock
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class AuthenticationMetrics {
+	public static final String PREFIX = "kevinsuite.jwt.";
+	public static final String ACCEPTED = PREFIX + "accepted";
+	public static final String REJECTED = PREFIX + "rejected.";
+	public static final String EXTRACTION = PREFIX + "extraction";
+	public static final String VERIFICATION = PREFIX + "verification";
+	public static final String MAPPING = PREFIX + "mapping";
+	public static final String AUTHENTICATION_MANAGER = PREFIX + "authentication-manager";
+	public static final String CACHE = PREFIX + "cache.";
+	public static final String KEY_SET = PREFIX + "key-set.";
+
+	private final MetricsRegistry registry;
+	private final Counter accepted;
+	private final Map<Class<?>, Counter> rejected = new ConcurrentHashMap<>();
+	private final LatencyHistogram extraction;
+	private final LatencyHistogram verification;
+	private final LatencyHistogram mapping;
+	private final LatencyHistogram authenticationManager;
+	private final Counter keySetChanges;
+
+	public AuthenticationMetrics(MetricsRegistry registry) {
+		this.registry = registry;
+		accepted = registry.counter(ACCEPTED);
+		extraction = registry.histogram(EXTRACTION);
+		verification = registry.histogram(VERIFICATION);
+		mapping = registry.histogram(MAPPING);
+		authenticationManager = registry.histogram(AUTHENTICATION_MANAGER);
+		keySetChanges = registry.counter(KEY_SET + "changes");
+	}
+
+	public MetricsRegistry getRegistry() {
+		return registry;
+	}
+
+	public void recordAccepted() {
+		accepted.increment();
+	}
+
+	/**
+	 * Counts the rejection by the type of the exception, for example
+	 * <b>kevinsuite.jwt.rejected.JwtTokenExpired</b>
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void recordRejected(Throwable exception) {
+		Class<?> type = exception.getClass();
+		Counter counter = rejected.get(type);
+		if (counter == null) {
+			counter = rejected.computeIfAbsent(type, key -> registry.counter(REJECTED + key.getSimpleName()));
+		}
+		counter.increment();
+	}
+
+	public void recordExtraction(long nanos) {
+		extraction.record(nanos);
+	}
+
+	public void recordVerification(long nanos) {
+		verification.record(nanos);
+	}
+
+	public void recordMapping(long nanos) {
+		mapping.record(nanos);
+	}
+
+	public void recordAuthenticationManager(long nanos) {
+		authenticationManager.record(nanos);
+	}
+
+	public void recordKeySetChange() {
+		keySetChanges.increment();
+	}
+
+	/**
+	 * Exposes the hits, misses, evictions and size of the cache as gauges, or
+	 * removes them when the cache is null
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void bindVerifiedTokenCache(VerifiedTokenCache cache) {
+		if (cache == null) {
+			registry.gauge(CACHE + "hits", () -> 0L);
+			registry.gauge(CACHE + "misses", () -> 0L);
+			registry.gauge(CACHE + "evictions", () -> 0L);
+			registry.gauge(CACHE + "size", () -> 0L);
+		} else {
+			registry.gauge(CACHE + "hits", cache::getHitCount);
+			registry.gauge(CACHE + "misses", cache::getMissCount);
+			registry.gauge(CACHE + "evictions", cache::getEvictionCount);
+			registry.gauge(CACHE + "size", cache::size);
+		}
+	}
+
+	/**
+	 * Exposes the number of keys of the current key set as a gauge
+	 *
+	 * @param keySetProvider The provider, or null when a single key is used
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void bindKeySetProvider(KeySetProvider keySetProvider) {
+		registry.gauge(KEY_SET + "size", keySetProvider == null ? () -> 1L : () -> keySetProvider.getKeySet().size());
+	}
+}
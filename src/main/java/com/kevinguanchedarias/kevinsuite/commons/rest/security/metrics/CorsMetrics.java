@@ -0,0 +1,43 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.metrics;
+
+/**
+ * Metrics of the
+ * {@link com.kevinguanchedarias.kevinsuite.commons.rest.security.cors.CorsFilter}
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class CorsMetrics {
+	public static final String PREFIX = "kevinsuite.cors.";
+	public static final String ACCEPTED = PREFIX + "accepted";
+	public static final String REJECTED = PREFIX + "rejected";
+	public static final String PREFLIGHT = PREFIX + "preflight";
+
+	private final MetricsRegistry registry;
+	private final Counter accepted;
+	private final Counter rejected;
+	private final Counter preflight;
+
+	public CorsMetrics(MetricsRegistry registry) {
+		this.registry = registry;
+		accepted = registry.counter(ACCEPTED);
+		rejected = registry.counter(REJECTED);
+		preflight = registry.counter(PREFLIGHT);
+	}
+
+	public MetricsRegistry getRegistry() {
+		return registry;
+	}
+
+	public void recordAccepted() {
+		accepted.increment();
+	}
+
+	public void recordRejected() {
+		rejected.increment();
+	}
+
+	public void recordPreflight() {
+		preflight.increment();
+	}
+}
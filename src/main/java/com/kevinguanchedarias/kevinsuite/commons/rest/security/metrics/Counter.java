@@ -0,0 +1,29 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counter, updated by many threads without contention
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class Counter {
+	private final LongAdder value = new LongAdder();
+
+	public void increment() {
+		value.increment();
+	}
+
+	public void add(long amount) {
+		value.add(amount);
+	}
+
+	public long getCount() {
+		return value.sum();
+	}
+
+	public void reset() {
+		value.reset();
+	}
+}
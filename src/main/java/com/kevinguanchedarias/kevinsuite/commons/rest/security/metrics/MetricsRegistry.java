@@ -0,0 +1,90 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Named counters, histograms and gauges, without depending on a metrics
+ * library, export them with {@link #snapshot()}, or bind them to the metrics
+ * library of the application
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class MetricsRegistry {
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+	private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+	private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+	/**
+	 *
+	 * @return The counter with the name, created if it doesn't exist
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public Counter counter(String name) {
+		Counter counter = counters.get(name);
+		return counter == null ? counters.computeIfAbsent(name, key -> new Counter()) : counter;
+	}
+
+	/**
+	 *
+	 * @return The histogram with the name, created if it doesn't exist
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public LatencyHistogram histogram(String name) {
+		LatencyHistogram histogram = histograms.get(name);
+		return histogram == null ? histograms.computeIfAbsent(name, key -> new LatencyHistogram()) : histogram;
+	}
+
+	/**
+	 * Registers a value read when the metrics are exported, replaces the
+	 * previous gauge with the same name
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void gauge(String name, LongSupplier value) {
+		gauges.put(name, value);
+	}
+
+	public Map<String, Counter> getCounters() {
+		return Collections.unmodifiableMap(counters);
+	}
+
+	public Map<String, LatencyHistogram> getHistograms() {
+		return Collections.unmodifiableMap(histograms);
+	}
+
+	public Map<String, LongSupplier> getGauges() {
+		return Collections.unmodifiableMap(gauges);
+	}
+
+	/**
+	 * Reads the current values, the histograms are exported as
+	 * <b>name.count</b>, <b>name.mean</b>, <b>name.p50</b>, <b>name.p99</b>,
+	 * <b>name.p999</b> and <b>name.max</b>, in nanoseconds
+	 *
+	 * @return The values sorted by name
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public Map<String, Number> snapshot() {
+		Map<String, Number> retVal = new TreeMap<>();
+		counters.forEach((name, counter) -> retVal.put(name, counter.getCount()));
+		gauges.forEach((name, gauge) -> retVal.put(name, gauge.getAsLong()));
+		histograms.forEach((name, histogram) -> {
+			retVal.put(name + ".count", histogram.getCount());
+			retVal.put(name + ".mean", histogram.getMean());
+			retVal.put(name + ".p50", histogram.getValueAtPercentile(50));
+			retVal.put(name + ".p99", histogram.getValueAtPercentile(99));
+			retVal.put(name + ".p999", histogram.getValueAtPercentile(99.9));
+			retVal.put(name + ".max", histogram.getMax());
+		});
+		return retVal;
+	}
+}
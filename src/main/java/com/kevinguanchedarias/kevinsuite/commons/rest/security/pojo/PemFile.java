@@ -3,32 +3,64 @@
  */
 package com.kevinguanchedarias.kevinsuite.commons.rest.security.pojo;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-
-import org.bouncycastle.util.io.pem.PemObject;
-import org.bouncycastle.util.io.pem.PemReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Base64;
 
 /**
+ * Reads the first PEM object of a file, without requiring BouncyCastle
  *
  * @since 0.2.0
  * @see https://www.txedo.com/blog/java-read-rsa-keys-pem-file/
  * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
  */
 public class PemFile {
-	private PemObject pemObject;
+	private static final String BEGIN = "-----BEGIN ";
+	private static final String END = "-----END ";
+	private static final String DASHES = "-----";
+
+	private String type;
+	private byte[] content;
 
 	public PemFile(String filename) throws IOException {
-		PemReader pemReader = new PemReader(new InputStreamReader(new FileInputStream(filename)));
+		String pem = new String(Files.readAllBytes(Paths.get(filename)), StandardCharsets.US_ASCII);
+		int begin = pem.indexOf(BEGIN);
+		int typeEnd = begin < 0 ? -1 : pem.indexOf(DASHES, begin + BEGIN.length());
+		if (typeEnd < 0) {
+			throw new IOException("No PEM object found in " + filename);
+		}
+		type = pem.substring(begin + BEGIN.length(), typeEnd);
+		int contentStart = typeEnd + DASHES.length();
+		int end = pem.indexOf(END + type + DASHES, contentStart);
+		if (end < 0) {
+			throw new IOException(END + type + DASHES + " not found in " + filename);
+		}
 		try {
-			this.pemObject = pemReader.readPemObject();
-		} finally {
-			pemReader.close();
+			content = Base64.getMimeDecoder().decode(pem.substring(contentStart, end));
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Invalid PEM content in " + filename, e);
 		}
 	}
 
-	public PemObject getPemObject() {
-		return pemObject;
+	/**
+	 *
+	 * @return The type of the object, for example <b>PUBLIC KEY</b>
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 *
+	 * @return The decoded content
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public byte[] getContent() {
+		return content;
 	}
 }
@@ -0,0 +1,352 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.ratelimit;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per principal, keyed by {@link TokenUser#getId()}, with the
+ * limits of the {@link RateLimitConfigLoader}<br />
+ * Buckets are packed into a single long, and stored in open addressing tables
+ * of primitive arrays, split in stripes, so millions of principals don't
+ * create objects, existing buckets are updated with a CAS, only inserting a
+ * new principal, or resizing, locks its stripe<br />
+ * Buckets not used for longer than the max idle time are forgotten by the
+ * periodic eviction, which is the same as a full bucket if the max idle time
+ * is longer than the time to refill the biggest limit
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@Slf4j
+public class PrincipalRateLimiter implements Closeable {
+	private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+	private static final int STRIPE_BITS = 6;
+	private static final int TOKEN_BITS = 24;
+	private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+	private static final long ONE_TOKEN = 1000L;
+	private static final long EMPTY_KEY = Long.MIN_VALUE;
+	private static final long MOVED = -1L;
+	private static final long RETRY = -1L;
+	private static final int MIN_TABLE_SIZE = 16;
+
+	private final RateLimitConfigLoader configLoader;
+	private final long maxIdleMillis;
+	private final LongSupplier clock;
+	private final long origin;
+	private final Stripe[] stripes = new Stripe[1 << STRIPE_BITS];
+	private ScheduledExecutorService executor;
+
+	/**
+	 * Creates a limiter which forgets the principals idle for 10 minutes
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public PrincipalRateLimiter(RateLimitConfigLoader configLoader) {
+		this(configLoader, Duration.ofMinutes(10));
+	}
+
+	public PrincipalRateLimiter(RateLimitConfigLoader configLoader, Duration maxIdle) {
+		this(configLoader, maxIdle, () -> System.nanoTime() / 1_000_000L);
+	}
+
+	PrincipalRateLimiter(RateLimitConfigLoader configLoader, Duration maxIdle, LongSupplier clock) {
+		this.configLoader = configLoader;
+		this.maxIdleMillis = maxIdle.toMillis();
+		this.clock = clock;
+		origin = clock.getAsLong();
+		for (int i = 0; i < stripes.length; i++) {
+			stripes[i] = new Stripe();
+		}
+	}
+
+	/**
+	 * Starts the background eviction of the idle principals
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	@PostConstruct
+	public synchronized void start() {
+		if (executor == null) {
+			executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "kevinsuite-rate-limit-evictor");
+				thread.setDaemon(true);
+				return thread;
+			});
+			long intervalMillis = Math.max(1_000L, maxIdleMillis / 2);
+			executor.scheduleWithFixedDelay(this::evictIdleIfPossible, intervalMillis, intervalMillis,
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Consumes a token of the user bucket
+	 *
+	 * @return 0 if the request is allowed, else the milliseconds to wait for the
+	 *         next token
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long tryAcquire(TokenUser user) {
+		RateLimit limit = configLoader.getRateLimit(user);
+		Number id = user.getId();
+		return limit == null || id == null ? 0L : tryAcquire(id.longValue(), limit);
+	}
+
+	/**
+	 *
+	 * @param id    The principal, {@link Long#MIN_VALUE} shares the bucket with
+	 *              the next value
+	 * @param limit The limit of the principal
+	 * @return 0 if the request is allowed, else the milliseconds to wait for the
+	 *         next token
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long tryAcquire(long id, RateLimit limit) {
+		long key = id == EMPTY_KEY ? EMPTY_KEY + 1 : id;
+		long hash = mix(key);
+		Stripe stripe = stripes[(int) (hash >>> (Long.SIZE - STRIPE_BITS))];
+		long now = now();
+		for (;;) {
+			Table table = stripe.table;
+			int index = table.indexOf(key, (int) hash);
+			long result;
+			if (index < 0) {
+				result = stripe.insert(key, (int) hash, now, limit);
+			} else {
+				result = update(table, index, now, limit);
+			}
+			if (result != RETRY) {
+				return result;
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @return The number of principals with a bucket
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int size() {
+		int retVal = 0;
+		for (Stripe stripe : stripes) {
+			retVal += stripe.size;
+		}
+		return retVal;
+	}
+
+	/**
+	 * Forgets the principals idle for longer than the max idle time, stripes
+	 * without idle principals are not rebuilt
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void evictIdle() {
+		long now = now();
+		for (Stripe stripe : stripes) {
+			stripe.lock.lock();
+			try {
+				stripe.rebuild(now, false);
+			} finally {
+				stripe.lock.unlock();
+			}
+		}
+	}
+
+	@Override
+	@PreDestroy
+	public synchronized void close() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	private long update(Table table, int index, long now, RateLimit limit) {
+		long state = (long) SLOTS.getAcquire(table.states, index);
+		if (state == MOVED) {
+			table.awaitRebuild();
+			return RETRY;
+		}
+		long last = state >>> TOKEN_BITS;
+		long tokens = state & TOKEN_MASK;
+		long capacity = limit.getCapacityMillis();
+		double rate = limit.getTokensPerSecond();
+		long elapsed = now - last;
+		if (tokens >= capacity) {
+			tokens = capacity;
+			last = now;
+		} else if (elapsed > 0) {
+			long refill = (long) (elapsed * rate);
+			if (tokens + refill >= capacity) {
+				tokens = capacity;
+				last = now;
+			} else if (refill > 0) {
+				tokens += refill;
+				last += (long) (refill / rate);
+			}
+		}
+		if (tokens < ONE_TOKEN) {
+			return Math.max(1L, (long) Math.ceil((ONE_TOKEN - tokens) / rate));
+		}
+		long next = (last << TOKEN_BITS) | (tokens - ONE_TOKEN);
+		return SLOTS.compareAndSet(table.states, index, state, next) ? 0L : RETRY;
+	}
+
+	private long now() {
+		return Math.max(0L, clock.getAsLong() - origin);
+	}
+
+	private boolean isIdle(long state, long now) {
+		return now - (state >>> TOKEN_BITS) > maxIdleMillis;
+	}
+
+	private void evictIdleIfPossible() {
+		try {
+			evictIdle();
+		} catch (RuntimeException e) {
+			log.warn("Couldn't evict the idle rate limit buckets", e);
+		}
+	}
+
+	private static long mix(long key) {
+		long retVal = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+		retVal = (retVal ^ (retVal >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return retVal ^ (retVal >>> 33);
+	}
+
+	private static int tableSizeFor(int entries) {
+		int wanted = Math.max(MIN_TABLE_SIZE, entries * 2);
+		return Integer.highestOneBit(wanted - 1) << 1;
+	}
+
+	/**
+	 * Writes are done holding the lock, a new table is published when growing or
+	 * evicting, after marking the old slots as {@link #MOVED}, so updates to the
+	 * old table fail and retry against the new one
+	 */
+	private final class Stripe {
+		private final ReentrantLock lock = new ReentrantLock();
+		private volatile Table table = new Table(MIN_TABLE_SIZE, lock);
+		private volatile int size;
+
+		private long insert(long key, int hash, long now, RateLimit limit) {
+			lock.lock();
+			try {
+				Table current = table;
+				if (current.indexOf(key, hash) >= 0) {
+					return RETRY;
+				}
+				if (size + 1 > current.threshold) {
+					current = rebuild(now, true);
+				}
+				int index = current.freeIndex(hash);
+				SLOTS.setRelease(current.states, index, (now << TOKEN_BITS) | (limit.getCapacityMillis() - ONE_TOKEN));
+				SLOTS.setRelease(current.keys, index, key);
+				size++;
+				return 0L;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * Must be invoked holding the lock
+		 *
+		 * @param force When false, the table is kept if there are no idle entries
+		 */
+		private Table rebuild(long now, boolean force) {
+			Table current = table;
+			int evicted = 0;
+			for (int i = 0; i < current.keys.length; i++) {
+				if (current.keys[i] != EMPTY_KEY) {
+					long state = (long) SLOTS.getAcquire(current.states, i);
+					if (state != MOVED && isIdle(state, now)
+							&& SLOTS.compareAndSet(current.states, i, state, MOVED)) {
+						evicted++;
+					}
+				}
+			}
+			if (evicted == 0 && !force) {
+				return current;
+			}
+			int live = size - evicted;
+			Table rebuilt = new Table(tableSizeFor(live + 1), lock);
+			for (int i = 0; i < current.keys.length; i++) {
+				long key = current.keys[i];
+				if (key != EMPTY_KEY) {
+					long state = (long) SLOTS.getAndSet(current.states, i, MOVED);
+					if (state != MOVED) {
+						int index = rebuilt.freeIndex((int) mix(key));
+						rebuilt.keys[index] = key;
+						rebuilt.states[index] = state;
+					}
+				}
+			}
+			size = live;
+			table = rebuilt;
+			return rebuilt;
+		}
+	}
+
+	private static final class Table {
+		private final long[] keys;
+		private final long[] states;
+		private final int mask;
+		private final int threshold;
+		private final ReentrantLock lock;
+
+		private Table(int capacity, ReentrantLock lock) {
+			keys = new long[capacity];
+			Arrays.fill(keys, EMPTY_KEY);
+			states = new long[capacity];
+			mask = capacity - 1;
+			threshold = capacity / 4 * 3;
+			this.lock = lock;
+		}
+
+		private int indexOf(long key, int hash) {
+			for (int i = hash & mask;; i = (i + 1) & mask) {
+				long current = (long) SLOTS.getAcquire(keys, i);
+				if (current == key) {
+					return i;
+				} else if (current == EMPTY_KEY) {
+					return -1;
+				}
+			}
+		}
+
+		private int freeIndex(int hash) {
+			int i = hash & mask;
+			while (keys[i] != EMPTY_KEY) {
+				i = (i + 1) & mask;
+			}
+			return i;
+		}
+
+		/**
+		 * The rebuild holds the stripe lock until the new table is published
+		 */
+		private void awaitRebuild() {
+			lock.lock();
+			lock.unlock();
+		}
+	}
+}
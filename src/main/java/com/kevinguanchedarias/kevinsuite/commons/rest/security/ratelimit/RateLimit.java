@@ -0,0 +1,66 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.ratelimit;
+
+/**
+ * Token bucket limits of a principal, requests consume one token, and tokens
+ * are refilled continuously up to the capacity
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class RateLimit {
+	/**
+	 * Max supported capacity, as tokens are stored in 24 bits, in thousandths
+	 */
+	public static final int MAX_CAPACITY = 16_777;
+
+	private final int capacity;
+	private final double tokensPerSecond;
+	private final long capacityMillis;
+
+	/**
+	 *
+	 * @param capacity        Max number of requests in a burst, up to
+	 *                        {@link #MAX_CAPACITY}
+	 * @param tokensPerSecond Sustained requests per second
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public RateLimit(int capacity, double tokensPerSecond) {
+		if (capacity < 1 || capacity > MAX_CAPACITY || !(tokensPerSecond > 0)) {
+			throw new IllegalArgumentException(
+					"The capacity must be between 1 and " + MAX_CAPACITY + ", and the rate must be positive");
+		}
+		this.capacity = capacity;
+		this.tokensPerSecond = tokensPerSecond;
+		capacityMillis = capacity * 1000L;
+	}
+
+	/**
+	 *
+	 * @return A limit allowing bursts of <i>requests</i>
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static RateLimit perSecond(int requests) {
+		return new RateLimit(requests, requests);
+	}
+
+	public static RateLimit perMinute(int requests) {
+		return new RateLimit(requests, requests / 60D);
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public double getTokensPerSecond() {
+		return tokensPerSecond;
+	}
+
+	/**
+	 * Thousandths of a token, which is the unit used by the buckets
+	 */
+	long getCapacityMillis() {
+		return capacityMillis;
+	}
+}
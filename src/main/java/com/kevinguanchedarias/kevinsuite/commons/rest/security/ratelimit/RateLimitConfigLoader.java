@@ -0,0 +1,25 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.ratelimit;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+
+/**
+ * Defines the rate limit of each principal, used by
+ * {@link PrincipalRateLimiter}
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@FunctionalInterface
+public interface RateLimitConfigLoader {
+
+	/**
+	 * Invoked on each authenticated request, so it must be cheap, for example
+	 * return shared instances by the user roles
+	 *
+	 * @param user The authenticated user
+	 * @return The limit of the user, or null to not limit it
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public RateLimit getRateLimit(TokenUser user);
+}
@@ -0,0 +1,119 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.revocation;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.TokenDigest;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Changes applied at once by {@link TokenRevocationList#apply(RevocationDelta)},
+ * requests see either all of them or none<br />
+ * The entries are kept until the given expiration, which should be the
+ * <b>exp</b> of the token, as expired tokens are rejected anyway
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class RevocationDelta {
+	private static final int INITIAL_CAPACITY = 8;
+
+	private long[] revokedFingerprints = new long[INITIAL_CAPACITY];
+	private long[] revokedExpirations = new long[INITIAL_CAPACITY];
+	private int revokedCount;
+	private long[] restoredFingerprints = new long[INITIAL_CAPACITY];
+	private int restoredCount;
+
+	/**
+	 *
+	 * @param id         The <b>jti</b> of the token
+	 * @param expiration The <b>exp</b> of the token, null to keep the entry
+	 *                   forever
+	 * @return this
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public RevocationDelta revokeId(String id, Instant expiration) {
+		addRevoked(RevocationSet.fingerprintOf(id), expiration);
+		return this;
+	}
+
+	/**
+	 * Revokes a token without <b>jti</b>
+	 *
+	 * @param digest     The digest of the token
+	 * @param expiration The <b>exp</b> of the token, null to keep the entry
+	 *                   forever
+	 * @return this
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public RevocationDelta revokeDigest(TokenDigest digest, Instant expiration) {
+		addRevoked(RevocationSet.fingerprintOf(digest), expiration);
+		return this;
+	}
+
+	/**
+	 * Removes a revocation of the <b>jti</b>
+	 *
+	 * @return this
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public RevocationDelta restoreId(String id) {
+		addRestored(RevocationSet.fingerprintOf(id));
+		return this;
+	}
+
+	/**
+	 * Removes a revocation of the digest
+	 *
+	 * @return this
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public RevocationDelta restoreDigest(TokenDigest digest) {
+		addRestored(RevocationSet.fingerprintOf(digest));
+		return this;
+	}
+
+	public boolean isEmpty() {
+		return revokedCount == 0 && restoredCount == 0;
+	}
+
+	int getRevokedCount() {
+		return revokedCount;
+	}
+
+	long getRevokedFingerprint(int index) {
+		return revokedFingerprints[index];
+	}
+
+	long getRevokedExpiration(int index) {
+		return revokedExpirations[index];
+	}
+
+	int getRestoredCount() {
+		return restoredCount;
+	}
+
+	long getRestoredFingerprint(int index) {
+		return restoredFingerprints[index];
+	}
+
+	private void addRevoked(long fingerprint, Instant expiration) {
+		if (revokedCount == revokedFingerprints.length) {
+			revokedFingerprints = Arrays.copyOf(revokedFingerprints, revokedCount * 2);
+			revokedExpirations = Arrays.copyOf(revokedExpirations, revokedCount * 2);
+		}
+		revokedFingerprints[revokedCount] = fingerprint;
+		revokedExpirations[revokedCount] = expiration == null ? Long.MAX_VALUE : expiration.getEpochSecond();
+		revokedCount++;
+	}
+
+	private void addRestored(long fingerprint) {
+		if (restoredCount == restoredFingerprints.length) {
+			restoredFingerprints = Arrays.copyOf(restoredFingerprints, restoredCount * 2);
+		}
+		restoredFingerprints[restoredCount++] = fingerprint;
+	}
+}
@@ -0,0 +1,248 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.revocation;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.TokenDigest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Immutable open addressing hash set of 64 bits fingerprints, with the epoch
+ * second after which each entry can be purged, stored in two primitive
+ * arrays, so lookups don't allocate<br />
+ * The fingerprint 0 marks the empty slots
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+final class RevocationSet {
+	static final RevocationSet EMPTY = new RevocationSet(new long[0], new long[0], 0);
+
+	private static final int MAGIC = 0x4B535256;
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 12;
+	private static final int ENTRY_BYTES = 16;
+	private static final int MIN_CAPACITY = 16;
+	private static final long DIGEST_SEED = 0x5DEECE66DL;
+
+	private final long[] fingerprints;
+	private final long[] expirations;
+	private final int mask;
+	private final int size;
+
+	private RevocationSet(long[] fingerprints, long[] expirations, int size) {
+		this.fingerprints = fingerprints;
+		this.expirations = expirations;
+		mask = fingerprints.length - 1;
+		this.size = size;
+	}
+
+	/**
+	 *
+	 * @param fingerprint See {@link #fingerprintOf(String)}
+	 * @param nowSeconds  Current epoch second
+	 * @return true if the fingerprint is present, and not yet expired
+	 */
+	boolean contains(long fingerprint, long nowSeconds) {
+		if (size == 0) {
+			return false;
+		}
+		int index = spread(fingerprint) & mask;
+		long current;
+		while ((current = fingerprints[index]) != 0L) {
+			if (current == fingerprint) {
+				return expirations[index] > nowSeconds;
+			}
+			index = (index + 1) & mask;
+		}
+		return false;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Creates a new set with the changes, without the entries expired at
+	 * <i>nowSeconds</i>
+	 */
+	RevocationSet withChanges(RevocationDelta delta, long nowSeconds) {
+		Builder builder = new Builder(size + delta.getRevokedCount());
+		for (int i = 0; i < fingerprints.length; i++) {
+			if (fingerprints[i] != 0L && expirations[i] > nowSeconds) {
+				builder.put(fingerprints[i], expirations[i]);
+			}
+		}
+		for (int i = 0; i < delta.getRevokedCount(); i++) {
+			if (delta.getRevokedExpiration(i) > nowSeconds) {
+				builder.put(delta.getRevokedFingerprint(i), delta.getRevokedExpiration(i));
+			}
+		}
+		for (int i = 0; i < delta.getRestoredCount(); i++) {
+			builder.remove(delta.getRestoredFingerprint(i));
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Reads a snapshot written by {@link #write(Path)}, mapping the file instead
+	 * of copying it into a heap buffer
+	 */
+	static RevocationSet read(Path file, long nowSeconds) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				throw new IOException("Not a revocation snapshot: " + file);
+			}
+			int count = buffer.getInt();
+			if (count < 0 || buffer.remaining() != (long) count * ENTRY_BYTES) {
+				throw new IOException("Truncated revocation snapshot: " + file);
+			}
+			Builder builder = new Builder(count);
+			for (int i = 0; i < count; i++) {
+				long fingerprint = buffer.getLong();
+				long expiration = buffer.getLong();
+				if (fingerprint != 0L && expiration > nowSeconds) {
+					builder.put(fingerprint, expiration);
+				}
+			}
+			return builder.build();
+		}
+	}
+
+	/**
+	 * Writes the entries to a temporary file, and moves it atomically, so
+	 * readers never see a partial snapshot
+	 */
+	void write(Path file) throws IOException {
+		Path directory = file.toAbsolutePath().getParent();
+		Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + size * ENTRY_BYTES);
+			buffer.putInt(MAGIC).putInt(VERSION).putInt(size);
+			for (int i = 0; i < fingerprints.length; i++) {
+				if (fingerprints[i] != 0L) {
+					buffer.putLong(fingerprints[i]).putLong(expirations[i]);
+				}
+			}
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(true);
+		}
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * FNV-1a of the chars, followed by the MurmurHash3 finalizer, computed
+	 * without encoding the string
+	 */
+	static long fingerprintOf(String id) {
+		long hash = 0xCBF29CE484222325L;
+		for (int i = 0; i < id.length(); i++) {
+			hash ^= id.charAt(i);
+			hash *= 0x100000001B3L;
+		}
+		return nonZero(mix(hash));
+	}
+
+	static long fingerprintOf(TokenDigest digest) {
+		return nonZero(mix(digest.getHighBits() ^ DIGEST_SEED));
+	}
+
+	private static long mix(long value) {
+		long retVal = value ^ (value >>> 33);
+		retVal *= 0xFF51AFD7ED558CCDL;
+		retVal ^= retVal >>> 33;
+		retVal *= 0xC4CEB9FE1A85EC53L;
+		return retVal ^ (retVal >>> 33);
+	}
+
+	private static long nonZero(long fingerprint) {
+		return fingerprint == 0L ? 1L : fingerprint;
+	}
+
+	private static int spread(long fingerprint) {
+		long mixed = fingerprint * 0x9E3779B97F4A7C15L;
+		return (int) (mixed ^ (mixed >>> 32));
+	}
+
+	private static final class Builder {
+		private long[] fingerprints;
+		private long[] expirations;
+		private int size;
+
+		private Builder(int expectedSize) {
+			int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1);
+			fingerprints = new long[capacity];
+			expirations = new long[capacity];
+		}
+
+		private void put(long fingerprint, long expiration) {
+			if ((size + 1) * 2 > fingerprints.length) {
+				resize();
+			}
+			int mask = fingerprints.length - 1;
+			int index = spread(fingerprint) & mask;
+			while (fingerprints[index] != 0L) {
+				if (fingerprints[index] == fingerprint) {
+					expirations[index] = Math.max(expirations[index], expiration);
+					return;
+				}
+				index = (index + 1) & mask;
+			}
+			fingerprints[index] = fingerprint;
+			expirations[index] = expiration;
+			size++;
+		}
+
+		private void remove(long fingerprint) {
+			int mask = fingerprints.length - 1;
+			int index = spread(fingerprint) & mask;
+			while (fingerprints[index] != 0L) {
+				if (fingerprints[index] == fingerprint) {
+					fingerprints[index] = 0L;
+					size--;
+					reinsertFollowing(index, mask);
+					return;
+				}
+				index = (index + 1) & mask;
+			}
+		}
+
+		private void reinsertFollowing(int removedIndex, int mask) {
+			int index = (removedIndex + 1) & mask;
+			while (fingerprints[index] != 0L) {
+				long fingerprint = fingerprints[index];
+				long expiration = expirations[index];
+				fingerprints[index] = 0L;
+				size--;
+				put(fingerprint, expiration);
+				index = (index + 1) & mask;
+			}
+		}
+
+		private void resize() {
+			long[] oldFingerprints = fingerprints;
+			long[] oldExpirations = expirations;
+			fingerprints = new long[oldFingerprints.length * 2];
+			expirations = new long[oldFingerprints.length * 2];
+			size = 0;
+			for (int i = 0; i < oldFingerprints.length; i++) {
+				if (oldFingerprints[i] != 0L) {
+					put(oldFingerprints[i], oldExpirations[i]);
+				}
+			}
+		}
+
+		private RevocationSet build() {
+			return size == 0 ? EMPTY : new RevocationSet(fingerprints, expirations, size);
+		}
+	}
+}
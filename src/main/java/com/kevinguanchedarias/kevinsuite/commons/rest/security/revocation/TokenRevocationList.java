@@ -0,0 +1,192 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.revocation;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.CommonRestException;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.TokenDigest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revoked tokens, by their <b>jti</b>, or by their {@link TokenDigest}, kept
+ * as 64 bits fingerprints in an immutable primitive hash set<br />
+ * Checking a token never takes a lock, nor allocates, changes build a new set
+ * which is swapped atomically, entries are purged once the token has
+ * expired, when changes are applied, and periodically after {@link #start()}
+ *
+ * @since 0.5.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@Slf4j
+public class TokenRevocationList implements Closeable {
+	private static final Duration DEFAULT_PURGE_INTERVAL = Duration.ofMinutes(1);
+
+	private final Duration purgeInterval;
+	private final Clock clock;
+	private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+	private volatile RevocationSet revocationSet = RevocationSet.EMPTY;
+	private ScheduledExecutorService executor;
+
+	public TokenRevocationList() {
+		this(DEFAULT_PURGE_INTERVAL);
+	}
+
+	/**
+	 *
+	 * @param purgeInterval Time between the background purges of the expired
+	 *                      entries
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TokenRevocationList(Duration purgeInterval) {
+		this(purgeInterval, Clock.systemUTC());
+	}
+
+	TokenRevocationList(Duration purgeInterval, Clock clock) {
+		this.purgeInterval = purgeInterval;
+		this.clock = clock;
+	}
+
+	/**
+	 * Starts the background purges
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	@PostConstruct
+	public synchronized void start() {
+		if (executor == null) {
+			executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "kevinsuite-revocation-purger");
+				thread.setDaemon(true);
+				return thread;
+			});
+			long intervalMillis = purgeInterval.toMillis();
+			executor.scheduleWithFixedDelay(this::purgeExpiredIfPossible, intervalMillis, intervalMillis,
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 *
+	 * @param id     The <b>jti</b>, may be null
+	 * @param digest The digest of the token, may be null
+	 * @return true if the id or the digest have been revoked
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean isRevoked(String id, TokenDigest digest) {
+		RevocationSet current = revocationSet;
+		if (current.size() == 0) {
+			return false;
+		}
+		long nowSeconds = clock.millis() / 1000L;
+		return (id != null && current.contains(RevocationSet.fingerprintOf(id), nowSeconds))
+				|| (digest != null && current.contains(RevocationSet.fingerprintOf(digest), nowSeconds));
+	}
+
+	/**
+	 * Applies all the changes at once, listeners are invoked when tokens have
+	 * been revoked
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public synchronized void apply(RevocationDelta delta) {
+		revocationSet = revocationSet.withChanges(delta, clock.millis() / 1000L);
+		if (delta.getRevokedCount() > 0) {
+			listeners.forEach(Runnable::run);
+		}
+	}
+
+	/**
+	 * Replaces the revoked tokens with the ones of a snapshot file, the file is
+	 * memory-mapped while it's read
+	 *
+	 * @throws CommonRestException When the file can't be read
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public synchronized void loadSnapshot(Path file) {
+		try {
+			revocationSet = RevocationSet.read(file, clock.millis() / 1000L);
+		} catch (IOException e) {
+			throw new CommonRestException("Couldn't load the revocation snapshot " + file, e);
+		}
+		log.debug("Loaded {} revoked tokens from {}", revocationSet.size(), file);
+		listeners.forEach(Runnable::run);
+	}
+
+	/**
+	 * Writes the current entries, the file is replaced atomically
+	 *
+	 * @throws CommonRestException When the file can't be written
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void writeSnapshot(Path file) {
+		try {
+			revocationSet.write(file);
+		} catch (IOException e) {
+			throw new CommonRestException("Couldn't write the revocation snapshot " + file, e);
+		}
+	}
+
+	/**
+	 * Removes the entries whose token has expired
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public synchronized void purgeExpired() {
+		revocationSet = revocationSet.withChanges(new RevocationDelta(), clock.millis() / 1000L);
+	}
+
+	/**
+	 *
+	 * @return The number of entries, including the expired ones not yet purged
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int size() {
+		return revocationSet.size();
+	}
+
+	/**
+	 * Registers a listener invoked after tokens have been revoked, for example
+	 * to clear caches of already verified tokens
+	 *
+	 * @since 0.5.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void addRevocationListener(Runnable listener) {
+		listeners.add(listener);
+	}
+
+	@Override
+	@PreDestroy
+	public synchronized void close() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	private void purgeExpiredIfPossible() {
+		try {
+			purgeExpired();
+		} catch (RuntimeException e) {
+			log.warn("Couldn't purge the expired revocations", e);
+		}
+	}
+}
@@ -0,0 +1,230 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.event.AuthenticationEvent;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.event.AuthenticationEventDispatcher;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.ClaimMappingDecoder;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.ClaimPath;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.TokenUserDecoder;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.VerifiedTokenCache;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.metrics.AuthenticationMetrics;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.metrics.MetricsRegistry;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.ratelimit.PrincipalRateLimiter;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.ratelimit.RateLimit;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.revocation.RevocationDelta;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.revocation.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.core.Authentication;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthenticationFilterTest {
+
+	private static final String SECRET = "a-secret-long-enough-for-the-hs256-algorithm";
+
+	private JwtAuthenticationFilter filter;
+	private TokenRevocationList revocationList;
+	private MockHttpServletResponse response;
+
+	@BeforeEach
+	public void init() {
+		filter = new JwtAuthenticationFilter();
+		filter.setTokenConfigLoader(loader());
+		filter.setAuthenticationManager(authentication -> authentication);
+		filter.setConvertExceptionToJson(true);
+		filter.setLightweightRejections(true);
+		filter.setVerifiedTokenCache(new VerifiedTokenCache(16));
+		revocationList = new TokenRevocationList();
+		filter.setTokenRevocationList(revocationList);
+		filter.init();
+		response = new MockHttpServletResponse();
+	}
+
+	@Test
+	void should_reject_tokens_revoked_while_cached() throws IOException, ServletException {
+		String token = token("jti-1");
+		assertNotNull(authenticate(token));
+		assertNotNull(authenticate(token));
+		assertEquals(1, filter.getVerifiedTokenCache().getHitCount());
+
+		revocationList.apply(new RevocationDelta().revokeId("jti-1", null));
+
+		assertNull(authenticate(token));
+		assertEquals(403, response.getStatus());
+		assertTrue(response.getContentAsString().contains(Rejections.TOKEN_REVOKED.getMessage()));
+	}
+
+	@Test
+	void should_not_cache_tokens_revoked_while_being_verified() throws IOException, ServletException {
+		JwtAuthenticationFilter racingFilter = new JwtAuthenticationFilter() {
+			@Override
+			protected Claims getTokenClaimsIfNotExpired(String token) {
+				Claims retVal = super.getTokenClaimsIfNotExpired(token);
+				revocationList.apply(new RevocationDelta().revokeId("jti-1", null));
+				return retVal;
+			}
+		};
+		racingFilter.setTokenConfigLoader(loader());
+		racingFilter.setAuthenticationManager(authentication -> authentication);
+		racingFilter.setConvertExceptionToJson(true);
+		racingFilter.setLightweightRejections(true);
+		racingFilter.setVerifiedTokenCache(new VerifiedTokenCache(16));
+		racingFilter.setTokenRevocationList(revocationList);
+
+		assertNull(racingFilter.attemptAuthentication(request(token("jti-1")), response));
+		assertEquals(403, response.getStatus());
+		assertEquals(0, racingFilter.getVerifiedTokenCache().size());
+	}
+
+	@Test
+	void should_authenticate_users_decoded_into_a_subclass() throws IOException, ServletException {
+		JwtAuthenticationFilter decodingFilter = new JwtAuthenticationFilter();
+		decodingFilter.setTokenConfigLoader(loader(ClaimMappingDecoder.fromAnnotations(TenantUser.class)));
+		decodingFilter.setAuthenticationManager(new ProviderManager(new JwtAuthenticationProvider()));
+		decodingFilter.init();
+		String token = Jwts.builder().claim("tenant", Map.of("id", 3, "admin", true))
+				.claim("data", Map.of("id", 7, "username", "kevin"))
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+				.compact();
+
+		Authentication authentication = decodingFilter.attemptAuthentication(request(token),
+				new MockHttpServletResponse());
+
+		TenantUser user = assertInstanceOf(TenantUser.class, authentication);
+		assertTrue(user.isAuthenticated());
+		assertEquals("kevin", user.getUsername());
+		assertEquals(3L, user.getTenantId());
+	}
+
+	@Test
+	void should_answer_too_many_requests_over_the_limit_of_the_principal() throws IOException, ServletException {
+		AuthenticationMetrics metrics = new AuthenticationMetrics(new MetricsRegistry());
+		filter.setMetrics(metrics);
+		try (PrincipalRateLimiter limiter = new PrincipalRateLimiter(user -> RateLimit.perMinute(1))) {
+			filter.setPrincipalRateLimiter(limiter);
+			String token = token("jti-1");
+
+			assertNotNull(authenticate(token));
+			assertNull(authenticate(token));
+
+			assertEquals(429, response.getStatus());
+			assertEquals("60", response.getHeader("Retry-After"));
+			assertTrue(response.getContentAsString().contains(Rejections.TOO_MANY_REQUESTS.getMessage()));
+			assertEquals(1L, metrics.getRegistry().counter(AuthenticationMetrics.ACCEPTED).getCount());
+		}
+	}
+
+	@Test
+	void should_throw_too_many_requests_when_not_converting_to_json() throws IOException, ServletException {
+		filter.setConvertExceptionToJson(false);
+		try (PrincipalRateLimiter limiter = new PrincipalRateLimiter(user -> RateLimit.perMinute(1))) {
+			filter.setPrincipalRateLimiter(limiter);
+			String token = token("jti-1");
+
+			assertNotNull(authenticate(token));
+			assertSame(Rejections.TOO_MANY_REQUESTS, assertThrows(RuntimeException.class, () -> authenticate(token)));
+
+			assertEquals(200, response.getStatus());
+			assertEquals("60", response.getHeader("Retry-After"));
+		}
+	}
+
+	@Test
+	void should_reject_once_when_a_synchronous_listener_vetoes() throws IOException, ServletException {
+		AuthenticationMetrics metrics = new AuthenticationMetrics(new MetricsRegistry());
+		filter.setMetrics(metrics);
+		List<AuthenticationEvent> events = new ArrayList<>();
+		filter.setAuthenticationEventDispatcher(AuthenticationEventDispatcher.builder(batch -> {
+			events.addAll(batch);
+			throw Rejections.INVALID_TOKEN;
+		}).synchronous(true).build());
+
+		assertNull(authenticate(token("jti-1")));
+
+		assertEquals(403, response.getStatus());
+		assertEquals(1, events.size());
+		assertTrue(events.get(0).isAccepted());
+		assertEquals(0L, metrics.getRegistry().counter(AuthenticationMetrics.ACCEPTED).getCount());
+		assertEquals(1L, metrics.getRegistry().counter(AuthenticationMetrics.REJECTED + "InvalidAuthorizationHeader")
+				.getCount());
+	}
+
+	private Authentication authenticate(String token) throws IOException, ServletException {
+		return filter.attemptAuthentication(request(token), response);
+	}
+
+	private static MockHttpServletRequest request(String token) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+		request.addHeader("Authorization", "Bearer " + token);
+		return request;
+	}
+
+	private static String token(String id) {
+		return Jwts.builder().setId(id).claim("data", Map.of("id", 7, "username", "kevin"))
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+				.compact();
+	}
+
+	private static TokenConfigLoader loader() {
+		return loader(null);
+	}
+
+	private static TokenConfigLoader loader(TokenUserDecoder decoder) {
+		return new TokenConfigLoader() {
+			@Override
+			public String getTokenSecret() {
+				return SECRET;
+			}
+
+			@Override
+			public TokenVerificationMethod getVerificationMethod() {
+				return TokenVerificationMethod.SECRET;
+			}
+
+			@Override
+			public String getPrivateKey() {
+				return null;
+			}
+
+			@Override
+			public String getPublicKey() {
+				return null;
+			}
+
+			@Override
+			public TokenUserDecoder getTokenUserDecoder() {
+				return decoder;
+			}
+		};
+	}
+
+	public static class TenantUser extends TokenUser {
+		private static final long serialVersionUID = 1L;
+
+		private long tenantId;
+
+		public long getTenantId() {
+			return tenantId;
+		}
+
+		@ClaimPath("tenant.id")
+		public void setTenantId(long tenantId) {
+			this.tenantId = tenantId;
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.StreamingTokenUserDecoder;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.TokenUserDecoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyTokenUserTest {
+
+	private static final String PAYLOAD = "{\"exp\":1700000000,\"data\":{\"id\":7,\"username\":\"kevin\","
+			+ "\"email\":\"kevin@kevinguanchedarias.com\"}}";
+
+	private final AtomicInteger decodeCount = new AtomicInteger();
+	private final StreamingTokenUserDecoder streamingDecoder = new StreamingTokenUserDecoder();
+	private final TokenUserDecoder countingDecoder = payload -> {
+		decodeCount.incrementAndGet();
+		return streamingDecoder.decode(payload);
+	};
+
+	@Test
+	void should_be_authenticated_without_decoding_the_payload() {
+		LazyTokenUser user = new LazyTokenUser(PAYLOAD.getBytes(StandardCharsets.UTF_8), countingDecoder);
+		JwtAuthenticationProvider provider = new JwtAuthenticationProvider();
+
+		assertTrue(provider.supports(user.getClass()));
+		Authentication authentication = provider.authenticate(user);
+
+		assertTrue(authentication.isAuthenticated());
+		assertFalse(user.isDecoded());
+		assertEquals(0, decodeCount.get());
+	}
+
+	@Test
+	void should_decode_the_payload_once_on_first_access() {
+		LazyTokenUser user = new LazyTokenUser(PAYLOAD.getBytes(StandardCharsets.UTF_8), countingDecoder);
+
+		assertEquals(7, user.getId().intValue());
+		assertEquals("kevin", user.getUsername());
+		user.setEmail("other@kevinguanchedarias.com");
+
+		assertEquals("other@kevinguanchedarias.com", user.getEmail());
+		assertEquals(1, decodeCount.get());
+	}
+
+	@Test
+	void should_decode_the_payload_of_the_token_and_keep_copies_lazy() {
+		String token = "eyJhbGciOiJIUzI1NiJ9."
+				+ Base64.getUrlEncoder().withoutPadding().encodeToString(PAYLOAD.getBytes(StandardCharsets.UTF_8))
+				+ ".signature";
+		LazyTokenUser user = new LazyTokenUser(token, countingDecoder);
+
+		TokenUser copy = user.snapshot();
+
+		assertEquals(0, decodeCount.get());
+		assertEquals("kevin@kevinguanchedarias.com", copy.getEmail());
+		assertFalse(user.isDecoded());
+		assertEquals(7, user.getId().intValue());
+		assertEquals(2, decodeCount.get());
+	}
+}
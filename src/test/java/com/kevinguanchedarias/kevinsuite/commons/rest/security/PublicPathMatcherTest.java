@@ -0,0 +1,54 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.CommonRestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicPathMatcherTest {
+
+	private PublicPathMatcher matcher;
+
+	@BeforeEach
+	public void init() {
+		matcher = PublicPathMatcher.builder().publicPath("/actuator/health").publicPath("/static/**")
+				.authenticatedPath("/static/private/**").publicPath("POST", "/auth/login")
+				.publicPath("/api/*/docs").publicPath("GET", "/api/**").authenticatedPath("GET", "/api/v1/users")
+				.build();
+	}
+
+	@Test
+	void should_match_exact_and_trailing_wildcard_paths() {
+		assertTrue(matcher.isPublic("GET", "/actuator/health"));
+		assertTrue(matcher.isPublic("GET", "/actuator/health/"));
+		assertFalse(matcher.isPublic("GET", "/actuator/health/liveness"));
+		assertFalse(matcher.isPublic("GET", "/actuator"));
+		assertTrue(matcher.isPublic("GET", "/static"));
+		assertTrue(matcher.isPublic("GET", "/static/css/app.css"));
+		assertFalse(matcher.isPublic("GET", "/"));
+		assertFalse(matcher.isPublic("GET", null));
+	}
+
+	@Test
+	void should_prefer_the_most_specific_pattern() {
+		assertFalse(matcher.isPublic("GET", "/static/private/report.pdf"));
+		assertFalse(matcher.isPublic("GET", "/api/v1/users"));
+		assertTrue(matcher.isPublic("GET", "/api/v1/groups"));
+		assertTrue(matcher.isPublic("POST", "/api/v2/docs"));
+		assertFalse(matcher.isPublic("POST", "/api/v2/users"));
+	}
+
+	@Test
+	void should_bind_rules_to_the_method() {
+		assertTrue(matcher.isPublic("POST", "/auth/login"));
+		assertFalse(matcher.isPublic("GET", "/auth/login"));
+	}
+
+	@Test
+	void should_only_allow_double_wildcard_at_the_end() {
+		PublicPathMatcher.Builder builder = PublicPathMatcher.builder();
+
+		assertThrows(CommonRestException.class, () -> builder.publicPath("/static/**/css"));
+	}
+}
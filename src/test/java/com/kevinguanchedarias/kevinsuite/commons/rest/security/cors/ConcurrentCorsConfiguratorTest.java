@@ -0,0 +1,67 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.cors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentCorsConfiguratorTest {
+
+	private ConcurrentCorsConfigurator corsConfigurator;
+
+	@BeforeEach
+	public void init() {
+		corsConfigurator = new ConcurrentCorsConfigurator();
+		corsConfigurator.setOriginList(List.of("https://app.example.com"));
+	}
+
+	@Test
+	void should_publish_the_batch_at_once() {
+		long version = corsConfigurator.getVersion();
+		ConcurrentCorsConfigurator.Snapshot before = corsConfigurator.getSnapshot();
+
+		assertTrue(corsConfigurator.batch().addOrigin("https://tenant.example.com")
+				.removeOrigin("https://app.example.com").addRootOrigin("kevinguanchedarias.com").apply());
+
+		assertEquals(version + 1, corsConfigurator.getVersion());
+		assertEquals(List.of("https://app.example.com"), before.getOriginList());
+		assertEquals(List.of("https://tenant.example.com"), corsConfigurator.getOriginList());
+		assertEquals(List.of("kevinguanchedarias.com"), corsConfigurator.getRootOriginList());
+		assertThrows(UnsupportedOperationException.class, () -> corsConfigurator.getOriginList().add("*"));
+	}
+
+	@Test
+	void should_keep_the_version_when_nothing_changes() {
+		long version = corsConfigurator.getVersion();
+
+		corsConfigurator.addOrigin("https://app.example.com");
+
+		assertFalse(corsConfigurator.batch().removeMethod("GET").apply());
+		assertEquals(version, corsConfigurator.getVersion());
+		assertNull(corsConfigurator.getMethodList());
+	}
+
+	@Test
+	void should_rebuild_the_index_only_when_the_version_changes() {
+		CorsOriginIndex index = CorsOriginIndex.of(corsConfigurator);
+
+		assertFalse(index.isStale(corsConfigurator));
+		corsConfigurator.addOrigin("https://tenant.example.com");
+
+		assertTrue(index.isStale(corsConfigurator));
+		assertTrue(CorsOriginIndex.of(corsConfigurator).isAllowed("https://tenant.example.com"));
+	}
+
+	@Test
+	void should_create_the_simple_configurator_lists_when_adding() {
+		SimpleCorsConfigurator simpleCorsConfigurator = new SimpleCorsConfigurator();
+
+		simpleCorsConfigurator.addOrigin("https://app.example.com");
+		simpleCorsConfigurator.addMethod("GET");
+
+		assertEquals(List.of("https://app.example.com"), simpleCorsConfigurator.getOriginList());
+		assertEquals(List.of("GET"), simpleCorsConfigurator.getMethodList());
+	}
+}
@@ -1,6 +1,8 @@
 package com.kevinguanchedarias.kevinsuite.commons.rest.security.cors;
 
 import com.kevinguanchedarias.kevinsuite.commons.rest.cors.exception.InvalidOriginException;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.metrics.CorsMetrics;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.metrics.MetricsRegistry;
 import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -63,6 +65,21 @@ class CorsFilterTest {
 		assertThrows(InvalidOriginException.class, this::doFilter);
 	}
 
+	@Test
+	void should_count_accepted_and_rejected_origins() {
+		CorsMetrics metrics = new CorsMetrics(new MetricsRegistry());
+		corsFilter.setMetrics(metrics);
+		setValidOrigin();
+
+		doFilter();
+		requestMock.removeHeader("Origin");
+		setOrigin("https://loltrain.com");
+		assertThrows(InvalidOriginException.class, this::doFilter);
+
+		assertEquals(1L, metrics.getRegistry().counter(CorsMetrics.ACCEPTED).getCount());
+		assertEquals(1L, metrics.getRegistry().counter(CorsMetrics.REJECTED).getCount());
+	}
+
 	@Test
 	void should_write_ok_when_http_method_is_options() throws UnsupportedEncodingException {
 		requestMock.setMethod("OPTIONS");
@@ -73,6 +90,21 @@ class CorsFilterTest {
 		assertEquals("OK", responseMock.getContentAsString());
 	}
 
+	@Test
+	void should_answer_no_content_to_preflight_when_short_circuit_is_enabled() throws UnsupportedEncodingException {
+		corsFilter.setShortCircuitPreflight(true);
+		requestMock.setMethod("OPTIONS");
+		requestMock.addHeader("Access-Control-Request-Method", "POST");
+		setValidOrigin();
+
+		doFilter();
+
+		assertEquals(204, responseMock.getStatus());
+		assertEquals("", responseMock.getContentAsString());
+		assertTrue(responseMock.containsHeader("Access-Control-Allow-Origin"));
+		assertNull(chainMock.getRequest());
+	}
+
 	@Test
 	void should_properly_detect_root_domain() {
 		setOrigin("https://universes-1.sgt.kevinguanchedarias.com:7070");
@@ -97,6 +129,49 @@ class CorsFilterTest {
 		assertEquals("GET, POST", responseMock.getHeaderValue(ACCESS_CONTROL_ALLOW_METHODS));
 	}
 
+	@Test
+	void should_write_the_configured_headers_after_adding_them() {
+		setValidOrigin();
+		doFilter();
+		assertEquals("Fake header", responseMock.getHeader("Access-Control-Allow-Headers"));
+
+		corsConfiguratorSpy.addHeader("Authorization");
+		corsConfiguratorSpy.addHeader("Content-Type");
+		responseMock = new MockHttpServletResponse();
+		chainMock = new MockFilterChain();
+		doFilter();
+
+		assertEquals("Authorization, Content-Type", responseMock.getHeader("Access-Control-Allow-Headers"));
+	}
+
+	@Test
+	void should_write_the_headers_of_a_concurrent_configurator() {
+		ConcurrentCorsConfigurator concurrentConfigurator = new ConcurrentCorsConfigurator();
+		concurrentConfigurator.setOriginList(List.of("https://universes-1.sgt.kevinguanchedarias.com:7070"));
+		concurrentConfigurator.setRootOriginList(List.of());
+		concurrentConfigurator.addHeader("Authorization");
+		corsFilter.setCorsConfigurator(concurrentConfigurator);
+		setOrigin("https://universes-1.sgt.kevinguanchedarias.com:7070");
+
+		doFilter();
+
+		assertEquals("Authorization", responseMock.getHeader("Access-Control-Allow-Headers"));
+	}
+
+	@Test
+	void should_write_the_requested_headers_when_the_header_list_is_empty() {
+		ConcurrentCorsConfigurator concurrentConfigurator = new ConcurrentCorsConfigurator();
+		concurrentConfigurator.setOriginList(List.of("https://universes-1.sgt.kevinguanchedarias.com:7070"));
+		concurrentConfigurator.setRootOriginList(List.of());
+		concurrentConfigurator.setHeaderList(List.of());
+		corsFilter.setCorsConfigurator(concurrentConfigurator);
+		setOrigin("https://universes-1.sgt.kevinguanchedarias.com:7070");
+
+		doFilter();
+
+		assertEquals("Fake header", responseMock.getHeader("Access-Control-Allow-Headers"));
+	}
+
 	private void setValidOrigin() {
 		String origin = "https://universes-1.sgt.kevinguanchedarias.com:7070";
 		corsConfiguratorSpy.getOriginList().add(origin);
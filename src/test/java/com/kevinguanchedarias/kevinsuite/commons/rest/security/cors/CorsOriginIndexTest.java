@@ -0,0 +1,76 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.cors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CorsOriginIndexTest {
+
+	private SimpleCorsConfigurator corsConfigurator;
+
+	@BeforeEach
+	public void init() {
+		corsConfigurator = new SimpleCorsConfigurator();
+		corsConfigurator.setOriginList(new ArrayList<>(List.of("https://app.example.com")));
+		corsConfigurator.setRootOriginList(new ArrayList<>(List.of("kevinguanchedarias.com")));
+	}
+
+	@Test
+	void should_accept_exact_origin() {
+		assertTrue(CorsOriginIndex.of(corsConfigurator).isAllowed("https://app.example.com"));
+		assertFalse(CorsOriginIndex.of(corsConfigurator).isAllowed("https://app.example.com:8080"));
+	}
+
+	@Test
+	void should_accept_any_origin_when_wildcard_is_present() {
+		corsConfigurator.getOriginList().add("*");
+
+		assertTrue(CorsOriginIndex.of(corsConfigurator).isAllowed("https://loltrain.com"));
+	}
+
+	@Test
+	void should_accept_root_domain_and_its_subdomains() {
+		CorsOriginIndex index = CorsOriginIndex.of(corsConfigurator);
+
+		assertTrue(index.isAllowed("https://kevinguanchedarias.com"));
+		assertTrue(index.isAllowed("https://universes-1.sgt.kevinguanchedarias.com:7070"));
+		assertTrue(index.isAllowed("http://WWW.KevinGuancheDarias.com/"));
+	}
+
+	@Test
+	void should_not_accept_domains_only_sharing_the_suffix() {
+		CorsOriginIndex index = CorsOriginIndex.of(corsConfigurator);
+
+		assertFalse(index.isAllowed("https://evilkevinguanchedarias.com"));
+		assertFalse(index.isAllowed("https://kevinguanchedarias.com.evil.org"));
+		assertFalse(index.isAllowed("null"));
+		assertFalse(index.isAllowed("https://[::1]:8080"));
+	}
+
+	@Test
+	void should_not_accept_user_info_queries_nor_fragments() {
+		CorsOriginIndex index = CorsOriginIndex.of(corsConfigurator);
+
+		assertFalse(index.isAllowed("https://evil.com#.kevinguanchedarias.com"));
+		assertFalse(index.isAllowed("https://evil.com?x=.kevinguanchedarias.com"));
+		assertFalse(index.isAllowed("https://evil.com@www.kevinguanchedarias.com"));
+		assertFalse(index.isAllowed("https://www.kevinguanchedarias.com@evil.com"));
+		assertFalse(index.isAllowed("https://user@kevinguanchedarias.com"));
+		assertTrue(index.isAllowed("https://www.kevinguanchedarias.com/?x=evil.com#evil.com"));
+	}
+
+	@Test
+	void should_detect_configurator_changes() {
+		CorsOriginIndex index = CorsOriginIndex.of(corsConfigurator);
+		assertFalse(index.isStale(corsConfigurator));
+
+		corsConfigurator.getRootOriginList().add("example.org");
+
+		assertTrue(index.isStale(corsConfigurator));
+		assertTrue(CorsOriginIndex.of(corsConfigurator).isAllowed("https://api.example.org"));
+	}
+}
@@ -0,0 +1,94 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.cors;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcCorsOriginSourceTest {
+
+	private JdbcDataSource dataSource;
+	private Connection connection;
+	private JdbcCorsOriginSource source;
+
+	@BeforeEach
+	public void init() throws SQLException {
+		dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID());
+		connection = dataSource.getConnection();
+		try (Statement statement = connection.createStatement()) {
+			statement.execute(
+					"CREATE TABLE cors_origin(origin VARCHAR(255), root_domain BOOLEAN, updated_at TIMESTAMP)");
+		}
+		source = new JdbcCorsOriginSource(dataSource);
+	}
+
+	@AfterEach
+	public void close() throws SQLException {
+		connection.close();
+	}
+
+	@Test
+	void should_split_and_trim_the_origins_and_the_root_domains() throws SQLException, IOException {
+		insert(" https://app.example.com ", false, 1_000L);
+		insert("kevinguanchedarias.com\t", true, 1_000L);
+		insert(null, false, 1_000L);
+
+		CorsOriginSet originSet = source.load(null);
+
+		assertEquals(List.of("https://app.example.com"), originSet.getOriginList());
+		assertEquals(List.of("kevinguanchedarias.com"), originSet.getRootOriginList());
+	}
+
+	@Test
+	void should_read_the_origins_only_when_the_change_marker_differs() throws SQLException, IOException {
+		insert("https://app.example.com", false, 1_000L);
+		CorsOriginSet first = source.load(null);
+
+		assertSame(first, source.load(first));
+
+		insert("https://partner.example.com", false, 2_000L);
+		CorsOriginSet second = source.load(first);
+		assertNotSame(first, second);
+		assertEquals(List.of("https://app.example.com", "https://partner.example.com"), second.getOriginList());
+		assertSame(second, source.load(second));
+
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DELETE FROM cors_origin WHERE origin = 'https://app.example.com'");
+		}
+		assertEquals(List.of("https://partner.example.com"), source.load(second).getOriginList());
+	}
+
+	@Test
+	void should_look_up_exact_origins_which_are_not_root_domains() throws SQLException, IOException {
+		insert("https://app.example.com", false, 1_000L);
+		insert("kevinguanchedarias.com", true, 1_000L);
+
+		assertTrue(source.contains("https://app.example.com"));
+		assertFalse(source.contains("kevinguanchedarias.com"));
+		assertFalse(source.contains("https://evil.example.com"));
+		assertFalse(new JdbcCorsOriginSource(dataSource, JdbcCorsOriginSource.DEFAULT_ORIGINS_QUERY,
+				JdbcCorsOriginSource.DEFAULT_CHANGE_QUERY, null).contains("https://app.example.com"));
+	}
+
+	private void insert(String origin, boolean rootDomain, long updatedAtMillis) throws SQLException {
+		try (PreparedStatement statement = connection
+				.prepareStatement("INSERT INTO cors_origin(origin, root_domain, updated_at) VALUES (?, ?, ?)")) {
+			statement.setString(1, origin);
+			statement.setBoolean(2, rootDomain);
+			statement.setTimestamp(3, new Timestamp(updatedAtMillis));
+			statement.executeUpdate();
+		}
+	}
+}
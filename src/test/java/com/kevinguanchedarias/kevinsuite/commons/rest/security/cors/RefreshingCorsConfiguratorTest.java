@@ -0,0 +1,133 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.cors;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.LogRateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshingCorsConfiguratorTest {
+
+	private Path file;
+	private RefreshingCorsConfigurator corsConfigurator;
+
+	@BeforeEach
+	public void init() throws IOException {
+		file = Files.createTempFile("kevinsuite-cors", ".txt");
+	}
+
+	@AfterEach
+	public void close() throws IOException {
+		if (corsConfigurator != null) {
+			corsConfigurator.close();
+		}
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	void should_reload_the_file_only_when_it_changes() throws IOException {
+		write("# Partners\nhttps://app.example.com\n\nkevinguanchedarias.com\n", 1_000L);
+		corsConfigurator = new RefreshingCorsConfigurator(new FileCorsOriginSource(file), Duration.ofHours(1));
+		corsConfigurator.start();
+		long version = corsConfigurator.getVersion();
+
+		assertEquals(List.of("https://app.example.com"), corsConfigurator.getOriginList());
+		assertEquals(List.of("kevinguanchedarias.com"), corsConfigurator.getRootOriginList());
+		corsConfigurator.refresh();
+		assertEquals(version, corsConfigurator.getVersion());
+
+		write("https://app.example.com\nhttps://partner.example.com\nkevinguanchedarias.com\n", 2_000L);
+		corsConfigurator.refresh();
+
+		assertEquals(version + 1, corsConfigurator.getVersion());
+		assertEquals(List.of("https://app.example.com", "https://partner.example.com"),
+				corsConfigurator.getOriginList());
+	}
+
+	@Test
+	void should_not_look_up_rejected_origins_by_default() {
+		Set<String> storedOrigins = Set.of("https://tenant.example.com");
+		AtomicInteger lookups = new AtomicInteger();
+		corsConfigurator = inlineLookups(source(storedOrigins, lookups));
+		corsConfigurator.start();
+
+		corsConfigurator.reportRejectedOrigin("https://tenant.example.com");
+
+		assertEquals(0, lookups.get());
+		assertTrue(corsConfigurator.getOriginList().isEmpty());
+	}
+
+	@Test
+	void should_look_up_rejected_origins_once_per_ttl() {
+		Set<String> storedOrigins = new HashSet<>();
+		AtomicInteger lookups = new AtomicInteger();
+		corsConfigurator = inlineLookups(source(storedOrigins, lookups));
+		corsConfigurator.setLookUpRejectedOrigins(true);
+		corsConfigurator.setRejectedOriginTtl(Duration.ofHours(1));
+		corsConfigurator.start();
+
+		corsConfigurator.reportRejectedOrigin("https://evil.example.com");
+		corsConfigurator.reportRejectedOrigin("https://evil.example.com");
+		storedOrigins.add("https://tenant.example.com");
+		corsConfigurator.reportRejectedOrigin("https://tenant.example.com");
+
+		assertEquals(List.of("https://tenant.example.com"), corsConfigurator.getOriginList());
+		assertEquals(2, lookups.get());
+		assertTrue(CorsOriginIndex.of(corsConfigurator).isAllowed("https://tenant.example.com"));
+		corsConfigurator.reportRejectedOrigin("https://evil.example.com");
+		assertEquals(2, lookups.get());
+	}
+
+	@Test
+	void should_limit_the_lookups_of_all_the_origins() {
+		Set<String> storedOrigins = Set.of("https://second.example.com");
+		AtomicInteger lookups = new AtomicInteger();
+		corsConfigurator = inlineLookups(source(storedOrigins, lookups));
+		corsConfigurator.setLookUpRejectedOrigins(true);
+		corsConfigurator.setLookupRateLimiter(new LogRateLimiter(1, Duration.ofHours(1)));
+		corsConfigurator.start();
+
+		corsConfigurator.reportRejectedOrigin("https://first.example.com");
+		corsConfigurator.reportRejectedOrigin("https://second.example.com");
+
+		assertEquals(1, lookups.get());
+		assertTrue(corsConfigurator.getOriginList().isEmpty());
+	}
+
+	private static RefreshingCorsConfigurator inlineLookups(CorsOriginSource source) {
+		return new RefreshingCorsConfigurator(source, Duration.ofHours(1), Clock.systemUTC(), Runnable::run);
+	}
+
+	private static CorsOriginSource source(Set<String> storedOrigins, AtomicInteger lookups) {
+		return new CorsOriginSource() {
+			@Override
+			public CorsOriginSet load(CorsOriginSet previous) {
+				return previous == null ? new CorsOriginSet(List.of(), List.of(), "initial") : previous;
+			}
+
+			@Override
+			public boolean contains(String origin) {
+				lookups.incrementAndGet();
+				return storedOrigins.contains(origin);
+			}
+		};
+	}
+
+	private void write(String contents, long modifiedMillis) throws IOException {
+		Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(file, FileTime.fromMillis(modifiedMillis));
+	}
+}
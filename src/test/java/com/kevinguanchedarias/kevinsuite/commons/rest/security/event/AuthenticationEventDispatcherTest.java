@@ -0,0 +1,94 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.event;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.Rejections;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthenticationEventDispatcherTest {
+
+	@Test
+	void should_deliver_every_event_in_batches() throws InterruptedException, ExecutionException {
+		List<AuthenticationEvent> delivered = new ArrayList<>();
+		List<Integer> batchSizes = new ArrayList<>();
+		AuthenticationEventDispatcher dispatcher = AuthenticationEventDispatcher.builder(events -> {
+			batchSizes.add(events.size());
+			delivered.addAll(events);
+		}).capacity(1024).batchSize(64).overflowPolicy(OverflowPolicy.BLOCK).flushInterval(Duration.ofMillis(1))
+				.build();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<Integer>> published = new ArrayList<>();
+		for (int thread = 0; thread < 4; thread++) {
+			published.add(executor.submit(() -> {
+				int retVal = 0;
+				for (int i = 0; i < 2_500; i++) {
+					retVal += dispatcher.publish(event("/api/" + i)) ? 1 : 0;
+				}
+				return retVal;
+			}));
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		dispatcher.close();
+
+		for (Future<Integer> threadPublished : published) {
+			assertEquals(2_500, threadPublished.get());
+		}
+		assertEquals(10_000, delivered.size());
+		assertEquals(10_000, dispatcher.getDeliveredCount());
+		assertEquals(0, dispatcher.getDroppedCount());
+		assertTrue(batchSizes.stream().allMatch(size -> size <= 64));
+	}
+
+	@Test
+	void should_drop_events_when_the_buffer_is_full() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		AuthenticationEventDispatcher dispatcher = AuthenticationEventDispatcher.builder(events -> {
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}).capacity(16).batchSize(1).build();
+
+		int stored = 0;
+		for (int i = 0; i < 100; i++) {
+			stored += dispatcher.publish(event("/api")) ? 1 : 0;
+		}
+		release.countDown();
+		dispatcher.close();
+
+		assertTrue(stored <= 17);
+		assertEquals(100 - stored, dispatcher.getDroppedCount());
+		assertEquals(stored, dispatcher.getDeliveredCount());
+	}
+
+	@Test
+	void should_throw_the_listener_exception_when_synchronous() {
+		AuthenticationEventDispatcher dispatcher = AuthenticationEventDispatcher.builder(events -> {
+			if (events.get(0).getPath().startsWith("/admin")) {
+				throw Rejections.INVALID_TOKEN;
+			}
+		}).synchronous(true).build();
+
+		assertTrue(dispatcher.isSynchronous());
+		assertTrue(dispatcher.publish(event("/api")));
+		assertSame(Rejections.INVALID_TOKEN, assertThrows(RuntimeException.class,
+				() -> dispatcher.publish(event("/admin"))));
+	}
+
+	private static AuthenticationEvent event(String path) {
+		return new AuthenticationEvent(System.currentTimeMillis(), null, "GET", path, 1_000L, null);
+	}
+}
@@ -0,0 +1,86 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.CommonRestException;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClaimMappingDecoderTest {
+
+	private static final String PAYLOAD = "{\"sub\":\"kevin\",\"exp\":1700000000,\"tenant\":{\"id\":3,\"admin\":true},"
+			+ "\"data\":{\"id\":7,\"username\":\"kevin\",\"email\":\"kevin@kevinguanchedarias.com\",\"roles\":[\"ADMIN\",\"USER\"]}}";
+
+	@Test
+	void should_map_annotated_claims() {
+		ClaimMappingDecoder<TenantUser> decoder = ClaimMappingDecoder.fromAnnotations(TenantUser.class);
+
+		TenantUser user = (TenantUser) decoder.decode(PAYLOAD.getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(7, user.getId());
+		assertEquals("kevin", user.getUsername());
+		assertEquals("kevin@kevinguanchedarias.com", user.getEmail());
+		assertEquals(List.of("ADMIN", "USER"), user.getRoles());
+		assertEquals(3L, user.getTenantId());
+		assertTrue(user.isTenantAdmin());
+	}
+
+	@Test
+	void should_map_claims_defined_with_the_builder() {
+		ClaimMappingDecoder<TenantUser> decoder = ClaimMappingDecoder.builder(TenantUser.class)
+				.map("sub", "username").map("tenant.id", "tenantId").build();
+
+		TenantUser user = (TenantUser) decoder.decode(PAYLOAD.getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(7, user.getId());
+		assertEquals("kevin", user.getUsername());
+		assertEquals(3L, user.getTenantId());
+		assertNull(user.getRoles());
+		assertFalse(user.isTenantAdmin());
+	}
+
+	@Test
+	void should_fail_at_build_time_when_the_property_has_no_setter() {
+		ClaimMappingDecoder.Builder<TenantUser> builder = ClaimMappingDecoder.builder(TenantUser.class);
+
+		assertThrows(CommonRestException.class, () -> builder.map("data.foo", "foo"));
+	}
+
+	public static class TenantUser extends TokenUser {
+		private static final long serialVersionUID = 1L;
+
+		@ClaimPath("data.roles")
+		private List<String> roles;
+		private long tenantId;
+		private boolean tenantAdmin;
+
+		public List<String> getRoles() {
+			return roles;
+		}
+
+		public void setRoles(List<String> roles) {
+			this.roles = roles;
+		}
+
+		public long getTenantId() {
+			return tenantId;
+		}
+
+		@ClaimPath("tenant.id")
+		public void setTenantId(long tenantId) {
+			this.tenantId = tenantId;
+		}
+
+		public boolean isTenantAdmin() {
+			return tenantAdmin;
+		}
+
+		@ClaimPath("tenant.admin")
+		public void setTenantAdmin(boolean tenantAdmin) {
+			this.tenantAdmin = tenantAdmin;
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.Rejections;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenConfigLoader;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IssuerRegistryTest {
+
+	private static final long NOW_SECONDS = 1_700_000_000L;
+	private static final String FIRST_SECRET = "first-secret-with-at-least-256-bits-of-entropy";
+	private static final String SECOND_SECRET = "second-secret-with-at-least-256-bits-of-entropy";
+
+	private TokenConfigLoader first;
+	private TokenConfigLoader second;
+	private IssuerRegistry issuerRegistry;
+
+	@BeforeEach
+	public void init() {
+		first = loader(FIRST_SECRET, 0);
+		second = loader(SECOND_SECRET, 60);
+		issuerRegistry = IssuerRegistry.builder().issuer("first", first).issuer("second", second)
+				.keyId("second-2024", second).clock(Clock.fixed(Instant.ofEpochSecond(NOW_SECONDS), ZoneOffset.UTC))
+				.build();
+	}
+
+	@Test
+	void should_route_by_kid_before_iss() {
+		assertSame(first, route("{\"alg\":\"HS256\"}", "{\"iss\":\"first\"}").getTokenConfigLoader());
+		assertSame(second,
+				route("{\"alg\":\"HS256\",\"kid\":\"second-2024\"}", "{\"iss\":\"first\"}").getTokenConfigLoader());
+		assertSame(second, route("{\"alg\":\"HS256\",\"kid\":\"other\"}", "{\"iss\":\"second\"}")
+				.getTokenConfigLoader());
+	}
+
+	@Test
+	void should_build_one_verifier_for_each_loader() {
+		assertEquals(2, issuerRegistry.getIssuers().size());
+		assertSame(route("{\"alg\":\"HS256\"}", "{\"iss\":\"second\"}").getJwtVerifier(),
+				route("{\"alg\":\"HS256\",\"kid\":\"second-2024\"}", "{}").getJwtVerifier());
+	}
+
+	@Test
+	void should_reject_unknown_issuers() {
+		assertSame(Rejections.UNKNOWN_ISSUER, assertThrows(RuntimeException.class,
+				() -> route("{\"alg\":\"HS256\"}", "{\"iss\":\"third\"}")));
+		assertSame(Rejections.UNKNOWN_ISSUER,
+				assertThrows(RuntimeException.class, () -> route("{\"alg\":\"HS256\"}", "{}")));
+	}
+
+	@Test
+	void should_screen_with_the_biggest_clock_skew() {
+		assertNotNull(issuerRegistry.screen(token("{\"alg\":\"HS256\"}", "{\"exp\":" + (NOW_SECONDS - 30) + "}")));
+		assertSame(Rejections.TOKEN_EXPIRED, assertThrows(RuntimeException.class, () -> issuerRegistry
+				.screen(token("{\"alg\":\"HS256\"}", "{\"exp\":" + (NOW_SECONDS - 61) + "}"))));
+	}
+
+	@Test
+	void should_reject_the_iss_of_other_issuer_signed_with_the_keys_of_the_kid() {
+		TokenUserResolver resolver = new TokenUserResolver();
+		resolver.setIssuerRegistry(issuerRegistry);
+
+		assertEquals(2, resolver.resolve(signedToken("second-2024", "second", SECOND_SECRET)).getId());
+		assertSame(Rejections.UNKNOWN_ISSUER, assertThrows(RuntimeException.class,
+				() -> resolver.resolve(signedToken("second-2024", "first", SECOND_SECRET))));
+		assertSame(Rejections.UNKNOWN_ISSUER, assertThrows(RuntimeException.class,
+				() -> resolver.resolve(signedToken("second-2024", null, SECOND_SECRET))));
+		assertFalse(route("{\"alg\":\"HS256\"}", "{\"iss\":\"first\"}").acceptsIssuerClaim("second"));
+	}
+
+	@Test
+	void should_accept_only_unregistered_iss_for_issuers_registered_by_kid() {
+		IssuerRegistry.Issuer issuer = IssuerRegistry.builder().issuer("first", first).keyId("second-2024", second)
+				.build().route(issuerRegistry.screen(token("{\"alg\":\"HS256\",\"kid\":\"second-2024\"}", "{}")));
+
+		assertTrue(issuer.getIssuerClaims().isEmpty());
+		assertTrue(issuer.acceptsIssuerClaim(null));
+		assertTrue(issuer.acceptsIssuerClaim("other"));
+		assertFalse(issuer.acceptsIssuerClaim("first"));
+	}
+
+	private IssuerRegistry.Issuer route(String header, String payload) {
+		return issuerRegistry.route(issuerRegistry.screen(token(header, payload)));
+	}
+
+	private static TokenConfigLoader loader(String secret, long allowedClockSkew) {
+		return new TokenConfigLoader() {
+			@Override
+			public String getTokenSecret() {
+				return secret;
+			}
+
+			@Override
+			public TokenVerificationMethod getVerificationMethod() {
+				return TokenVerificationMethod.SECRET;
+			}
+
+			@Override
+			public String getPrivateKey() {
+				return null;
+			}
+
+			@Override
+			public String getPublicKey() {
+				return null;
+			}
+
+			@Override
+			public long getAllowedClockSkew() {
+				return allowedClockSkew;
+			}
+		};
+	}
+
+	private static String signedToken(String keyId, String issuer, String secret) {
+		return Jwts.builder().setHeaderParam("kid", keyId).setIssuer(issuer).claim("data", Map.of("id", 2))
+				.signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+				.compact();
+	}
+
+	private static String token(String header, String payload) {
+		return encode(header) + "." + encode(payload) + ".signature";
+	}
+
+	private static String encode(String json) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+	}
+}
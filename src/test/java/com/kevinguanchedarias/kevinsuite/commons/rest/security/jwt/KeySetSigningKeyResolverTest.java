@@ -0,0 +1,49 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.Rejections;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.SecretKeySetSource;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.VerificationKeySet;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeySetSigningKeyResolverTest {
+
+	private static final SecretKey FIRST_KEY = SecretKeySetSource
+			.toSecretKey("first-secret-with-at-least-256-bits-of-entropy");
+	private static final SecretKey SECOND_KEY = SecretKeySetSource
+			.toSecretKey("second-secret-with-at-least-256-bits-of-entropy");
+
+	@Test
+	void should_select_the_key_by_kid() {
+		KeySetSigningKeyResolver resolver = resolver("first");
+
+		assertSame(FIRST_KEY, resolver.resolveSigningKey(Jwts.jwsHeader().setKeyId("first"), ""));
+		assertSame(SECOND_KEY, resolver.resolveSigningKey(Jwts.jwsHeader().setKeyId("second"), ""));
+	}
+
+	@Test
+	void should_use_the_default_key_for_tokens_without_kid() {
+		assertSame(SECOND_KEY, resolver("second").resolveSigningKey(Jwts.jwsHeader(), ""));
+	}
+
+	@Test
+	void should_reject_unknown_kids() {
+		KeySetSigningKeyResolver resolver = resolver("first");
+
+		assertSame(Rejections.UNKNOWN_KEY_ID, assertThrows(RuntimeException.class,
+				() -> resolver.resolveSigningKey(Jwts.jwsHeader().setKeyId("third"), "")));
+		assertSame(Rejections.UNKNOWN_KEY_ID,
+				assertThrows(RuntimeException.class, () -> resolver(null).resolveSigningKey(Jwts.jwsHeader(), "")));
+	}
+
+	private static KeySetSigningKeyResolver resolver(String defaultKeyId) {
+		VerificationKeySet keySet = VerificationKeySet.of(Map.of("first", FIRST_KEY, "second", SECOND_KEY),
+				defaultKeyId);
+		return new KeySetSigningKeyResolver(() -> keySet);
+	}
+}
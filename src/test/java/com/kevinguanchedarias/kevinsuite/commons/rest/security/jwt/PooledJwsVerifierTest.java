@@ -0,0 +1,74 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.key.VerificationKeySet;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import javax.crypto.SecretKey;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledJwsVerifierTest {
+
+	private static final long NOW_SECONDS = 1_700_000_000L;
+	private static final SecretKey SECRET = Keys
+			.hmacShaKeyFor("a-secret-long-enough-for-the-hs256-hs384-and-hs512-algorithms-0123".getBytes(StandardCharsets.UTF_8));
+	private static final Map<String, Object> CLAIMS = Map.of("exp", NOW_SECONDS + 60, "data", Map.of("id", 7));
+
+	@Test
+	void should_sign_like_the_jjwt_builder() {
+		String expected = Jwts.builder().setClaims(CLAIMS).signWith(SECRET, SignatureAlgorithm.HS256).compact();
+
+		assertEquals(expected, new PooledJwsSigner(SECRET).sign(CLAIMS, SignatureAlgorithm.HS256));
+	}
+
+	@Test
+	void should_verify_hmac_and_rsa_tokens() throws NoSuchAlgorithmException {
+		KeyPair keyPair = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+		PooledJwsVerifier rsaVerifier = verifier(keyPair.getPublic());
+
+		assertEquals(NOW_SECONDS + 60, ((Number) verifier(SECRET)
+				.parseClaims(new PooledJwsSigner(SECRET).sign(CLAIMS, SignatureAlgorithm.HS512), null).get("exp"))
+				.longValue());
+		for (SignatureAlgorithm algorithm : new SignatureAlgorithm[] { SignatureAlgorithm.RS256,
+				SignatureAlgorithm.PS256 }) {
+			String token = new PooledJwsSigner(keyPair.getPrivate()).sign(CLAIMS, algorithm);
+			assertNotNull(rsaVerifier.parseClaims(token, null).get("data"));
+		}
+	}
+
+	@Test
+	void should_reject_tampered_signatures() {
+		String token = new PooledJwsSigner(SECRET).sign(CLAIMS, SignatureAlgorithm.HS256);
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+		assertThrows(SignatureException.class, () -> verifier(SECRET).parseClaims(tampered, null));
+	}
+
+	@Test
+	void should_reject_expired_tokens() {
+		String token = new PooledJwsSigner(SECRET).sign(Map.of("exp", NOW_SECONDS - 31), SignatureAlgorithm.HS256);
+
+		assertThrows(ExpiredJwtException.class, () -> verifier(SECRET).parseClaims(token, null));
+	}
+
+	private static PooledJwsVerifier verifier(Key key) {
+		VerificationKeySet keySet = VerificationKeySet.single(key);
+		return new PooledJwsVerifier(() -> keySet, null, 30,
+				Clock.fixed(Instant.ofEpochSecond(NOW_SECONDS), ZoneOffset.UTC));
+	}
+}
@@ -0,0 +1,70 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.InvalidKeyException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignaturePoolTest {
+
+	private static final byte[] SIGNING_INPUT = "eyJhbGciOiJFUzI1NiJ9.eyJzdWIiOiJrZXZpbiJ9"
+			.getBytes(StandardCharsets.US_ASCII);
+
+	@Test
+	void should_sign_ecdsa_in_the_jose_format() throws GeneralSecurityException {
+		KeyPair keyPair = ecKeyPair("secp256r1");
+		SignaturePool signer = SignaturePool.forSigning(SignatureAlgorithm.ES256, keyPair.getPrivate());
+		SignaturePool verifier = SignaturePool.forVerification("ES256", keyPair.getPublic());
+
+		byte[] signature = signer.sign(SIGNING_INPUT, SIGNING_INPUT.length);
+
+		assertEquals(64, signature.length);
+		assertTrue(verifier.verify(SIGNING_INPUT, SIGNING_INPUT.length, signature));
+		assertFalse(verifier.verify(SIGNING_INPUT, SIGNING_INPUT.length - 1, signature));
+		Signature derSigner = Signature.getInstance("SHA256withECDSA");
+		derSigner.initSign(keyPair.getPrivate());
+		derSigner.update(SIGNING_INPUT);
+		assertFalse(verifier.verify(SIGNING_INPUT, SIGNING_INPUT.length, derSigner.sign()));
+	}
+
+	@Test
+	void should_sign_eddsa() throws GeneralSecurityException {
+		KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+		SignaturePool signer = SignaturePool.forSigning(SignaturePool.EDDSA, keyPair.getPrivate());
+		SignaturePool verifier = SignaturePool.forVerification(SignaturePool.EDDSA, keyPair.getPublic());
+
+		byte[] signature = signer.sign(SIGNING_INPUT, SIGNING_INPUT.length);
+
+		assertEquals(64, signature.length);
+		assertEquals(SignaturePool.EDDSA, verifier.getAlgorithm());
+		assertTrue(verifier.verify(SIGNING_INPUT, SIGNING_INPUT.length, signature));
+		signature[0] ^= 1;
+		assertFalse(verifier.verify(SIGNING_INPUT, SIGNING_INPUT.length, signature));
+	}
+
+	@Test
+	void should_reject_keys_of_other_algorithms() throws GeneralSecurityException {
+		KeyPair ecKeyPair = ecKeyPair("secp256r1");
+		KeyPair edKeyPair = KeyPairGenerator.getInstance("Ed448").generateKeyPair();
+
+		assertThrows(InvalidKeyException.class,
+				() -> SignaturePool.forVerification(SignaturePool.EDDSA, ecKeyPair.getPublic()));
+		assertThrows(InvalidKeyException.class,
+				() -> SignaturePool.forVerification(SignaturePool.EDDSA, edKeyPair.getPublic()));
+		assertThrows(InvalidKeyException.class, () -> SignaturePool.forVerification("ES256", edKeyPair.getPublic()));
+	}
+
+	private static KeyPair ecKeyPair(String curve) throws GeneralSecurityException {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(new ECGenParameterSpec(curve));
+		return generator.generateKeyPair();
+	}
+}
@@ -0,0 +1,41 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.Rejections;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingTokenUserDecoderTest {
+
+	private static final String PAYLOAD = "{\"exp\":1700000000,\"permissions\":[{\"name\":\"admin\",\"scopes\":[1,2]}],"
+			+ "\"data\":{\"extra\":{\"nested\":true},\"id\":7,\"username\":\"kevin\",\"email\":\"kevin@kevinguanchedarias.com\"}}";
+
+	private final StreamingTokenUserDecoder decoder = new StreamingTokenUserDecoder();
+
+	@Test
+	void should_fill_the_user_skipping_unknown_claims() {
+		TokenUser user = decoder.decode(PAYLOAD.getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(7, user.getId());
+		assertEquals("kevin", user.getUsername());
+		assertEquals("kevin@kevinguanchedarias.com", user.getEmail());
+	}
+
+	@Test
+	void should_reject_payloads_without_user_data() {
+		assertSame(Rejections.INVALID_TOKEN, assertThrows(RuntimeException.class,
+				() -> decoder.decode("{\"exp\":1}".getBytes(StandardCharsets.UTF_8))));
+	}
+
+	@Test
+	void should_deserialize_only_top_level_scalars() {
+		Map<String, ?> claims = ShallowClaimsDeserializer.INSTANCE.deserialize(PAYLOAD.getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(1, claims.size());
+		assertEquals(1700000000, claims.get("exp"));
+	}
+}
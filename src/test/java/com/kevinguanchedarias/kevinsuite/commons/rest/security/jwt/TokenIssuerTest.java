@@ -0,0 +1,110 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenIssuerTest {
+
+	private static final byte[] SECRET = "kevinsuite-token-issuer-secret-long-enough-for-hs256"
+			.getBytes(StandardCharsets.UTF_8);
+
+	private TokenIssuer tokenIssuer;
+
+	@BeforeEach
+	public void init() {
+		tokenIssuer = new TokenIssuer(new SecretKeySpec(SECRET, "HmacSHA256"), "HS256", "2024", 4);
+	}
+
+	@AfterEach
+	public void close() {
+		tokenIssuer.close();
+	}
+
+	@Test
+	void should_write_the_typed_claims() throws GeneralSecurityException {
+		TokenUser user = new TokenUser();
+		user.setId(7);
+		user.setUsername("kevin");
+		user.setEmail("kevin@kevinguanchedarias.com");
+		TokenClaims claims = TokenClaims.forUser(user, Instant.ofEpochSecond(1_700_000_060L));
+		claims.setIssuer("owge");
+		claims.setIssuedAt(Instant.ofEpochSecond(1_700_000_000L));
+		claims.claim("roles", List.of("admin"));
+
+		String[] parts = tokenIssuer.buildToken(claims).split("\\.");
+
+		assertEquals("{\"alg\":\"HS256\",\"kid\":\"2024\"}", decode(parts[0]));
+		assertEquals("{\"iss\":\"owge\",\"iat\":1700000000,\"exp\":1700000060,\"data\":{\"id\":7,"
+				+ "\"username\":\"kevin\",\"email\":\"kevin@kevinguanchedarias.com\"},\"roles\":[\"admin\"]}",
+				decode(parts[1]));
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(SECRET, "HmacSHA256"));
+		assertArrayEquals(mac.doFinal((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII)),
+				Base64.getUrlDecoder().decode(parts[2]));
+	}
+
+	@Test
+	void should_sign_batches_in_order() {
+		tokenIssuer.setBatchThreshold(4);
+		List<TokenClaims> batch = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			TokenClaims claims = new TokenClaims();
+			claims.setId(String.valueOf(i));
+			batch.add(claims);
+		}
+
+		List<String> tokens = tokenIssuer.buildTokens(batch);
+
+		assertEquals(100, tokens.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(tokenIssuer.buildToken(batch.get(i)), tokens.get(i));
+		}
+	}
+
+	@Test
+	void should_sign_eddsa_tokens() throws GeneralSecurityException {
+		KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+		try (TokenIssuer edIssuer = new TokenIssuer(keyPair.getPrivate(), SignaturePool.EDDSA)) {
+			String token = edIssuer.buildToken(new TokenClaims());
+			int signatureStart = token.lastIndexOf('.');
+
+			Signature verifier = Signature.getInstance("Ed25519");
+			verifier.initVerify(keyPair.getPublic());
+			verifier.update(token.substring(0, signatureStart).getBytes(StandardCharsets.US_ASCII));
+			assertTrue(verifier.verify(Base64.getUrlDecoder().decode(token.substring(signatureStart + 1))));
+			assertEquals("{\"alg\":\"EdDSA\"}", decode(token.substring(0, token.indexOf('.'))));
+		}
+	}
+
+	@Test
+	void should_not_sign_batches_in_parallel_once_closed() {
+		tokenIssuer.close();
+		List<TokenClaims> batch = new ArrayList<>();
+		for (int i = 0; i < 64; i++) {
+			batch.add(new TokenClaims());
+		}
+
+		assertThrows(IllegalStateException.class, () -> tokenIssuer.buildTokens(batch));
+		assertNotNull(tokenIssuer.buildToken(new TokenClaims()));
+	}
+
+	private static String decode(String segment) {
+		return new String(Base64.getUrlDecoder().decode(segment), StandardCharsets.UTF_8);
+	}
+}
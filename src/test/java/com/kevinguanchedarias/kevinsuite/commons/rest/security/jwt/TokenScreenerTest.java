@@ -0,0 +1,131 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.Rejections;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenConfigLoader;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenScreenerTest {
+
+	private static final long NOW_SECONDS = 1_700_000_000L;
+	private static final String HS256_HEADER = "{\"alg\":\"HS256\",\"kid\":\"2024\"}";
+
+	private TokenScreener tokenScreener;
+
+	@BeforeEach
+	public void init() {
+		tokenScreener = new TokenScreener(new TokenConfigLoader() {
+			@Override
+			public String getTokenSecret() {
+				return "secret";
+			}
+
+			@Override
+			public TokenVerificationMethod getVerificationMethod() {
+				return TokenVerificationMethod.SECRET;
+			}
+
+			@Override
+			public String getPrivateKey() {
+				return null;
+			}
+
+			@Override
+			public String getPublicKey() {
+				return null;
+			}
+
+			@Override
+			public long getAllowedClockSkew() {
+				return 30;
+			}
+		}, Clock.fixed(Instant.ofEpochSecond(NOW_SECONDS), ZoneOffset.UTC));
+	}
+
+	@Test
+	void should_read_the_unverified_values() {
+		ScreenedToken screenedToken = tokenScreener.screen(token(HS256_HEADER,
+				"{\"iss\":\"owge\",\"jti\":\"abc\",\"exp\":" + (NOW_SECONDS + 60) + ",\"data\":{\"id\":1}}"));
+
+		assertEquals("HS256", screenedToken.getAlgorithm());
+		assertEquals("2024", screenedToken.getKeyId());
+		assertEquals("owge", screenedToken.getIssuer());
+		assertEquals("abc", screenedToken.getId());
+		assertEquals((NOW_SECONDS + 60) * 1000, screenedToken.getExpiration());
+		assertEquals("{\"iss\":\"owge\",\"jti\":\"abc\",\"exp\":" + (NOW_SECONDS + 60) + ",\"data\":{\"id\":1}}",
+				new String(screenedToken.getPayload(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void should_reject_expired_tokens_outside_the_clock_skew() {
+		String expiredInsideSkew = token(HS256_HEADER, "{\"exp\":" + (NOW_SECONDS - 20) + "}");
+		String expired = token(HS256_HEADER, "{\"exp\":" + (NOW_SECONDS - 31) + "}");
+
+		assertNotNull(tokenScreener.screen(expiredInsideSkew));
+		assertSame(Rejections.TOKEN_EXPIRED, assertThrows(RuntimeException.class, () -> tokenScreener.screen(expired)));
+	}
+
+	@Test
+	void should_reject_tokens_not_yet_valid() {
+		String token = token(HS256_HEADER, "{\"nbf\":" + (NOW_SECONDS + 60) + "}");
+
+		assertSame(Rejections.TOKEN_NOT_YET_VALID,
+				assertThrows(RuntimeException.class, () -> tokenScreener.screen(token)));
+	}
+
+	@Test
+	void should_reject_not_allowed_algorithms() {
+		assertRejected(token("{\"alg\":\"none\"}", "{}"));
+		assertRejected(token("{\"alg\":\"RS256\"}", "{}"));
+	}
+
+	@Test
+	void should_reject_junk() {
+		assertRejected("");
+		assertRejected("a.b");
+		assertRejected("a.b.c.d");
+		assertRejected(encode(HS256_HEADER) + "..signature");
+		assertRejected(encode(HS256_HEADER) + ".%%%.signature");
+		assertRejected(token(HS256_HEADER, "[1,2]"));
+		assertRejected(token(HS256_HEADER, "{\"exp\":"));
+	}
+
+	@Test
+	void should_reject_oversized_tokens() {
+		tokenScreener.setMaxTokenLength(64);
+
+		assertRejected(token(HS256_HEADER, "{\"data\":\"" + "x".repeat(64) + "\"}"));
+	}
+
+	@Test
+	void should_read_the_id_without_screening() {
+		long expired = NOW_SECONDS - 3_600L;
+
+		assertEquals("jti-1", TokenScreener.readId(
+				token("{\"alg\":\"none\"}", "{\"exp\":" + expired + ",\"jti\":\"jti-1\",\"data\":{\"id\":1}}")));
+		assertNull(TokenScreener.readId(token(HS256_HEADER, "{\"jti\":7}")));
+		assertSame(Rejections.INVALID_TOKEN,
+				assertThrows(RuntimeException.class, () -> TokenScreener.readId(token(HS256_HEADER, "[1,2]"))));
+	}
+
+	private void assertRejected(String token) {
+		assertSame(Rejections.INVALID_TOKEN, assertThrows(RuntimeException.class, () -> tokenScreener.screen(token)));
+	}
+
+	private static String token(String header, String payload) {
+		return encode(header) + "." + encode(payload) + ".signature";
+	}
+
+	private static String encode(String json) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,105 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.LazyTokenUser;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.Rejections;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenConfigLoader;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.revocation.RevocationDelta;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.revocation.TokenRevocationList;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenUserResolverTest {
+
+	private static final String SECRET = "a-secret-long-enough-for-the-hs256-algorithm";
+
+	private TokenUserResolver resolver;
+
+	@BeforeEach
+	public void init() {
+		resolver = new TokenUserResolver(new TokenConfigLoader() {
+			@Override
+			public String getTokenSecret() {
+				return SECRET;
+			}
+
+			@Override
+			public TokenVerificationMethod getVerificationMethod() {
+				return TokenVerificationMethod.SECRET;
+			}
+
+			@Override
+			public String getPrivateKey() {
+				return null;
+			}
+
+			@Override
+			public String getPublicKey() {
+				return null;
+			}
+		});
+	}
+
+	@Test
+	void should_verify_once_and_then_take_the_user_from_the_cache() {
+		resolver.setVerifiedTokenCache(new VerifiedTokenCache(16));
+		String token = token(SECRET);
+
+		TokenUserResolver.PreparedToken first = resolver.prepare(token);
+		assertNull(first.getCachedUser());
+		assertEquals(7, resolver.verify(first).getId());
+		TokenUser cachedUser = resolver.prepare(token).getCachedUser();
+
+		assertEquals("kevin", cachedUser.getUsername());
+		assertEquals(1, resolver.getVerifiedTokenCache().getHitCount());
+	}
+
+	@Test
+	void should_create_lazy_users_with_the_streaming_decoder() {
+		resolver.setLazyTokenUser(true);
+		resolver.rebuildVerifier();
+
+		TokenUser user = resolver.resolve(token(SECRET));
+
+		assertInstanceOf(StreamingTokenUserDecoder.class, resolver.getTokenUserDecoder());
+		assertFalse(((LazyTokenUser) user).isDecoded());
+		assertEquals("kevin", user.getUsername());
+	}
+
+	@Test
+	void should_reject_tokens_signed_with_other_key() {
+		String token = token("other-secret-long-enough-for-the-hs256-algorithm");
+
+		assertThrows(SignatureException.class, () -> resolver.resolve(token));
+	}
+
+	@Test
+	void should_not_screen_the_tokens_when_only_the_revocation_list_is_set() {
+		TokenRevocationList revocationList = new TokenRevocationList();
+		resolver.setTokenRevocationList(revocationList);
+		String token = Jwts.builder().setId("jti-1").claim("data", Map.of("id", 7, "username", "x".repeat(10_000)))
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+				.compact();
+
+		assertEquals(7, resolver.resolve(token).getId());
+
+		revocationList.apply(new RevocationDelta().revokeId("jti-1", null));
+		assertSame(Rejections.TOKEN_REVOKED, assertThrows(RuntimeException.class, () -> resolver.resolve(token)));
+	}
+
+	private static String token(String secret) {
+		return Jwts.builder().setClaims(Map.of("data", Map.of("id", 7, "username", "kevin")))
+				.signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+				.compact();
+	}
+}
@@ -0,0 +1,148 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.Rejections;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerificationCoalescerTest {
+
+	private static final String TOKEN = "header.payload.signature";
+	private static final TokenDigest DIGEST = TokenDigest.of(TOKEN);
+	private static final int WAITERS = 8;
+
+	private VerificationCoalescer coalescer;
+	private boolean keyedByToken;
+
+	@BeforeEach
+	public void init() {
+		coalescer = new VerificationCoalescer();
+	}
+
+	@Test
+	void should_verify_each_token_once_while_in_flight() throws Exception {
+		AtomicInteger verifications = new AtomicInteger();
+		TokenUser user = new TokenUser();
+		user.setId(1);
+
+		List<TokenUser> users = verifyConcurrently(() -> {
+			verifications.incrementAndGet();
+			return user;
+		});
+
+		assertEquals(1, verifications.get());
+		assertEquals(WAITERS, coalescer.getCoalescedCount());
+		assertEquals(0, coalescer.inFlightCount());
+		for (TokenUser result : users) {
+			assertEquals(1, result.getId().intValue());
+		}
+		assertEquals(WAITERS, users.stream().filter(result -> result != user).count());
+	}
+
+	@Test
+	void should_coalesce_by_token_without_digest() throws Exception {
+		keyedByToken = true;
+		AtomicInteger verifications = new AtomicInteger();
+		TokenUser user = new TokenUser();
+		user.setId(3);
+
+		List<TokenUser> users = verifyConcurrently(() -> {
+			verifications.incrementAndGet();
+			return user;
+		});
+
+		assertEquals(1, verifications.get());
+		assertEquals(WAITERS, users.size());
+		assertEquals(0, coalescer.inFlightCount());
+		assertNotSame(users.get(0), users.get(1));
+	}
+
+	@Test
+	void should_throw_the_verification_failure_to_every_waiter() throws Exception {
+		AtomicInteger failures = new AtomicInteger();
+		try {
+			verifyConcurrently(() -> {
+				throw Rejections.INVALID_TOKEN;
+			});
+		} catch (ExecutionException e) {
+			failures.incrementAndGet();
+			assertSame(Rejections.INVALID_TOKEN, e.getCause());
+		}
+
+		assertEquals(1, failures.get());
+		assertEquals(0, coalescer.inFlightCount());
+		assertEquals(2, coalescer.verify(DIGEST, () -> {
+			TokenUser user = new TokenUser();
+			user.setId(2);
+			return user;
+		}).getId().intValue());
+	}
+
+	private List<TokenUser> verifyConcurrently(Supplier<TokenUser> verification) throws Exception {
+		CountDownLatch leaderStarted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(WAITERS + 1);
+		try {
+			Future<TokenUser> leader = executor.submit(() -> verify(() -> {
+				leaderStarted.countDown();
+				await(release);
+				return verification.get();
+			}));
+			assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+			List<Future<TokenUser>> waiters = new ArrayList<>();
+			for (int i = 0; i < WAITERS; i++) {
+				waiters.add(executor.submit(() -> verify(() -> {
+					throw new IllegalStateException("Should wait for the leader");
+				})));
+			}
+			while (coalescer.getCoalescedCount() < WAITERS) {
+				Thread.yield();
+			}
+			release.countDown();
+			List<TokenUser> users = new ArrayList<>();
+			List<ExecutionException> failures = new ArrayList<>();
+			for (Future<TokenUser> future : waiters) {
+				try {
+					users.add(future.get(5, TimeUnit.SECONDS));
+				} catch (ExecutionException e) {
+					failures.add(e);
+				}
+			}
+			try {
+				leader.get(5, TimeUnit.SECONDS);
+			} catch (ExecutionException e) {
+				assertEquals(WAITERS, failures.size());
+				failures.forEach(failure -> assertSame(e.getCause(), failure.getCause()));
+				throw e;
+			}
+			return users;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private TokenUser verify(Supplier<TokenUser> verification) {
+		return keyedByToken ? coalescer.verify(TOKEN, verification) : coalescer.verify(DIGEST, verification);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
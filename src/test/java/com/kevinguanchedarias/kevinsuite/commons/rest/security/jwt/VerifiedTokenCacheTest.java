@@ -0,0 +1,107 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+	private static final TokenDigest DIGEST = TokenDigest.of("header.payload.signature");
+
+	private MutableClock clock;
+	private VerifiedTokenCache cache;
+	private TokenUser user;
+
+	@BeforeEach
+	public void init() {
+		clock = new MutableClock();
+		cache = new VerifiedTokenCache(64, Duration.ofMinutes(15), clock);
+		user = new TokenUser();
+		user.setId(1);
+		user.setUsername("kevin");
+	}
+
+	@Test
+	void should_return_a_new_copy_on_each_hit() {
+		cache.put(DIGEST, user, null);
+
+		TokenUser first = cache.get(DIGEST);
+		first.setAuthenticated(true);
+		TokenUser second = cache.get(DIGEST);
+
+		assertNotSame(user, first);
+		assertNotSame(first, second);
+		assertEquals("kevin", second.getUsername());
+		assertFalse(second.isAuthenticated());
+		assertEquals(2, cache.getHitCount());
+	}
+
+	@Test
+	void should_evict_when_token_expires() {
+		cache.put(DIGEST, user, new Date(clock.millis() + 1000));
+
+		clock.advance(1000);
+
+		assertNull(cache.get(DIGEST));
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void should_not_store_already_expired_tokens() {
+		cache.put(DIGEST, user, new Date(clock.millis() - 1));
+
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void should_evict_least_recently_used_when_full() {
+		VerifiedTokenCache smallCache = new VerifiedTokenCache(1, Duration.ofMinutes(15), clock);
+		TokenDigest other = TokenDigest.of("other.payload.signature");
+
+		smallCache.put(DIGEST, user, null);
+		smallCache.put(other, user, null);
+
+		assertNull(smallCache.get(DIGEST));
+		assertNotNull(smallCache.get(other));
+		assertEquals(1, smallCache.getEvictionCount());
+	}
+
+	private static class MutableClock extends Clock {
+		private long millis = 1_700_000_000_000L;
+
+		private void advance(long amount) {
+			millis += amount;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis);
+		}
+
+		@Override
+		public long millis() {
+			return millis;
+		}
+	}
+}
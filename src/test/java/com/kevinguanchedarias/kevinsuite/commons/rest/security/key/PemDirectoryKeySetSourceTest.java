@@ -0,0 +1,59 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.key;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PemDirectoryKeySetSourceTest {
+
+	@Test
+	void should_index_the_pem_files_by_their_name() throws GeneralSecurityException, IOException {
+		Path directory = Files.createTempDirectory("kevinsuite");
+		KeyPair first = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+		KeyPair second = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+		writePem(directory.resolve("first.pem"), first);
+		writePem(directory.resolve("second.pem"), second);
+		Files.writeString(directory.resolve("notes.txt"), "not a key");
+
+		VerificationKeySet keySet = new PemDirectoryKeySetSource(directory, "second").load();
+
+		assertEquals(2, keySet.size());
+		assertEquals(first.getPublic(), keySet.findKey("first"));
+		assertEquals(second.getPublic(), keySet.findKey("second"));
+		assertEquals(second.getPublic(), keySet.findKey(null));
+		assertNull(keySet.findKey("notes"));
+	}
+
+	@Test
+	void should_see_the_added_and_removed_files_on_each_load() throws GeneralSecurityException, IOException {
+		Path directory = Files.createTempDirectory("kevinsuite");
+		writePem(directory.resolve("first.pem"), KeyPairGenerator.getInstance("RSA").generateKeyPair());
+		PemDirectoryKeySetSource source = new PemDirectoryKeySetSource(directory, null);
+		VerificationKeySet before = source.load();
+
+		writePem(directory.resolve("second.pem"), KeyPairGenerator.getInstance("RSA").generateKeyPair());
+		Files.delete(directory.resolve("first.pem"));
+		VerificationKeySet after = source.load();
+
+		assertNotNull(before.findKey("first"));
+		assertNull(after.findKey("first"));
+		assertNotNull(after.findKey("second"));
+		assertNotEquals(before, after);
+		assertEquals(after, source.load());
+	}
+
+	private static void writePem(Path file, KeyPair keyPair) throws IOException {
+		String body = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII))
+				.encodeToString(keyPair.getPublic().getEncoded());
+		Files.writeString(file, "-----BEGIN PUBLIC KEY-----\n" + body + "\n-----END PUBLIC KEY-----\n");
+	}
+}
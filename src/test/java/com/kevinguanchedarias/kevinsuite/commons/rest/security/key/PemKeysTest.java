@@ -0,0 +1,78 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.key;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.InvalidVerificationMethod;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Security;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PemKeysTest {
+
+	private static KeyPair keyPair;
+	private static Path publicKeyFile;
+	private static Path privateKeyFile;
+
+	@BeforeAll
+	public static void init() throws GeneralSecurityException, IOException {
+		keyPair = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+		publicKeyFile = writePem("PUBLIC KEY", keyPair.getPublic().getEncoded());
+		privateKeyFile = writePem("PRIVATE KEY", keyPair.getPrivate().getEncoded());
+	}
+
+	@Test
+	void should_read_keys_with_the_jdk_provider() throws GeneralSecurityException, IOException {
+		assertEquals(keyPair.getPublic(), PemKeys.readPublicKey(PemKeys.rsaKeyFactory(), publicKeyFile.toString()));
+		assertEquals(keyPair.getPrivate(),
+				PemKeys.readPrivateKey(PemKeys.rsaKeyFactory(), privateKeyFile.toString()));
+		assertEquals("SunRsaSign", PemKeys.rsaKeyFactory().getProvider().getName());
+	}
+
+	@Test
+	void should_use_bouncy_castle_without_registering_it() throws GeneralSecurityException, IOException {
+		assertArrayEquals(keyPair.getPublic().getEncoded(), PemKeys
+				.readPublicKey(PemKeys.rsaKeyFactory(CryptoProvider.BOUNCY_CASTLE), publicKeyFile.toString())
+				.getEncoded());
+		assertNull(Security.getProvider("BC"));
+	}
+
+	@Test
+	void should_read_ec_and_ed25519_keys() throws GeneralSecurityException, IOException {
+		KeyPair ecKeyPair = KeyPairGenerator.getInstance("EC").generateKeyPair();
+		KeyPair edKeyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+
+		assertEquals(ecKeyPair.getPublic(),
+				PemKeys.readPublicKey(PemKeys.keyFactory(TokenVerificationMethod.EC_KEY, null),
+						writePem("PUBLIC KEY", ecKeyPair.getPublic().getEncoded()).toString()));
+		assertArrayEquals(edKeyPair.getPrivate().getEncoded(),
+				PemKeys.readPrivateKey(PemKeys.keyFactory(TokenVerificationMethod.ED_KEY, CryptoProvider.JDK),
+						writePem("PRIVATE KEY", edKeyPair.getPrivate().getEncoded()).toString()).getEncoded());
+		assertThrows(InvalidVerificationMethod.class,
+				() -> PemKeys.keyFactory(TokenVerificationMethod.SECRET, CryptoProvider.JDK));
+	}
+
+	@Test
+	void should_reject_files_without_pem_objects() throws IOException {
+		Path file = Files.createTempFile("kevinsuite", ".pem");
+		Files.writeString(file, "not a key");
+
+		assertThrows(IOException.class, () -> PemKeys.readPublicKey(PemKeys.rsaKeyFactory(), file.toString()));
+	}
+
+	private static Path writePem(String type, byte[] content) throws IOException {
+		Path file = Files.createTempFile("kevinsuite", ".pem");
+		String body = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(content);
+		Files.writeString(file, "-----BEGIN " + type + "-----\n" + body + "\n-----END " + type + "-----\n");
+		return file;
+	}
+}
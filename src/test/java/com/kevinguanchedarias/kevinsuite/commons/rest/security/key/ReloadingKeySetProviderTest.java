@@ -0,0 +1,171 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.key;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.exception.CommonRestException;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.Rejections;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenConfigLoader;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.enumerations.TokenVerificationMethod;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.IssuerRegistry;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.JwtVerifier;
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.TokenUserResolver;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReloadingKeySetProviderTest {
+
+	private static final String SECRET = "a-secret-long-enough-for-the-hs256-algorithm";
+	private static final String NEW_SECRET = "a-new-secret-long-enough-for-the-hs256-algorithm";
+
+	private final AtomicInteger loads = new AtomicInteger();
+	private final CountDownLatch backgroundReload = new CountDownLatch(2);
+	private final AtomicReference<Map<String, String>> secrets = new AtomicReference<>(Map.of("first", SECRET));
+	private ReloadingKeySetProvider provider;
+
+	@AfterEach
+	public void close() {
+		provider.close();
+	}
+
+	@Test
+	void should_load_the_keys_once_when_started_twice() {
+		provider = new ReloadingKeySetProvider(this::load, Duration.ofHours(1));
+
+		provider.start();
+		provider.start();
+
+		assertEquals(1, loads.get());
+		assertNotNull(provider.getKeySet().findKey("first"));
+	}
+
+	@Test
+	void should_start_the_background_reloads_when_read_before_start() throws InterruptedException {
+		provider = new ReloadingKeySetProvider(this::load, Duration.ofMillis(10));
+
+		assertNotNull(provider.getKeySet().findKey("first"));
+
+		assertTrue(backgroundReload.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void should_be_started_by_the_resolver() throws InterruptedException {
+		provider = new ReloadingKeySetProvider(this::load, Duration.ofMillis(10));
+
+		new TokenUserResolver(loader(provider)).rebuildVerifier();
+
+		assertTrue(backgroundReload.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void should_be_started_by_the_issuer_registry() throws InterruptedException {
+		provider = new ReloadingKeySetProvider(this::load, Duration.ofMillis(10));
+
+		IssuerRegistry.builder().issuer("first", loader(provider)).build();
+
+		assertTrue(backgroundReload.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void should_verify_the_old_and_the_new_keys_during_the_overlap() {
+		provider = new ReloadingKeySetProvider(this::load, Duration.ofHours(1));
+		JwtVerifier verifier = new JwtVerifier(loader(provider), provider);
+		String oldToken = token("first", SECRET);
+		String newToken = token("second", NEW_SECRET);
+
+		secrets.set(Map.of("first", SECRET, "second", NEW_SECRET));
+		provider.reload();
+		assertEquals("kevin", verifier.parseClaims(oldToken).getSubject());
+		assertEquals("kevin", verifier.parseClaims(newToken).getSubject());
+
+		secrets.set(Map.of("second", NEW_SECRET));
+		provider.reload();
+		assertEquals("kevin", verifier.parseClaims(newToken).getSubject());
+		assertSame(Rejections.UNKNOWN_KEY_ID, assertThrows(RuntimeException.class, () -> verifier.parseClaims(oldToken)));
+	}
+
+	@Test
+	void should_keep_the_previous_keys_when_the_reload_fails() {
+		AtomicReference<IOException> failure = new AtomicReference<>();
+		provider = new ReloadingKeySetProvider(() -> {
+			if (failure.get() != null) {
+				throw failure.get();
+			}
+			return load();
+		}, Duration.ofHours(1));
+		VerificationKeySet loaded = provider.getKeySet();
+
+		failure.set(new IOException("Source not available"));
+
+		assertThrows(CommonRestException.class, provider::reload);
+		assertSame(loaded, provider.getKeySet());
+	}
+
+	@Test
+	void should_notify_the_listeners_only_when_the_keys_change() {
+		provider = new ReloadingKeySetProvider(this::load, Duration.ofHours(1));
+		List<VerificationKeySet> changes = new ArrayList<>();
+		provider.addKeySetChangeListener(changes::add);
+
+		provider.start();
+		provider.reload();
+		assertEquals(1, changes.size());
+
+		secrets.set(Map.of("first", SECRET, "second", NEW_SECRET));
+		provider.reload();
+		provider.reload();
+		assertEquals(2, changes.size());
+		assertEquals(2, changes.get(1).size());
+	}
+
+	private VerificationKeySet load() {
+		loads.incrementAndGet();
+		backgroundReload.countDown();
+		return new SecretKeySetSource(secrets::get, "first").load();
+	}
+
+	private static String token(String keyId, String secret) {
+		return Jwts.builder().setHeaderParam("kid", keyId).setSubject("kevin")
+				.signWith(SecretKeySetSource.toSecretKey(secret), SignatureAlgorithm.HS256).compact();
+	}
+
+	private static TokenConfigLoader loader(KeySetProvider keySetProvider) {
+		return new TokenConfigLoader() {
+			@Override
+			public String getTokenSecret() {
+				return null;
+			}
+
+			@Override
+			public TokenVerificationMethod getVerificationMethod() {
+				return TokenVerificationMethod.SECRET;
+			}
+
+			@Override
+			public String getPrivateKey() {
+				return null;
+			}
+
+			@Override
+			public String getPublicKey() {
+				return null;
+			}
+
+			@Override
+			public KeySetProvider getKeySetProvider() {
+				return keySetProvider;
+			}
+		};
+	}
+}
@@ -0,0 +1,41 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.key;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecretKeySetSourceTest {
+
+	private static final String FIRST_SECRET = "first-secret-with-at-least-256-bits-of-entropy";
+	private static final String SECOND_SECRET = "second-secret-with-at-least-256-bits-of-entropy";
+
+	@Test
+	void should_index_the_secrets_by_kid() {
+		VerificationKeySet keySet = new SecretKeySetSource(
+				() -> Map.of("first", FIRST_SECRET, "second", SECOND_SECRET), "first").load();
+
+		assertEquals(2, keySet.size());
+		assertEquals(SecretKeySetSource.toSecretKey(SECOND_SECRET), keySet.findKey("second"));
+		assertEquals(SecretKeySetSource.toSecretKey(FIRST_SECRET), keySet.findKey(null));
+		assertNull(keySet.findKey("third"));
+	}
+
+	@Test
+	void should_give_equal_key_sets_for_the_same_secrets() {
+		SecretKeySetSource source = new SecretKeySetSource(() -> Map.of("first", FIRST_SECRET), "first");
+
+		assertEquals(source.load(), source.load());
+		assertNotEquals(source.load(), new SecretKeySetSource(() -> Map.of("first", SECOND_SECRET), "first").load());
+	}
+
+	@Test
+	void should_encode_the_secrets_as_utf8() {
+		String secret = "a\u00f1il-secret-long-enough-for-the-hs256-algorithm";
+
+		assertArrayEquals(secret.getBytes(StandardCharsets.UTF_8),
+				SecretKeySetSource.toSecretKey(secret).getEncoded());
+	}
+}
@@ -0,0 +1,54 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+	@Test
+	void should_keep_values_within_the_bucket_precision() {
+		for (long value : new long[] { 0, 1, 15, 16, 17, 31, 32, 1_000, 123_456_789L, Long.MAX_VALUE }) {
+			long highest = LatencyHistogram.highestEquivalentValue(LatencyHistogram.bucketIndex(value));
+
+			assertTrue(highest >= value);
+			assertTrue(highest - value <= value / 16, "value " + value + " highest " + highest);
+		}
+	}
+
+	@Test
+	void should_compute_percentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i * 1000L);
+		}
+
+		assertEquals(1000, histogram.getCount());
+		assertEquals(1_000_000L, histogram.getMax());
+		assertEquals(500_500D, histogram.getMean());
+		assertEquals(500_000D, histogram.getValueAtPercentile(50), 500_000D / 16);
+		assertEquals(990_000D, histogram.getValueAtPercentile(99), 990_000D / 16);
+		assertEquals(1_000_000L, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	void should_export_the_registry_values() {
+		MetricsRegistry registry = new MetricsRegistry();
+		AuthenticationMetrics metrics = new AuthenticationMetrics(registry);
+		metrics.recordAccepted();
+		metrics.recordRejected(new IllegalStateException());
+		metrics.recordRejected(new IllegalStateException());
+		metrics.recordVerification(2_000);
+		metrics.bindKeySetProvider(null);
+
+		Map<String, Number> snapshot = registry.snapshot();
+
+		assertEquals(1L, snapshot.get(AuthenticationMetrics.ACCEPTED));
+		assertEquals(2L, snapshot.get(AuthenticationMetrics.REJECTED + "IllegalStateException"));
+		assertEquals(1L, snapshot.get(AuthenticationMetrics.VERIFICATION + ".count"));
+		assertEquals(0L, snapshot.get(AuthenticationMetrics.EXTRACTION + ".count"));
+		assertEquals(1L, snapshot.get(AuthenticationMetrics.KEY_SET + "size"));
+	}
+}
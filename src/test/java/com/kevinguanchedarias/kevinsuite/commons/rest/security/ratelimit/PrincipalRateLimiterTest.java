@@ -0,0 +1,98 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.ratelimit;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.TokenUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalRateLimiterTest {
+	private static final RateLimit LIMIT = new RateLimit(3, 1);
+
+	private AtomicLong clock;
+	private PrincipalRateLimiter limiter;
+
+	@BeforeEach
+	public void init() {
+		clock = new AtomicLong(1_000L);
+		limiter = new PrincipalRateLimiter(user -> LIMIT, Duration.ofMinutes(1), clock::get);
+	}
+
+	@Test
+	void should_reject_after_the_burst_until_refilled() {
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0L, limiter.tryAcquire(1L, LIMIT));
+		}
+
+		assertEquals(1_000L, limiter.tryAcquire(1L, LIMIT));
+		assertEquals(0L, limiter.tryAcquire(2L, LIMIT));
+		clock.addAndGet(400L);
+		assertEquals(600L, limiter.tryAcquire(1L, LIMIT));
+		clock.addAndGet(600L);
+		assertEquals(0L, limiter.tryAcquire(1L, LIMIT));
+		assertTrue(limiter.tryAcquire(1L, LIMIT) > 0);
+	}
+
+	@Test
+	void should_limit_by_the_user_id_and_skip_unlimited_users() {
+		TokenUser user = new TokenUser();
+		user.setId(7);
+		PrincipalRateLimiter unlimited = new PrincipalRateLimiter(tokenUser -> null);
+
+		assertEquals(0L, limiter.tryAcquire(user));
+		assertEquals(0L, limiter.tryAcquire(user));
+		assertEquals(0L, limiter.tryAcquire(7L, LIMIT));
+		assertTrue(limiter.tryAcquire(user) > 0);
+		for (int i = 0; i < 10; i++) {
+			assertEquals(0L, unlimited.tryAcquire(user));
+		}
+		assertEquals(0, unlimited.size());
+	}
+
+	@Test
+	void should_grow_and_evict_the_idle_principals() {
+		for (long id = 0; id < 100_000; id++) {
+			assertEquals(0L, limiter.tryAcquire(id, LIMIT));
+		}
+		assertEquals(100_000, limiter.size());
+		clock.addAndGet(Duration.ofMinutes(2).toMillis());
+		for (long id = 0; id < 10; id++) {
+			assertEquals(0L, limiter.tryAcquire(id, LIMIT));
+		}
+
+		limiter.evictIdle();
+
+		assertEquals(10, limiter.size());
+		assertEquals(0L, limiter.tryAcquire(0L, LIMIT));
+		assertEquals(0L, limiter.tryAcquire(0L, LIMIT));
+		assertTrue(limiter.tryAcquire(0L, LIMIT) > 0);
+		assertEquals(0L, limiter.tryAcquire(50_000L, LIMIT));
+	}
+
+	@Test
+	void should_not_allow_more_than_the_burst_concurrently() throws InterruptedException {
+		AtomicInteger allowed = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int thread = 0; thread < 8; thread++) {
+			executor.execute(() -> {
+				for (long id = 0; id < 1_000; id++) {
+					if (limiter.tryAcquire(id, LIMIT) == 0L) {
+						allowed.incrementAndGet();
+					}
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(3_000, allowed.get());
+		assertEquals(1_000, limiter.size());
+	}
+}
@@ -0,0 +1,131 @@
+package com.kevinguanchedarias.kevinsuite.commons.rest.security.revocation;
+
+import com.kevinguanchedarias.kevinsuite.commons.rest.security.jwt.TokenDigest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationListTest {
+
+	private static final TokenDigest DIGEST = TokenDigest.of("header.payload.signature");
+
+	private MutableClock clock;
+	private TokenRevocationList revocationList;
+
+	@BeforeEach
+	public void init() {
+		clock = new MutableClock();
+		revocationList = new TokenRevocationList(Duration.ofMinutes(1), clock);
+	}
+
+	@Test
+	void should_reject_revoked_ids_and_digests_until_restored() {
+		AtomicInteger notifications = new AtomicInteger();
+		revocationList.addRevocationListener(notifications::incrementAndGet);
+
+		revocationList.apply(new RevocationDelta().revokeId("jti-1", null).revokeDigest(DIGEST, null));
+
+		assertTrue(revocationList.isRevoked("jti-1", null));
+		assertTrue(revocationList.isRevoked(null, DIGEST));
+		assertFalse(revocationList.isRevoked("jti-2", TokenDigest.of("other.payload.signature")));
+		assertEquals(1, notifications.get());
+
+		revocationList.apply(new RevocationDelta().restoreId("jti-1"));
+
+		assertFalse(revocationList.isRevoked("jti-1", null));
+		assertTrue(revocationList.isRevoked(null, DIGEST));
+		assertEquals(1, notifications.get());
+	}
+
+	@Test
+	void should_purge_the_expired_entries() {
+		Instant expiration = clock.instant().plusSeconds(60);
+		revocationList.apply(new RevocationDelta().revokeId("jti-1", expiration).revokeId("jti-2", null));
+
+		clock.advance(61_000L);
+
+		assertFalse(revocationList.isRevoked("jti-1", null));
+		assertEquals(2, revocationList.size());
+		revocationList.purgeExpired();
+		assertEquals(1, revocationList.size());
+		assertTrue(revocationList.isRevoked("jti-2", null));
+	}
+
+	@Test
+	void should_keep_every_entry_when_growing_and_removing() {
+		RevocationDelta delta = new RevocationDelta();
+		for (int i = 0; i < 10_000; i++) {
+			delta.revokeId("jti-" + i, null);
+		}
+		revocationList.apply(delta);
+		RevocationDelta restored = new RevocationDelta();
+		for (int i = 0; i < 10_000; i += 2) {
+			restored.restoreId("jti-" + i);
+		}
+		revocationList.apply(restored);
+
+		assertEquals(5_000, revocationList.size());
+		for (int i = 0; i < 10_000; i++) {
+			assertEquals(i % 2 == 1, revocationList.isRevoked("jti-" + i, null));
+		}
+	}
+
+	@Test
+	void should_load_a_written_snapshot() throws IOException {
+		Path directory = Files.createTempDirectory("kevinsuite-revocation");
+		Path file = directory.resolve("revoked.bin");
+		revocationList.apply(new RevocationDelta().revokeId("jti-1", clock.instant().plusSeconds(60))
+				.revokeId("jti-2", clock.instant().plusSeconds(600)).revokeDigest(DIGEST, null));
+		revocationList.writeSnapshot(file);
+		TokenRevocationList loaded = new TokenRevocationList(Duration.ofMinutes(1), clock);
+		clock.advance(120_000L);
+
+		loaded.loadSnapshot(file);
+
+		assertEquals(2, loaded.size());
+		assertFalse(loaded.isRevoked("jti-1", null));
+		assertTrue(loaded.isRevoked("jti-2", null));
+		assertTrue(loaded.isRevoked(null, DIGEST));
+		Files.delete(file);
+		Files.delete(directory);
+	}
+
+	private static class MutableClock extends Clock {
+		private long millis = 1_700_000_000_000L;
+
+		private void advance(long amount) {
+			millis += amount;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis);
+		}
+
+		@Override
+		public long millis() {
+			return millis;
+		}
+	}
+}